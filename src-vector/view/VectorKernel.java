@@ -0,0 +1,69 @@
+package view;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernel that blends as many shapes at once as the CPU's widest vectors hold doubles, using the
+ * incubating vector API. Each channel is blended with the same operations in the same order as
+ * {@link ScalarKernel}, so the results are the same to the bit. Shapes left over at the end are
+ * blended by the scalar kernel. The loop is written out channel by channel with no helper methods,
+ * since the JIT only keeps vectors in registers when it can see every use of them; a vector passed
+ * to a method that isn't inlined, or carried around an inner loop, is allocated on the heap.
+ *
+ * <p>This class needs {@code --add-modules jdk.incubator.vector} to compile and to run, so it's kept
+ * in its own source folder, src-vector, which is only compiled on a JDK that has the module; the
+ * rest of the animator builds on Java 11 without it. It's only ever loaded by
+ * {@link InterpolationKernel#best}, which falls back to the scalar kernel when the class or the
+ * module is missing.</p>
+ */
+final class VectorKernel implements InterpolationKernel {
+
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+  @Override
+  public void interpolate(double time, int count, double[] ta, double[] tb, double[][] a,
+                          double[][] b, double[][] out) {
+    int bound = DOUBLES.loopBound(count);
+    DoubleVector t = DoubleVector.broadcast(DOUBLES, time);
+    for (int i = 0; i < bound; i += DOUBLES.length()) {
+      DoubleVector start = DoubleVector.fromArray(DOUBLES, ta, i);
+      DoubleVector end = DoubleVector.fromArray(DOUBLES, tb, i);
+      DoubleVector before = end.sub(t).div(end.sub(start));
+      DoubleVector after = t.sub(start).div(end.sub(start));
+      DoubleVector x = DoubleVector.fromArray(DOUBLES, a[0], i);
+      DoubleVector bx = DoubleVector.fromArray(DOUBLES, b[0], i);
+      DoubleVector y = DoubleVector.fromArray(DOUBLES, a[1], i);
+      DoubleVector by = DoubleVector.fromArray(DOUBLES, b[1], i);
+      VectorMask<Double> moves = x.compare(VectorOperators.NE, bx)
+              .or(y.compare(VectorOperators.NE, by));
+      x.blend(x.mul(before).add(bx.mul(after)), moves).intoArray(out[0], i);
+      y.blend(y.mul(before).add(by.mul(after)), moves).intoArray(out[1], i);
+      DoubleVector w = DoubleVector.fromArray(DOUBLES, a[2], i);
+      DoubleVector bw = DoubleVector.fromArray(DOUBLES, b[2], i);
+      DoubleVector h = DoubleVector.fromArray(DOUBLES, a[3], i);
+      DoubleVector bh = DoubleVector.fromArray(DOUBLES, b[3], i);
+      VectorMask<Double> grows = w.compare(VectorOperators.NE, bw)
+              .or(h.compare(VectorOperators.NE, bh));
+      w.blend(w.mul(before).add(bw.mul(after)), grows).intoArray(out[2], i);
+      h.blend(h.mul(before).add(bh.mul(after)), grows).intoArray(out[3], i);
+      DoubleVector red = DoubleVector.fromArray(DOUBLES, a[4], i);
+      DoubleVector bred = DoubleVector.fromArray(DOUBLES, b[4], i);
+      DoubleVector green = DoubleVector.fromArray(DOUBLES, a[5], i);
+      DoubleVector bgreen = DoubleVector.fromArray(DOUBLES, b[5], i);
+      DoubleVector blue = DoubleVector.fromArray(DOUBLES, a[6], i);
+      DoubleVector bblue = DoubleVector.fromArray(DOUBLES, b[6], i);
+      VectorMask<Double> fades = red.compare(VectorOperators.NE, bred)
+              .or(green.compare(VectorOperators.NE, bgreen))
+              .or(blue.compare(VectorOperators.NE, bblue));
+      red.blend(red.mul(before).add(bred.mul(after)), fades).intoArray(out[4], i);
+      green.blend(green.mul(before).add(bgreen.mul(after)), fades).intoArray(out[5], i);
+      blue.blend(blue.mul(before).add(bblue.mul(after)), fades).intoArray(out[6], i);
+    }
+    for (int i = bound; i < count; i++) {
+      ScalarKernel.blend(time, i, ta, tb, a, b, out);
+    }
+  }
+}
@@ -3,13 +3,18 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 
 import controller.Controller;
 import model.AnimatorModelImpl;
+import model.ColumnarAnimatorModel;
+import model.CompressedAnimatorModel;
 import model.IAnimatorModel;
+import model.IAnimatorModelView;
+import model.MappedAnimatorModelView;
 import util.AnimationBuilder;
 import util.AnimationReader;
 import view.IView;
@@ -22,7 +27,13 @@ public class Excellence {
   /**
    * Main function for the animator program that gets arguments from the command line. These include
    * the file from which the animation model reads data, the view type that will be created, the
-   * file name to output a view's contents to, and the speed of the animations.
+   * file name to output a view's contents to, and the speed of the animations. Passing -footprint
+   * also prints an estimate of the memory taken by the loaded animation to standard error, and
+   * passing -cache with a number of megabytes lets the edit view keep that much of the frames it
+   * plays, so a looping animation is only evaluated once. Passing -store with list, columnar or
+   * compressed picks how the loaded model stores its keyframes, so their footprints can be
+   * compared; passing mapped reports the footprint of the animation written to a memory-mapped
+   * file, which can only be read, so the views still play it from the default list model.
    *
    * @param args the values from the command lines that will determine characteristics of the
    *             program
@@ -35,8 +46,15 @@ public class Excellence {
     String outString = "out";
     boolean inArg = false;
     boolean viewArg = false;
-    AnimationBuilder<IAnimatorModel> builder = AnimatorModelImpl.builder();
+    boolean footprint = false;
+    long cacheBytes = 0;
+    String store = "list";
 
+    for (String arg : args) {
+      if (arg.equalsIgnoreCase("-footprint")) {
+        footprint = true;
+      }
+    }
     for (int i = 0; i < args.length - 1; i++) {
       if (args[i].equalsIgnoreCase("-view")) {
         if (args[i + 1].equalsIgnoreCase("visual") ||
@@ -66,7 +84,10 @@ public class Excellence {
                 args[i + 1].equalsIgnoreCase("-in") ||
                 args[i + 1].equalsIgnoreCase("-out") ||
                 args[i + 1].equalsIgnoreCase("-view") ||
-                args[i + 1].equalsIgnoreCase("-speed")) {
+                args[i + 1].equalsIgnoreCase("-speed") ||
+                args[i + 1].equalsIgnoreCase("-footprint") ||
+                args[i + 1].equalsIgnoreCase("-cache") ||
+                args[i + 1].equalsIgnoreCase("-store")) {
           JOptionPane.showMessageDialog(frame, "Invalid out arg!",
                   "Error", JOptionPane.ERROR_MESSAGE);
           System.exit(0);
@@ -83,6 +104,30 @@ public class Excellence {
           System.exit(0);
         }
       }
+      if (args[i].equalsIgnoreCase("-cache")) {
+        try {
+          cacheBytes = Long.parseLong(args[i + 1]) * 1024 * 1024;
+        } catch (NumberFormatException e) {
+          cacheBytes = -1;
+        }
+        if (cacheBytes < 0) {
+          JOptionPane.showMessageDialog(frame, "Invalid cache arg!",
+                  "Error", JOptionPane.ERROR_MESSAGE);
+          System.exit(0);
+        }
+      }
+      if (args[i].equalsIgnoreCase("-store")) {
+        if (args[i + 1].equalsIgnoreCase("list") ||
+                args[i + 1].equalsIgnoreCase("columnar") ||
+                args[i + 1].equalsIgnoreCase("compressed") ||
+                args[i + 1].equalsIgnoreCase("mapped")) {
+          store = args[i + 1].toLowerCase();
+        } else {
+          JOptionPane.showMessageDialog(frame, "Invalid store arg!",
+                  "Error", JOptionPane.ERROR_MESSAGE);
+          System.exit(0);
+        }
+      }
     }
 
     if (!inArg) {
@@ -98,23 +143,34 @@ public class Excellence {
     IAnimatorModel model = null;
     AnimationReader reader = new AnimationReader();
     try {
-      model = reader.parseFile(new FileReader(inString), builder);
+      model = reader.parseFile(new FileReader(inString), builder(store));
+      if (footprint && store.equals("mapped")) {
+        File mapped = File.createTempFile("animation", ".anim");
+        mapped.deleteOnExit();
+        printFootprint(reader.parseFile(new FileReader(inString),
+                MappedAnimatorModelView.builder(mapped)), System.err);
+      } else if (footprint) {
+        printFootprint(model, System.err);
+      }
     } catch (FileNotFoundException e) {
       JOptionPane.showMessageDialog(frame, "File not found!",
               "Error", JOptionPane.ERROR_MESSAGE);
       System.exit(0);
+    } catch (IOException e) {
+      JOptionPane.showMessageDialog(frame, "Couldn't create mapped file",
+              "Error", JOptionPane.ERROR_MESSAGE);
+      System.exit(0);
     }
 
-
     Appendable out = System.out;
     if (viewString.equalsIgnoreCase("visual") ||
             viewString.equalsIgnoreCase("edit")) {
-      IView view = new FactoryViews(model, out, tps).construct(viewString);
+      IView view = new FactoryViews(model, out, tps, cacheBytes).construct(viewString);
       new Controller(model, view).start();
       return;
     }
     if (outString.equalsIgnoreCase("out")) {
-      IView view = new FactoryViews(model, out, tps).construct(viewString);
+      IView view = new FactoryViews(model, out, tps, cacheBytes).construct(viewString);
       new Controller(model, view).start();
     } else {
       File fileOut = new File(outString);
@@ -124,7 +180,7 @@ public class Excellence {
       try {
         if (fileOut.createNewFile()) {
           FileWriter fileWrite = new FileWriter(fileOut);
-          IView view = new FactoryViews(model, fileWrite, tps).construct(viewString);
+          IView view = new FactoryViews(model, fileWrite, tps, cacheBytes).construct(viewString);
           fileWrite.flush();
           new Controller(model, view).start();
           fileWrite.close();
@@ -138,4 +194,26 @@ public class Excellence {
       }
     }
   }
+
+  // Gets a builder for a model that stores its keyframes the given way. The mapped store can't be
+  // edited, so models to play are built as lists instead.
+  private static AnimationBuilder<IAnimatorModel> builder(String store) {
+    if (store.equals("columnar")) {
+      return ColumnarAnimatorModel.builder();
+    }
+    if (store.equals("compressed")) {
+      return CompressedAnimatorModel.builder();
+    }
+    return AnimatorModelImpl.builder();
+  }
+
+  // Prints the estimated memory taken by each shape of the model and by the model as a whole.
+  private static void printFootprint(IAnimatorModelView model, PrintStream out) {
+    out.println("Estimated memory footprint:");
+    for (int id = 0; id < model.getShapeCount(); id++) {
+      String shape = model.getShapeName(id);
+      out.println(String.format("  %s: %s", shape, model.getFootprint(shape)));
+    }
+    out.println(String.format("  all shapes: %s", model.getFootprint()));
+  }
 }
@@ -13,6 +13,7 @@ public class FactoryViews {
   private final IAnimatorModel model;
   private final Appendable output;
   private final int ticksPerSecond;
+  private final long cacheBytes;
 
   /**
    * Constructs a FactoryViews Object.
@@ -24,12 +25,27 @@ public class FactoryViews {
    */
   public FactoryViews(IAnimatorModel model, Appendable output, int ticksPerSecond)
           throws IllegalArgumentException {
+    this(model, output, ticksPerSecond, 0);
+  }
+
+  /**
+   * Constructs a FactoryViews Object whose edit views cache the frames they play.
+   *
+   * @param model          is the model passed in to pass into the created view
+   * @param output         the name of the file the animation will output to if needed by the view
+   * @param ticksPerSecond the speed of the animation if needed by the view
+   * @param cacheBytes     the memory budget of the edit view's frame cache, or 0 for no cache
+   * @throws IllegalArgumentException if the model or outputName are null
+   */
+  public FactoryViews(IAnimatorModel model, Appendable output, int ticksPerSecond,
+                      long cacheBytes) throws IllegalArgumentException {
     if (model == null || output == null) {
       throw new IllegalArgumentException("Null field!");
     }
     this.model = model;
     this.output = output;
     this.ticksPerSecond = ticksPerSecond;
+    this.cacheBytes = cacheBytes;
   }
 
   /**
@@ -49,7 +65,7 @@ public class FactoryViews {
       case "visual":
         return new VisualView(this.model, this.ticksPerSecond);
       case "edit":
-        return new EditView(this.model, this.ticksPerSecond);
+        return new EditView(this.model, this.ticksPerSecond, this.cacheBytes);
       default:
         throw new IllegalArgumentException("Unsupported view type!");
     }
@@ -11,6 +11,7 @@ import controller.commands.AddShape;
 import controller.commands.ChangeMotion;
 import controller.commands.RemoveMotion;
 import controller.commands.RemoveShape;
+import controller.commands.SetEasing;
 import model.IAnimatorModel;
 import view.IView;
 
@@ -126,6 +127,11 @@ public class Controller implements ActionListener, IController {
           cmd = new AddMotion(shape, fields);
           fields.clear();
           break;
+        case "ease":
+          shape = s.next();
+          int tick = s.nextInt();
+          cmd = new SetEasing(shape, tick, s.next());
+          break;
         case "change":
           shape = s.next();
           for (int i = 1; i <= 8; i++) {
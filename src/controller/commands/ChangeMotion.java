@@ -38,13 +38,11 @@ public class ChangeMotion implements ShapeCommand {
     if (model == null) {
       throw new IllegalArgumentException("args contained a null");
     }
-    for (IMotion m : model.getMotions(s)) {
-      if (m.getTick() == fields.get(0)) {
-        model.removeMotion(s, m);
-        model.addMotion(s, motion);
-        return;
-      }
+    List<IMotion> keyframes = model.getKeyframes(s, fields.get(0), fields.get(0));
+    if (keyframes.isEmpty()) {
+      throw new IllegalArgumentException("invalid time");
     }
-    throw new IllegalArgumentException("invalid time");
+    model.removeMotion(s, keyframes.get(0));
+    model.addMotion(s, motion);
   }
 }
@@ -4,6 +4,8 @@ import controller.ShapeCommand;
 import model.IAnimatorModel;
 import model.IMotion;
 
+import java.util.List;
+
 /**
  * A class to represent the action of removing a motion from the animation.
  */
@@ -33,12 +35,10 @@ public class RemoveMotion implements ShapeCommand {
     if (model == null) {
       throw new IllegalArgumentException("args contained a null");
     }
-    for (IMotion m : model.getMotions(s)) {
-      if (m.getTick() == i) {
-        model.removeMotion(s, m);
-        return;
-      }
+    List<IMotion> keyframes = model.getKeyframes(s, i, i);
+    if (keyframes.isEmpty()) {
+      throw new IllegalArgumentException("Improper time");
     }
-    throw new IllegalArgumentException("Improper time");
+    model.removeMotion(s, keyframes.get(0));
   }
 }
@@ -0,0 +1,41 @@
+package controller.commands;
+
+import controller.ShapeCommand;
+import model.Easing;
+import model.IAnimatorModel;
+
+/**
+ * A class to represent the action of setting the easing of one of a shape's motions.
+ */
+public class SetEasing implements ShapeCommand {
+  private final String s;
+  private final int tick;
+  private final Easing easing;
+
+  /**
+   * Constructor for SetEasing that takes in the name of a shape, the tick of the keyframe its
+   * motion starts at and the name of the easing, such as "ease-in" or
+   * "cubic-bezier(0.1,0.7,1,0.1)".
+   *
+   * @param s      the name of the shape whose motion is eased
+   * @param tick   the tick of the keyframe the motion starts at
+   * @param easing the name of the easing
+   * @throws IllegalArgumentException if s or easing is null or easing isn't the name of an easing
+   */
+  public SetEasing(String s, int tick, String easing) throws IllegalArgumentException {
+    if (s == null || easing == null) {
+      throw new IllegalArgumentException("args contained a null");
+    }
+    this.s = s;
+    this.tick = tick;
+    this.easing = Easing.parse(easing);
+  }
+
+  @Override
+  public void execute(IAnimatorModel model) throws IllegalArgumentException {
+    if (model == null) {
+      throw new IllegalArgumentException("args contained a null");
+    }
+    model.setEasing(s, tick, easing);
+  }
+}
@@ -0,0 +1,630 @@
+package model;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An abstract class that holds the behavior shared by the models of the animator. Holds the shapes
+ * with their associated tracks of motions, shape types and the easings of their motions, and leaves
+ * it to subclasses to decide how each track stores its keyframes. Shapes are stored by id, and a
+ * map from names to ids backs the methods that take a shape's name.
+ *
+ * <p>The model keeps everything it reads in a {@link ModelState}, and a snapshot is that state
+ * itself rather than a copy. Taking a snapshot hands the model a new writer token, which marks the
+ * state and every track in it as shared; the first edit to a shared state or track afterwards
+ * copies it and claims the copy, and later edits change the copy in place. Unchanged shapes stay
+ * shared between every version of the model.</p>
+ *
+ * <p>Models are safe to edit from many threads at once. Adding a keyframe only locks the shape it
+ * belongs to, through one of a fixed set of striped locks picked by the shape's id, under the read
+ * half of a read-write lock; everything that touches more than one shape, such as adding or
+ * removing a shape, removing a keyframe or taking a snapshot, takes the write half. Threads adding
+ * keyframes to different shapes therefore never wait on each other. Reading the model itself while
+ * other threads edit it isn't safe; readers on other threads should read a {@link #snapshot}.</p>
+ */
+abstract class AbstractAnimatorModel implements IAnimatorModel, IAnimatorModelView {
+
+  private static final int STRIPES = 64;
+
+  private ModelState state;
+  private final Set<String> keys;
+  private final List<IModelListener> listeners;
+  private final ReentrantReadWriteLock lock;
+  private final Object[] stripes;
+  private Object writer;
+  private Object stateOwner;
+
+  /**
+   * Constructs a model that initializes the map of motions and map of shape types to an empty map.
+   */
+  AbstractAnimatorModel() {
+    this.state = new ModelState();
+    this.keys = new KeyView();
+    this.listeners = new CopyOnWriteArrayList<IModelListener>();
+    this.lock = new ReentrantReadWriteLock();
+    this.stripes = new Object[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      this.stripes[i] = new Object();
+    }
+    this.writer = new Object();
+    this.stateOwner = this.writer;
+  }
+
+  /**
+   * Creates an empty track to hold the keyframes of a newly added shape.
+   *
+   * @return an empty track
+   */
+  abstract KeyframeTrack newTrack();
+
+  @Override
+  public IAnimatorModelView snapshot() {
+    this.lock.writeLock().lock();
+    try {
+      this.writer = new Object();
+      return this.state;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  // Takes the read lock for an edit to a single shape. If the state is still shared with a
+  // snapshot, it's claimed under the write lock first, so edits under the read lock only ever
+  // change the model's own state.
+  private void lockShape() {
+    this.lock.readLock().lock();
+    if (this.stateOwner != this.writer) {
+      this.lock.readLock().unlock();
+      this.lock.writeLock().lock();
+      try {
+        this.claimState();
+        this.lock.readLock().lock();
+      } finally {
+        this.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  // Widens the first and last tick of the animation to take in the given ticks.
+  private void extendTimeline(int start, int end) {
+    AtomicInteger firstTick = this.state.firstTick;
+    int first = firstTick.get();
+    while (start < first && !firstTick.compareAndSet(first, start)) {
+      first = firstTick.get();
+    }
+    AtomicInteger lastTick = this.state.lastTick;
+    int last = lastTick.get();
+    while (end > last && !lastTick.compareAndSet(last, end)) {
+      last = lastTick.get();
+    }
+  }
+
+  // Copies the state if it's shared with a snapshot, so it can be changed.
+  private void claimState() {
+    if (this.stateOwner != this.writer) {
+      this.state = this.state.copy();
+      this.stateOwner = this.writer;
+    }
+  }
+
+  // Gets the track of the shape with the given id so it can be changed, copying it first if it's
+  // shared with a snapshot.
+  private KeyframeTrack claimTrack(int id) {
+    KeyframeTrack track = this.state.animations.get(id);
+    if (!track.isOwnedBy(this.writer)) {
+      this.claimState();
+      track = track.duplicate().claim(this.writer);
+      this.state.animations.set(id, track);
+    }
+    return track;
+  }
+
+  /**
+   * Replaces the track of the shape with the given id with a track that was filled elsewhere. The
+   * track must already be sorted and free of overlapping keyframes, which is how the builder hands
+   * over a whole batch of keyframes at once instead of adding them one at a time.
+   *
+   * @param id    the id of the shape
+   * @param track the shape's new track, which the model takes ownership of
+   */
+  void setTrack(int id, KeyframeTrack track) {
+    String name;
+    int start = 0;
+    int end = -1;
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      this.state.forgetLifetimes();
+      KeyframeTrack old = this.state.animations.set(this.state.checkId(id),
+              track.claim(this.writer));
+      name = this.state.names.get(id);
+      this.forget(old);
+      if (track.size() > 0) {
+        start = track.getTick(0);
+        end = track.getTick(track.size() - 1);
+        this.extendTimeline(start, end);
+        this.state.keyframes.add(track.size());
+        if (old.size() > 0) {
+          start = Math.min(start, old.getTick(0));
+          end = Math.max(end, old.getTick(old.size() - 1));
+        }
+      } else if (old.size() > 0) {
+        start = old.getTick(0);
+        end = old.getTick(old.size() - 1);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+    if (start <= end) {
+      for (IModelListener listener : this.listeners) {
+        listener.keyframesChanged(name, start, end);
+      }
+    }
+  }
+
+  // Gets the tick of the closest keyframe before the given tick in the track, or the tick itself if
+  // there's no such keyframe. A model's track has at most one keyframe at each tick.
+  private static int before(KeyframeTrack track, int tick) {
+    int i = track.indexOf(tick);
+    i = (i < 0 ? -(i + 1) : i) - 1;
+    return i >= 0 ? track.getTick(i) : tick;
+  }
+
+  // Gets the tick of the closest keyframe after the given tick in the track, or the tick itself if
+  // there's no such keyframe.
+  private static int after(KeyframeTrack track, int tick) {
+    int i = track.indexOf(tick);
+    i = i < 0 ? -(i + 1) : i + 1;
+    return i < track.size() ? track.getTick(i) : tick;
+  }
+
+  // Throws an Illegal Argument Exception if the motion overlaps one already in the track. Only
+  // keyframes at the same tick can conflict, so only those neighbours of the motion are checked.
+  private static void checkOverlap(KeyframeTrack motions, IMotion m)
+          throws IllegalArgumentException {
+    int i = motions.indexOf(m.getTick());
+    if (i < 0) {
+      return;
+    }
+    while (i > 0 && motions.getTick(i - 1) == m.getTick()) {
+      i--;
+    }
+    for (; i < motions.size() && motions.getTick(i) == m.getTick(); i++) {
+      if (!motions.matches(i, m)) {
+        throw new IllegalArgumentException("Overlapping motions!");
+      }
+    }
+  }
+
+  @Override
+  public void addMotion(String key, IMotion m) throws IllegalArgumentException {
+    if (m == null || key == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int from;
+    int to;
+    this.lockShape();
+    try {
+      int id = this.state.id(key);
+      if (id < 0) {
+        return;
+      }
+      synchronized (this.stripes[id % STRIPES]) {
+        KeyframeTrack track = this.state.animations.get(id);
+        if (track.contains(m)) {
+          return;
+        }
+        checkOverlap(track, m);
+        if (track.size() == 0 || m.getTick() < track.getTick(0)
+                || m.getTick() > track.getTick(track.size() - 1)) {
+          this.state.forgetLifetimes();
+        }
+        track = this.claimTrack(id);
+        track.add(m);
+        this.extendTimeline(m.getTick(), m.getTick());
+        this.state.keyframes.increment();
+        from = before(track, m.getTick());
+        to = after(track, m.getTick());
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+    for (IModelListener listener : this.listeners) {
+      listener.keyframeAdded(key, from, to);
+    }
+  }
+
+  @Override
+  public void addShape(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    String key = s.substring(0, s.indexOf(' '));
+    String val = s.substring(s.indexOf(' ') + 1);
+    ShapeType type = ShapeType.parse(val);
+    boolean redeclared;
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      ModelState state = this.state;
+      state.forgetLifetimes();
+      int id = state.id(key);
+      redeclared = id >= 0;
+      if (!redeclared) {
+        state.ids.put(key, state.names.size());
+        state.names.add(key);
+        state.animations.add(this.newTrack().claim(this.writer));
+        state.shapeTypes.add(type);
+        state.easings.add(SegmentEasings.NONE);
+      } else {
+        this.forget(state.animations.set(id, this.newTrack().claim(this.writer)));
+        state.shapeTypes.set(id, type);
+        state.easings.set(id, SegmentEasings.NONE);
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+    for (IModelListener listener : this.listeners) {
+      if (redeclared) {
+        listener.shapeRemoved(key);
+      }
+      listener.shapeAdded(key);
+    }
+  }
+
+  @Override
+  public void removeShape(String s) {
+    if (s == null) {
+      throw new IllegalArgumentException("null string");
+    }
+    this.lock.writeLock().lock();
+    try {
+      if (!this.state.ids.containsKey(s)) {
+        return;
+      }
+      this.claimState();
+      ModelState state = this.state;
+      int id = state.ids.remove(s);
+      state.names.remove(id);
+      state.shapeTypes.remove(id);
+      state.easings.remove(id);
+      state.forgetLifetimes();
+      this.forget(state.animations.remove(id));
+      for (Map.Entry<String, Integer> entry : state.ids.entrySet()) {
+        if (entry.getValue() > id) {
+          entry.setValue(entry.getValue() - 1);
+        }
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+    for (IModelListener listener : this.listeners) {
+      listener.shapeRemoved(s);
+    }
+  }
+
+  @Override
+  public void removeMotion(String s, IMotion m) throws IllegalArgumentException {
+    if (s == null || m == null) {
+      throw new IllegalArgumentException("null parameter!");
+    }
+    int from;
+    int to;
+    this.lock.writeLock().lock();
+    try {
+      int id = this.state.id(s);
+      if (id < 0 || !this.state.animations.get(id).contains(m)) {
+        return;
+      }
+      KeyframeTrack track = this.claimTrack(id);
+      ModelState state = this.state;
+      track.remove(m);
+      if (track.size() == 0 || m.getTick() < track.getTick(0)
+              || m.getTick() > track.getTick(track.size() - 1)) {
+        state.forgetLifetimes();
+      }
+      state.keyframes.decrement();
+      if (m.getTick() == state.firstTick.get() || m.getTick() == state.lastTick.get()) {
+        this.updateTimeline();
+      }
+      SegmentEasings curves = state.easings.get(id);
+      if (curves.size() > 0 && track.indexOf(m.getTick()) < 0) {
+        state.easings.set(id, curves.with(m.getTick(), Easing.LINEAR));
+      }
+      from = before(track, m.getTick());
+      to = after(track, m.getTick());
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+    for (IModelListener listener : this.listeners) {
+      listener.keyframeRemoved(s, from, to);
+    }
+  }
+
+  @Override
+  public void setEasing(String s, int tick, Easing easing) throws IllegalArgumentException {
+    if (s == null || easing == null) {
+      throw new IllegalArgumentException("null parameter!");
+    }
+    int end;
+    this.lock.writeLock().lock();
+    try {
+      int id = this.state.id(s);
+      if (id < 0 || this.state.easings.get(id).get(tick).equals(easing)) {
+        return;
+      }
+      this.claimState();
+      ModelState state = this.state;
+      state.easings.set(id, state.easings.get(id).with(tick, easing));
+      end = after(state.animations.get(id), tick);
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+    for (IModelListener listener : this.listeners) {
+      listener.keyframesChanged(s, tick, end);
+    }
+  }
+
+  // Updates the first and last tick of the animation after the keyframes of a track are dropped
+  // from the model.
+  private void forget(KeyframeTrack track) {
+    if (track.size() > 0) {
+      this.state.keyframes.add(-track.size());
+      if (track.getTick(0) == this.state.firstTick.get()
+              || track.getTick(track.size() - 1) == this.state.lastTick.get()) {
+        this.updateTimeline();
+      }
+    }
+  }
+
+  // Recomputes the first and last tick of the animation from the ends of each track, for when a
+  // keyframe at either end of the animation is removed.
+  private void updateTimeline() {
+    int first = Integer.MAX_VALUE;
+    int last = Integer.MIN_VALUE;
+    for (KeyframeTrack track : this.state.animations) {
+      if (track.size() > 0) {
+        first = Math.min(first, track.getTick(0));
+        last = Math.max(last, track.getTick(track.size() - 1));
+      }
+    }
+    this.state.firstTick.set(first);
+    this.state.lastTick.set(last);
+  }
+
+  @Override
+  public void setX(int x) throws IllegalArgumentException {
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      this.state.xBound = x;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void setY(int y) throws IllegalArgumentException {
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      this.state.yBound = y;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void setWidth(int width) throws IllegalArgumentException {
+    if (width < 1) {
+      throw new IllegalArgumentException("width is not positive");
+    }
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      this.state.width = width;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void setHeight(int height) throws IllegalArgumentException {
+    if (height < 1) {
+      throw new IllegalArgumentException("height is not positive");
+    }
+    this.lock.writeLock().lock();
+    try {
+      this.claimState();
+      this.state.height = height;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public List<IMotion> getMotions(String key) throws IllegalArgumentException {
+    return this.state.getMotions(key);
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(String key) throws IllegalArgumentException {
+    return this.state.getTrack(key);
+  }
+
+  @Override
+  public ShapeType getShapeType(String s) throws IllegalArgumentException {
+    return this.state.getShapeType(s);
+  }
+
+  @Override
+  public Set<String> getKeys() {
+    return this.keys;
+  }
+
+  @Override
+  public int getLastMotionTick() {
+    return this.state.getLastMotionTick();
+  }
+
+  @Override
+  public int getFirstMotionTick() {
+    return this.state.getFirstMotionTick();
+  }
+
+  @Override
+  public int getStartTick(String s) throws IllegalArgumentException {
+    return this.state.getStartTick(s);
+  }
+
+  @Override
+  public int getEndTick(String s) throws IllegalArgumentException {
+    return this.state.getEndTick(s);
+  }
+
+  @Override
+  public void addListener(IModelListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(IModelListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  @Override
+  public List<String> getActiveShapes(int tick) {
+    return this.state.getActiveShapes(tick);
+  }
+
+  @Override
+  public List<String> getActiveShapes(int fromTick, int toTick) throws IllegalArgumentException {
+    return this.state.getActiveShapes(fromTick, toTick);
+  }
+
+  @Override
+  public int getShapeCount() {
+    return this.state.getShapeCount();
+  }
+
+  @Override
+  public int getShapeId(String s) throws IllegalArgumentException {
+    return this.state.getShapeId(s);
+  }
+
+  @Override
+  public String getShapeName(int id) throws IllegalArgumentException {
+    return this.state.getShapeName(id);
+  }
+
+  @Override
+  public ShapeType getShapeType(int id) throws IllegalArgumentException {
+    return this.state.getShapeType(id);
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(int id) throws IllegalArgumentException {
+    return this.state.getTrack(id);
+  }
+
+  @Override
+  public int getStartTick(int id) throws IllegalArgumentException {
+    return this.state.getStartTick(id);
+  }
+
+  @Override
+  public int getEndTick(int id) throws IllegalArgumentException {
+    return this.state.getEndTick(id);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int tick) {
+    return this.state.getActiveShapeIds(tick);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int fromTick, int toTick) throws IllegalArgumentException {
+    return this.state.getActiveShapeIds(fromTick, toTick);
+  }
+
+  @Override
+  public int getActiveShapeIds(int tick, int[] ids) throws IllegalArgumentException {
+    return this.state.getActiveShapeIds(tick, ids);
+  }
+
+  @Override
+  public Easing getEasing(String shape, int tick) throws IllegalArgumentException {
+    return this.state.getEasing(shape, tick);
+  }
+
+  @Override
+  public Easing getEasing(int id, int tick) throws IllegalArgumentException {
+    return this.state.getEasing(id, tick);
+  }
+
+  @Override
+  public MemoryFootprint getFootprint() {
+    MemoryFootprint state = this.state.getFootprint();
+    // the model's fields and its striped locks, on top of the state it reads.
+    long modelBytes = MemoryFootprint.object(7, 0) + MemoryFootprint.array(4, STRIPES)
+            + STRIPES * MemoryFootprint.object(0, 0);
+    return new MemoryFootprint(state.getKeyframeBytes(), state.getShapeBytes() + modelBytes,
+            state.getIndexBytes());
+  }
+
+  @Override
+  public MemoryFootprint getFootprint(String shape) throws IllegalArgumentException {
+    return this.state.getFootprint(shape);
+  }
+
+  @Override
+  public int getXBound() {
+    return this.state.getXBound();
+  }
+
+  @Override
+  public int getYBound() {
+    return this.state.getYBound();
+  }
+
+  @Override
+  public int getWidth() {
+    return this.state.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return this.state.getHeight();
+  }
+
+  /**
+   * A read-only view of the names of the shapes, which always reads the model's current state even
+   * after the state is copied.
+   */
+  private final class KeyView extends AbstractSet<String> {
+
+    @Override
+    public Iterator<String> iterator() {
+      return AbstractAnimatorModel.this.state.getKeys().iterator();
+    }
+
+    @Override
+    public int size() {
+      return AbstractAnimatorModel.this.state.getShapeCount();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return AbstractAnimatorModel.this.state.getKeys().contains(o);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+import util.AnimationBuilder;
+
+/**
+ * An abstract class that represents a builder for the models of the animator. Each model provides
+ * a subclass that hands it a new, empty model so that the model's constructor can stay private.
+ *
+ * <p>Single motions and keyframes go straight into the model. Batches added with
+ * {@link #addKeyframes} are only stored until {@link #build}, which sorts and checks each shape's
+ * batch on the common fork/join pool, one task per shape, and then swaps the finished tracks into
+ * the model.</p>
+ */
+abstract class AbstractModelBuilder implements AnimationBuilder<IAnimatorModel> {
+
+  private final AbstractAnimatorModel model;
+  private final Map<String, Batch> batches;
+
+  /**
+   * Constructs a builder that fills in the given model.
+   *
+   * @param model the empty model to build
+   */
+  AbstractModelBuilder(AbstractAnimatorModel model) {
+    this.model = model;
+    this.batches = new LinkedHashMap<String, Batch>();
+  }
+
+  @Override
+  public IAnimatorModel build() throws IllegalArgumentException {
+    List<TrackTask> tasks = new ArrayList<TrackTask>(this.batches.size());
+    for (Map.Entry<String, Batch> batch : this.batches.entrySet()) {
+      int id = this.model.getShapeId(batch.getKey());
+      tasks.add(new TrackTask(this.model.getTrack(id), batch.getValue(), this.model.newTrack()));
+    }
+    this.batches.clear();
+    for (TrackTask task : tasks) {
+      task.fork();
+    }
+    for (TrackTask task : tasks) {
+      task.join();
+    }
+    for (TrackTask task : tasks) {
+      if (task.error != null) {
+        throw task.error;
+      }
+    }
+    for (TrackTask task : tasks) {
+      this.model.setTrack(this.model.getShapeId(task.name), task.merged);
+    }
+    return this.model;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> setBounds(int x, int y, int width, int height) {
+    this.model.setX(x);
+    this.model.setY(y);
+    this.model.setWidth(width);
+    this.model.setHeight(height);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> declareShape(String name, String type) {
+    if (name == null || type == null) {
+      throw new IllegalArgumentException("null string");
+    }
+    this.model.addShape(name + " " + type);
+    this.batches.remove(name);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> addMotion(String name, int t1, int x1, int y1, int w1,
+                                                    int h1, int r1, int g1, int b1, int t2,
+                                                    int x2, int y2, int w2, int h2, int r2,
+                                                    int g2, int b2) {
+    if (name == null) {
+      throw new IllegalArgumentException("null string");
+    }
+    IMotion m1 = new Motion(t1, x1, y1, w1, h1, r1, g1, b1);
+    IMotion m2 = new Motion(t2, x2, y2, w2, h2, r2, g2, b2);
+    this.model.addMotion(name, m1);
+    this.model.addMotion(name, m2);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> addKeyframe(String name, int t, int x, int y, int w,
+                                                      int h, int r, int g, int b) {
+    if (name == null) {
+      throw new IllegalArgumentException("null string");
+    }
+    IMotion m = new Motion(t, x, y, w, h, r, g, b);
+    this.model.addMotion(name, m);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> setEasing(String name, int t, String easing) {
+    if (name == null || easing == null) {
+      throw new IllegalArgumentException("null string");
+    }
+    this.model.setEasing(name, t, Easing.parse(easing));
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<IAnimatorModel> addKeyframes(String name, int[] keyframes, int count) {
+    if (name == null || keyframes == null) {
+      throw new IllegalArgumentException("null parameter");
+    }
+    if (count < 0 || count > keyframes.length / Batch.FIELDS) {
+      throw new IllegalArgumentException("not a batch of keyframes");
+    }
+    if (this.model.getShapeId(name) >= 0) {
+      this.batches.computeIfAbsent(name, k -> new Batch(k)).add(keyframes, count);
+    }
+    return this;
+  }
+
+  /**
+   * The keyframes added for one shape that haven't been put in the model yet, packed eight ints to
+   * a keyframe in the order tick, x, y, width, height, red, green and blue.
+   */
+  private static final class Batch {
+    private static final int FIELDS = 8;
+
+    private final String name;
+    private int[] values;
+    private int count;
+
+    // Constructs an empty batch for the given shape.
+    private Batch(String name) {
+      this.name = name;
+      this.values = new int[0];
+      this.count = 0;
+    }
+
+    // copies the given keyframes into the batch.
+    private void add(int[] keyframes, int count) {
+      int needed = (this.count + count) * FIELDS;
+      if (needed > this.values.length) {
+        this.values = Arrays.copyOf(this.values, Math.max(needed, this.values.length * 2));
+      }
+      System.arraycopy(keyframes, 0, this.values, this.count * FIELDS, count * FIELDS);
+      this.count += count;
+    }
+  }
+
+  /**
+   * A task that sorts one shape's batch by tick, merges it with the keyframes the shape already
+   * has, and fills a new track with the result. Keyframes at the same tick must be equal, in which
+   * case only one is kept; otherwise the task fails the same way adding them one at a time would.
+   * The task only reads the model, so the tasks for different shapes can run at the same time.
+   */
+  private static final class TrackTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final IKeyframeTrack existing;
+    private final Batch batch;
+    private final KeyframeTrack merged;
+    private RuntimeException error;
+
+    // Constructs a task that merges the batch with the existing track into the empty track given.
+    private TrackTask(IKeyframeTrack existing, Batch batch, KeyframeTrack merged) {
+      this.name = batch.name;
+      this.existing = existing;
+      this.batch = batch;
+      this.merged = merged;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        int[] values = this.batch.values;
+        long[] order = new long[this.batch.count];
+        for (int i = 0; i < order.length; i++) {
+          order[i] = ((long) values[i * Batch.FIELDS] << 32) | i;
+        }
+        Arrays.sort(order);
+        int next = 0;
+        for (int i = 0; i < order.length; i++) {
+          int at = (int) order[i] * Batch.FIELDS;
+          IMotion m = new Motion(values[at], values[at + 1], values[at + 2], values[at + 3],
+                  values[at + 4], values[at + 5], values[at + 6], values[at + 7]);
+          while (next < this.existing.size() && this.existing.getTick(next) <= m.getTick()) {
+            this.append(this.existing.getMotion(next++));
+          }
+          this.append(m);
+        }
+        while (next < this.existing.size()) {
+          this.append(this.existing.getMotion(next++));
+        }
+      } catch (RuntimeException e) {
+        this.error = e;
+      }
+    }
+
+    // Adds the keyframe to the end of the merged track, unless the last keyframe is the same one.
+    private void append(IMotion m) {
+      int last = this.merged.size() - 1;
+      if (last >= 0 && this.merged.getTick(last) == m.getTick()) {
+        if (!this.merged.matches(last, m)) {
+          throw new IllegalArgumentException("Overlapping motions!");
+        }
+        return;
+      }
+      this.merged.insert(last + 1, m);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * A class that represents a model of the animator that stores the keyframes of each shape as
+ * parallel columns of ints instead of as motion objects. It behaves exactly like
+ * {@link AnimatorModelImpl}, but takes several times less memory per keyframe, which matters for
+ * animations with hundreds of thousands of keyframes. Motions handed out by the model are created
+ * from the columns when they are asked for.
+ */
+public final class ColumnarAnimatorModel extends AbstractAnimatorModel {
+
+  /**
+   * Constructs a model that initializes the map of tracks and map of shape types to an empty map.
+   */
+  private ColumnarAnimatorModel() {
+    super();
+  }
+
+  @Override
+  KeyframeTrack newTrack() {
+    return new ColumnarTrack();
+  }
+
+  /**
+   * Creates a new Builder object.
+   *
+   * @return a new Builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * A class that represents a builder for the columnar animator model. Used to create a model while
+   * keeping the model's constructor private.
+   */
+  public static final class Builder extends AbstractModelBuilder {
+
+    /**
+     * Constructs a builder for a new, empty model.
+     */
+    public Builder() {
+      super(new ColumnarAnimatorModel());
+    }
+  }
+}
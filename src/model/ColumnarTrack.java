@@ -0,0 +1,198 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A keyframe track that stores its keyframes as parallel columns of ints rather than as motion
+ * objects. Each keyframe costs six ints (the color is packed into one), and scans over a single
+ * property such as the tick walk one contiguous array. Motions are only created when a caller asks
+ * for one.
+ */
+final class ColumnarTrack extends KeyframeTrack {
+
+  private static final int INITIAL_CAPACITY = 4;
+  private static final int[] EMPTY = new int[0];
+
+  private int size;
+  private int[] ticks;
+  private int[] xs;
+  private int[] ys;
+  private int[] widths;
+  private int[] heights;
+  private int[] colors;
+
+  /**
+   * Constructs an empty track.
+   */
+  ColumnarTrack() {
+    this.size = 0;
+    this.ticks = EMPTY;
+    this.xs = EMPTY;
+    this.ys = EMPTY;
+    this.widths = EMPTY;
+    this.heights = EMPTY;
+    this.colors = EMPTY;
+  }
+
+  @Override
+  KeyframeTrack duplicate() {
+    ColumnarTrack copy = new ColumnarTrack();
+    copy.size = this.size;
+    copy.ticks = Arrays.copyOf(this.ticks, this.size);
+    copy.xs = Arrays.copyOf(this.xs, this.size);
+    copy.ys = Arrays.copyOf(this.ys, this.size);
+    copy.widths = Arrays.copyOf(this.widths, this.size);
+    copy.heights = Arrays.copyOf(this.heights, this.size);
+    copy.colors = Arrays.copyOf(this.colors, this.size);
+    return copy;
+  }
+
+  @Override
+  long footprint() {
+    long bytes = MemoryFootprint.object(7, Integer.BYTES);
+    if (this.ticks != EMPTY) {
+      bytes += 6 * MemoryFootprint.array(Integer.BYTES, this.ticks.length);
+    }
+    return bytes;
+  }
+
+  // packs the three color values of a motion into a single int.
+  private static int pack(IMotion m) {
+    return (m.getRed() << 16) | (m.getGreen() << 8) | m.getBlue();
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int getTick(int i) {
+    checkIndex(i);
+    return this.ticks[i];
+  }
+
+  @Override
+  public int getX(int i) {
+    checkIndex(i);
+    return this.xs[i];
+  }
+
+  @Override
+  public int getY(int i) {
+    checkIndex(i);
+    return this.ys[i];
+  }
+
+  @Override
+  public int getWidth(int i) {
+    checkIndex(i);
+    return this.widths[i];
+  }
+
+  @Override
+  public int getHeight(int i) {
+    checkIndex(i);
+    return this.heights[i];
+  }
+
+  @Override
+  public int getRed(int i) {
+    checkIndex(i);
+    return (this.colors[i] >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreen(int i) {
+    checkIndex(i);
+    return (this.colors[i] >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlue(int i) {
+    checkIndex(i);
+    return this.colors[i] & 0xFF;
+  }
+
+  @Override
+  public IMotion getMotion(int i) {
+    checkIndex(i);
+    int rgb = this.colors[i];
+    return new Motion(this.ticks[i], this.xs[i], this.ys[i], this.widths[i], this.heights[i],
+            (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+  }
+
+  @Override
+  boolean matches(int i, IMotion m) {
+    checkIndex(i);
+    return this.ticks[i] == m.getTick() && this.xs[i] == m.getX() && this.ys[i] == m.getY()
+            && this.widths[i] == m.getWidth() && this.heights[i] == m.getHeight()
+            && this.colors[i] == pack(m);
+  }
+
+  @Override
+  void insert(int i, IMotion m) {
+    if (i < 0 || i > this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+    }
+    if (this.size == this.ticks.length) {
+      this.grow();
+    }
+    int moved = this.size - i;
+    System.arraycopy(this.ticks, i, this.ticks, i + 1, moved);
+    System.arraycopy(this.xs, i, this.xs, i + 1, moved);
+    System.arraycopy(this.ys, i, this.ys, i + 1, moved);
+    System.arraycopy(this.widths, i, this.widths, i + 1, moved);
+    System.arraycopy(this.heights, i, this.heights, i + 1, moved);
+    System.arraycopy(this.colors, i, this.colors, i + 1, moved);
+    this.ticks[i] = m.getTick();
+    this.xs[i] = m.getX();
+    this.ys[i] = m.getY();
+    this.widths[i] = m.getWidth();
+    this.heights[i] = m.getHeight();
+    this.colors[i] = pack(m);
+    this.size++;
+  }
+
+  @Override
+  void delete(int i) {
+    checkIndex(i);
+    int moved = this.size - i - 1;
+    System.arraycopy(this.ticks, i + 1, this.ticks, i, moved);
+    System.arraycopy(this.xs, i + 1, this.xs, i, moved);
+    System.arraycopy(this.ys, i + 1, this.ys, i, moved);
+    System.arraycopy(this.widths, i + 1, this.widths, i, moved);
+    System.arraycopy(this.heights, i + 1, this.heights, i, moved);
+    System.arraycopy(this.colors, i + 1, this.colors, i, moved);
+    this.size--;
+  }
+
+  @Override
+  List<IMotion> copy() {
+    List<IMotion> copy = new ArrayList<IMotion>(this.size);
+    for (int i = 0; i < this.size; i++) {
+      copy.add(this.getMotion(i));
+    }
+    return copy;
+  }
+
+  // doubles the capacity of every column, leaving room for a few keyframes if it was empty.
+  private void grow() {
+    int capacity = Math.max(INITIAL_CAPACITY, this.ticks.length * 2);
+    this.ticks = Arrays.copyOf(this.ticks, capacity);
+    this.xs = Arrays.copyOf(this.xs, capacity);
+    this.ys = Arrays.copyOf(this.ys, capacity);
+    this.widths = Arrays.copyOf(this.widths, capacity);
+    this.heights = Arrays.copyOf(this.heights, capacity);
+    this.colors = Arrays.copyOf(this.colors, capacity);
+  }
+
+  // throws an IndexOutOfBoundsException if i isn't the position of a keyframe in the track.
+  private void checkIndex(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+    }
+  }
+}
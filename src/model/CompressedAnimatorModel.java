@@ -0,0 +1,46 @@
+package model;
+
+/**
+ * A class that represents a model of the animator that stores the keyframes of each shape
+ * compressed, as the changes from one keyframe to the next. It behaves exactly like
+ * {@link AnimatorModelImpl}, but a keyframe of a shape that moves steadily takes a few bytes rather
+ * than a motion object, so animations many times larger fit in the same heap. Tracks handed out by
+ * the model are best read with a {@link IKeyframeTrack#cursor cursor}.
+ */
+public final class CompressedAnimatorModel extends AbstractAnimatorModel {
+
+  /**
+   * Constructs a model that initializes the map of tracks and map of shape types to an empty map.
+   */
+  private CompressedAnimatorModel() {
+    super();
+  }
+
+  @Override
+  KeyframeTrack newTrack() {
+    return new CompressedTrack();
+  }
+
+  /**
+   * Creates a new Builder object.
+   *
+   * @return a new Builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * A class that represents a builder for the compressed animator model. Used to create a model
+   * while keeping the model's constructor private.
+   */
+  public static final class Builder extends AbstractModelBuilder {
+
+    /**
+     * Constructs a builder for a new, empty model.
+     */
+    public Builder() {
+      super(new CompressedAnimatorModel());
+    }
+  }
+}
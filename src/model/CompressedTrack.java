@@ -0,0 +1,596 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A keyframe track that stores its keyframes compressed, for animations too large to hold as ints.
+ * The keyframes are cut into blocks of up to {@value #BLOCK_SIZE}, and within a block each keyframe
+ * is stored as its difference from the one before it: a byte of flags saying which of the position,
+ * size and color changed, the change in tick, and then only the changes that happened, each as a
+ * variable-length integer. A keyframe of a shape that moves a few pixels a tick takes three or four
+ * bytes instead of the twenty-four of {@link ColumnarTrack}.
+ *
+ * <p>Reading a keyframe by position decodes its block from the start, so tracks should be walked
+ * with a {@link #cursor}, which decodes each keyframe once. Searches by tick, including the ones
+ * that check for a keyframe before it's added or removed, find the block that can hold the tick
+ * from the first tick of each block and only decode that one block. Blocks never change once
+ * encoded; an edit re-encodes the block it lands in, so a duplicate of the track shares every block
+ * with the original. Keyframes added at the end of the track fill the last block before starting a
+ * new one, so a track loaded in order has full blocks.</p>
+ */
+final class CompressedTrack extends KeyframeTrack {
+
+  private static final int BLOCK_SIZE = 32;
+  private static final int MAX_KEYFRAME_BYTES = 1 + 6 * 5;
+  private static final int X = 1;
+  private static final int Y = 2;
+  private static final int WIDTH = 4;
+  private static final int HEIGHT = 8;
+  private static final int COLOR = 16;
+  private static final Block[] NO_BLOCKS = new Block[0];
+  private static final int[] NO_STARTS = new int[0];
+
+  private Block[] blocks;
+  private int[] starts;
+  private int blockCount;
+  private int size;
+
+  /**
+   * Constructs an empty track.
+   */
+  CompressedTrack() {
+    this.blocks = NO_BLOCKS;
+    this.starts = NO_STARTS;
+    this.blockCount = 0;
+    this.size = 0;
+  }
+
+  @Override
+  KeyframeTrack duplicate() {
+    CompressedTrack copy = new CompressedTrack();
+    copy.blocks = Arrays.copyOf(this.blocks, this.blockCount);
+    copy.starts = Arrays.copyOf(this.starts, this.blockCount);
+    copy.blockCount = this.blockCount;
+    copy.size = this.size;
+    return copy;
+  }
+
+  @Override
+  long footprint() {
+    long bytes = MemoryFootprint.object(3, 2 * Integer.BYTES)
+            + MemoryFootprint.array(4, this.blocks.length)
+            + MemoryFootprint.array(Integer.BYTES, this.starts.length);
+    for (int b = 0; b < this.blockCount; b++) {
+      bytes += MemoryFootprint.object(1, 3 * Integer.BYTES)
+              + MemoryFootprint.array(1, this.blocks[b].data.length);
+    }
+    return bytes;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int getTick(int i) {
+    return this.at(i).tick;
+  }
+
+  @Override
+  public int getX(int i) {
+    return this.at(i).x;
+  }
+
+  @Override
+  public int getY(int i) {
+    return this.at(i).y;
+  }
+
+  @Override
+  public int getWidth(int i) {
+    return this.at(i).width;
+  }
+
+  @Override
+  public int getHeight(int i) {
+    return this.at(i).height;
+  }
+
+  @Override
+  public int getRed(int i) {
+    return this.at(i).getRed();
+  }
+
+  @Override
+  public int getGreen(int i) {
+    return this.at(i).getGreen();
+  }
+
+  @Override
+  public int getBlue(int i) {
+    return this.at(i).getBlue();
+  }
+
+  @Override
+  public IMotion getMotion(int i) {
+    return this.at(i).getMotion();
+  }
+
+  @Override
+  public IKeyframeCursor cursor(int from) {
+    return new Cursor(from);
+  }
+
+  @Override
+  public int floor(int tick) {
+    int low = 0;
+    int high = this.blockCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.blocks[mid].firstTick <= tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    if (low == 0) {
+      return -1;
+    }
+    int b = low - 1;
+    if (this.blocks[b].lastTick <= tick) {
+      return this.starts[b] + this.blocks[b].count - 1;
+    }
+    return this.starts[b] + lastAtOrBefore(this.blocks[b], tick);
+  }
+
+  @Override
+  public int ceiling(int tick) {
+    return tick == Integer.MIN_VALUE ? 0 : this.floor(tick - 1) + 1;
+  }
+
+  @Override
+  int indexOf(int tick) {
+    int last = this.floor(tick);
+    int before = tick == Integer.MIN_VALUE ? -1 : this.floor(tick - 1);
+    return last > before ? last : -(last + 1) - 1;
+  }
+
+  @Override
+  int find(IMotion m) {
+    int last = this.floor(m.getTick());
+    int first = this.ceiling(m.getTick());
+    if (first > last) {
+      return -1;
+    }
+    Cursor cursor = new Cursor(first);
+    while (cursor.next() && cursor.position <= last) {
+      if (cursor.matches(m)) {
+        return cursor.position;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  boolean matches(int i, IMotion m) {
+    return this.at(i).matches(m);
+  }
+
+  @Override
+  void insert(int i, IMotion m) {
+    if (i < 0 || i > this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+    }
+    if (i == this.size && (this.blockCount == 0
+            || this.blocks[this.blockCount - 1].count == BLOCK_SIZE)) {
+      int[][] columns = new int[6][1];
+      set(columns, 0, m);
+      this.insertBlock(this.blockCount, encode(columns, 0, 1));
+      this.size++;
+      this.restart(this.blockCount - 1);
+      return;
+    }
+    int b = i == this.size ? this.blockCount - 1 : this.blockOf(i);
+    int local = i - this.starts[b];
+    int count = this.blocks[b].count;
+    int[][] columns = this.unpack(b, 1);
+    for (int[] column : columns) {
+      System.arraycopy(column, local, column, local + 1, count - local);
+    }
+    set(columns, local, m);
+    count++;
+    if (count > BLOCK_SIZE) {
+      int half = count / 2;
+      this.blocks[b] = encode(columns, 0, half);
+      this.insertBlock(b + 1, encode(columns, half, count));
+    } else {
+      this.blocks[b] = encode(columns, 0, count);
+    }
+    this.size++;
+    this.restart(b);
+  }
+
+  @Override
+  void delete(int i) {
+    checkIndex(i);
+    int b = this.blockOf(i);
+    int local = i - this.starts[b];
+    int count = this.blocks[b].count;
+    if (count == 1) {
+      System.arraycopy(this.blocks, b + 1, this.blocks, b, this.blockCount - b - 1);
+      this.blocks[--this.blockCount] = null;
+    } else {
+      int[][] columns = this.unpack(b, 0);
+      for (int[] column : columns) {
+        System.arraycopy(column, local + 1, column, local, count - local - 1);
+      }
+      this.blocks[b] = encode(columns, 0, count - 1);
+    }
+    this.size--;
+    this.restart(b);
+  }
+
+  @Override
+  List<IMotion> copy() {
+    List<IMotion> copy = new ArrayList<IMotion>(this.size);
+    Cursor cursor = new Cursor(0);
+    while (cursor.next()) {
+      copy.add(cursor.getMotion());
+    }
+    return copy;
+  }
+
+  // gets a cursor on the keyframe at the given position.
+  private Cursor at(int i) {
+    checkIndex(i);
+    Cursor cursor = new Cursor(i);
+    cursor.next();
+    return cursor;
+  }
+
+  // finds the block holding the keyframe at the given position.
+  private int blockOf(int i) {
+    int low = 0;
+    int high = this.blockCount - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (this.starts[mid] <= i) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  // decodes the given block into columns of tick, x, y, width, height and color, leaving room for
+  // the given number of extra keyframes.
+  private int[][] unpack(int b, int extra) {
+    int count = this.blocks[b].count;
+    int[][] columns = new int[6][count + extra];
+    Cursor cursor = new Cursor(this.starts[b]);
+    for (int k = 0; k < count; k++) {
+      cursor.next();
+      columns[0][k] = cursor.tick;
+      columns[1][k] = cursor.x;
+      columns[2][k] = cursor.y;
+      columns[3][k] = cursor.width;
+      columns[4][k] = cursor.height;
+      columns[5][k] = cursor.color;
+    }
+    return columns;
+  }
+
+  // puts a new block in the list of blocks at the given index.
+  private void insertBlock(int b, Block block) {
+    if (this.blockCount == this.blocks.length) {
+      this.blocks = Arrays.copyOf(this.blocks, Math.max(1, this.blockCount * 2));
+      this.starts = Arrays.copyOf(this.starts, Math.max(1, this.blockCount * 2));
+    }
+    System.arraycopy(this.blocks, b, this.blocks, b + 1, this.blockCount - b);
+    this.blocks[b] = block;
+    this.blockCount++;
+  }
+
+  // recomputes the starting positions of the blocks from the given one on.
+  private void restart(int b) {
+    for (int k = Math.max(1, b); k < this.blockCount; k++) {
+      this.starts[k] = this.starts[k - 1] + this.blocks[k - 1].count;
+    }
+  }
+
+  // throws an IndexOutOfBoundsException if i isn't the position of a keyframe in the track.
+  private void checkIndex(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+    }
+  }
+
+  // stores a motion at the given position of a set of columns.
+  private static void set(int[][] columns, int k, IMotion m) {
+    columns[0][k] = m.getTick();
+    columns[1][k] = m.getX();
+    columns[2][k] = m.getY();
+    columns[3][k] = m.getWidth();
+    columns[4][k] = m.getHeight();
+    columns[5][k] = pack(m);
+  }
+
+  // packs the three color values of a motion into a single int.
+  private static int pack(IMotion m) {
+    return (m.getRed() << 16) | (m.getGreen() << 8) | m.getBlue();
+  }
+
+  // encodes the keyframes in [from, to) of the columns as a block.
+  private static Block encode(int[][] columns, int from, int to) {
+    byte[] out = new byte[(to - from) * MAX_KEYFRAME_BYTES];
+    int n = 0;
+    int[] last = new int[6];
+    for (int k = from; k < to; k++) {
+      int flags = 0;
+      for (int c = 1; c < 6; c++) {
+        if (columns[c][k] != last[c]) {
+          flags |= 1 << (c - 1);
+        }
+      }
+      out[n++] = (byte) flags;
+      n = write(out, n, zigzag(columns[0][k] - last[0]));
+      for (int c = 1; c < 5; c++) {
+        if ((flags & (1 << (c - 1))) != 0) {
+          n = write(out, n, zigzag(columns[c][k] - last[c]));
+        }
+      }
+      if ((flags & COLOR) != 0) {
+        n = write(out, n, columns[5][k]);
+      }
+      for (int c = 0; c < 6; c++) {
+        last[c] = columns[c][k];
+      }
+    }
+    return new Block(Arrays.copyOf(out, n), to - from, columns[0][from], columns[0][to - 1]);
+  }
+
+  // Finds the last keyframe of a block at or before a tick inside it, decoding only the ticks and
+  // skipping over the rest, so that searching a track creates no objects.
+  private static int lastAtOrBefore(Block block, int tick) {
+    byte[] data = block.data;
+    int n = 0;
+    int t = 0;
+    for (int k = 0; k < block.count; k++) {
+      int flags = data[n++];
+      int v = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[n++];
+        v |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      t += (v >>> 1) ^ -(v & 1);
+      if (t > tick) {
+        return k - 1;
+      }
+      for (int c = Integer.bitCount(flags); c > 0; c--) {
+        while (data[n++] < 0) {
+          // skips the bytes of a value the search doesn't need.
+        }
+      }
+    }
+    return block.count - 1;
+  }
+
+  // maps small negative and positive values to small unsigned values.
+  private static int zigzag(int v) {
+    return (v << 1) ^ (v >> 31);
+  }
+
+  // writes an unsigned value seven bits at a time, returning the position after it.
+  private static int write(byte[] out, int n, int v) {
+    while ((v & ~0x7F) != 0) {
+      out[n++] = (byte) ((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    out[n++] = (byte) v;
+    return n;
+  }
+
+  /**
+   * A run of encoded keyframes. Blocks never change once encoded.
+   */
+  private static final class Block {
+    private final byte[] data;
+    private final int count;
+    private final int firstTick;
+    private final int lastTick;
+
+    // Constructs a block of the given encoded keyframes.
+    private Block(byte[] data, int count, int firstTick, int lastTick) {
+      this.data = data;
+      this.count = count;
+      this.firstTick = firstTick;
+      this.lastTick = lastTick;
+    }
+  }
+
+  /**
+   * A cursor that decodes the track's blocks as it walks through them.
+   */
+  private final class Cursor implements IKeyframeCursor {
+    private int position;
+    private int block;
+    private int offset;
+    private int decoded;
+    private boolean on;
+    private int tick;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private int color;
+
+    // Constructs a cursor that starts just before the given position.
+    private Cursor(int from) {
+      this.seek(from);
+    }
+
+    @Override
+    public void seek(int from) {
+      if (from < 0 || from > size) {
+        throw new IndexOutOfBoundsException("Index: " + from + ", Size: " + size);
+      }
+      this.on = false;
+      if (from == size) {
+        this.position = from - 1;
+        return;
+      }
+      this.block = blockOf(from);
+      this.offset = 0;
+      this.decoded = 0;
+      this.position = starts[this.block] - 1;
+      while (this.position < from - 1) {
+        this.next();
+      }
+      this.on = false;
+    }
+
+    @Override
+    public boolean next() {
+      if (this.position >= size - 1) {
+        this.position = size;
+        this.on = false;
+        return false;
+      }
+      if (this.decoded == blocks[this.block].count) {
+        this.block++;
+        this.offset = 0;
+        this.decoded = 0;
+      }
+      if (this.decoded == 0) {
+        this.tick = 0;
+        this.x = 0;
+        this.y = 0;
+        this.width = 0;
+        this.height = 0;
+        this.color = 0;
+      }
+      byte[] data = blocks[this.block].data;
+      int flags = data[this.offset++];
+      this.tick += this.readSigned(data);
+      if ((flags & X) != 0) {
+        this.x += this.readSigned(data);
+      }
+      if ((flags & Y) != 0) {
+        this.y += this.readSigned(data);
+      }
+      if ((flags & WIDTH) != 0) {
+        this.width += this.readSigned(data);
+      }
+      if ((flags & HEIGHT) != 0) {
+        this.height += this.readSigned(data);
+      }
+      if ((flags & COLOR) != 0) {
+        this.color = this.read(data);
+      }
+      this.decoded++;
+      this.position++;
+      this.on = true;
+      return true;
+    }
+
+    // reads an unsigned value written seven bits at a time.
+    private int read(byte[] data) {
+      int v = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[this.offset++];
+        v |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      return v;
+    }
+
+    // reads a value written with zigzag.
+    private int readSigned(byte[] data) {
+      int v = this.read(data);
+      return (v >>> 1) ^ -(v & 1);
+    }
+
+    // checks whether the keyframe the cursor is on is equal to the given one.
+    private boolean matches(IMotion m) {
+      return this.tick == m.getTick() && this.x == m.getX() && this.y == m.getY()
+              && this.width == m.getWidth() && this.height == m.getHeight()
+              && this.color == pack(m);
+    }
+
+    // throws an IllegalStateException if the cursor isn't on a keyframe.
+    private void check() {
+      if (!this.on) {
+        throw new IllegalStateException("cursor isn't on a keyframe");
+      }
+    }
+
+    @Override
+    public int getPosition() {
+      return this.position;
+    }
+
+    @Override
+    public int getTick() {
+      this.check();
+      return this.tick;
+    }
+
+    @Override
+    public int getX() {
+      this.check();
+      return this.x;
+    }
+
+    @Override
+    public int getY() {
+      this.check();
+      return this.y;
+    }
+
+    @Override
+    public int getWidth() {
+      this.check();
+      return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+      this.check();
+      return this.height;
+    }
+
+    @Override
+    public int getRed() {
+      this.check();
+      return (this.color >> 16) & 0xFF;
+    }
+
+    @Override
+    public int getGreen() {
+      this.check();
+      return (this.color >> 8) & 0xFF;
+    }
+
+    @Override
+    public int getBlue() {
+      this.check();
+      return this.color & 0xFF;
+    }
+
+    @Override
+    public IMotion getMotion() {
+      this.check();
+      return new Motion(this.tick, this.x, this.y, this.width, this.height,
+              (this.color >> 16) & 0xFF, (this.color >> 8) & 0xFF, this.color & 0xFF);
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package model;
+
+/**
+ * A class to represent the easing of a motion, which sets how fast a shape moves between two
+ * keyframes. An easing is a cubic Bezier curve from (0, 0) to (1, 1), given by its two control
+ * points, that maps how far through the motion the time is to how far through the motion the shape
+ * is, the same way as the CSS {@code cubic-bezier} timing function. The control points' x values
+ * must lie between 0 and 1, so the curve gives one value for every point in time; their y values
+ * may go past either end, which makes the shape overshoot.
+ */
+public final class Easing {
+
+  /**
+   * The easing of a motion at constant speed, which is the easing of every motion unless set.
+   */
+  public static final Easing LINEAR = new Easing(0, 0, 1, 1);
+
+  /**
+   * The easing of a motion that starts slowly and speeds up.
+   */
+  public static final Easing EASE_IN = new Easing(0.42, 0, 1, 1);
+
+  /**
+   * The easing of a motion that starts quickly and slows down.
+   */
+  public static final Easing EASE_OUT = new Easing(0, 0, 0.58, 1);
+
+  /**
+   * The easing of a motion that starts slowly, speeds up and slows down again.
+   */
+  public static final Easing EASE_IN_OUT = new Easing(0.42, 0, 0.58, 1);
+
+  private static final int NEWTON_STEPS = 8;
+  private static final int BISECTION_STEPS = 60;
+  private static final double EPSILON = 1e-12;
+
+  private final double x1;
+  private final double y1;
+  private final double x2;
+  private final double y2;
+
+  // Constructs an easing from control points that have already been checked.
+  private Easing(double x1, double y1, double x2, double y2) {
+    this.x1 = x1;
+    this.y1 = y1;
+    this.x2 = x2;
+    this.y2 = y2;
+  }
+
+  /**
+   * Creates the easing that follows the cubic Bezier curve with the given control points.
+   *
+   * @param x1 the x value of the first control point
+   * @param y1 the y value of the first control point
+   * @param x2 the x value of the second control point
+   * @param y2 the y value of the second control point
+   * @return the easing
+   * @throws IllegalArgumentException if an x value isn't between 0 and 1 or a y value isn't finite
+   */
+  public static Easing cubicBezier(double x1, double y1, double x2, double y2)
+          throws IllegalArgumentException {
+    if (!(x1 >= 0 && x1 <= 1 && x2 >= 0 && x2 <= 1)) {
+      throw new IllegalArgumentException("control point x values must be between 0 and 1");
+    }
+    if (Double.isNaN(y1) || Double.isInfinite(y1) || Double.isNaN(y2) || Double.isInfinite(y2)) {
+      throw new IllegalArgumentException("control point y values must be finite");
+    }
+    return new Easing(x1, y1, x2, y2);
+  }
+
+  /**
+   * Gets the easing with the given name, which is one of "linear", "ease-in", "ease-out" and
+   * "ease-in-out", or a curve written as "cubic-bezier(x1,y1,x2,y2)", ignoring case.
+   *
+   * @param easing the name of the easing
+   * @return the easing with that name
+   * @throws IllegalArgumentException if easing is null or isn't the name of an easing
+   */
+  public static Easing parse(String easing) throws IllegalArgumentException {
+    if (easing == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    String name = easing.trim().toLowerCase();
+    switch (name) {
+      case "linear":
+        return LINEAR;
+      case "ease-in":
+        return EASE_IN;
+      case "ease-out":
+        return EASE_OUT;
+      case "ease-in-out":
+        return EASE_IN_OUT;
+      default:
+        break;
+    }
+    if (!name.startsWith("cubic-bezier(") || !name.endsWith(")")) {
+      throw new IllegalArgumentException("Unsupported easing: " + easing);
+    }
+    String[] points = name.substring("cubic-bezier(".length(), name.length() - 1).split(",");
+    if (points.length != 4) {
+      throw new IllegalArgumentException("cubic-bezier takes four numbers: " + easing);
+    }
+    try {
+      return cubicBezier(Double.parseDouble(points[0].trim()),
+              Double.parseDouble(points[1].trim()), Double.parseDouble(points[2].trim()),
+              Double.parseDouble(points[3].trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("cubic-bezier takes four numbers: " + easing);
+    }
+  }
+
+  /**
+   * Gets the x value of the first control point.
+   *
+   * @return the x value of the first control point
+   */
+  public double getX1() {
+    return this.x1;
+  }
+
+  /**
+   * Gets the y value of the first control point.
+   *
+   * @return the y value of the first control point
+   */
+  public double getY1() {
+    return this.y1;
+  }
+
+  /**
+   * Gets the x value of the second control point.
+   *
+   * @return the x value of the second control point
+   */
+  public double getX2() {
+    return this.x2;
+  }
+
+  /**
+   * Gets the y value of the second control point.
+   *
+   * @return the y value of the second control point
+   */
+  public double getY2() {
+    return this.y2;
+  }
+
+  /**
+   * Checks if the easing moves at constant speed, which is the case whenever both control points
+   * lie on the line from (0, 0) to (1, 1).
+   *
+   * @return true if the easing is linear
+   */
+  public boolean isLinear() {
+    return this.x1 == this.y1 && this.x2 == this.y2;
+  }
+
+  /**
+   * Works out how far through a motion a shape is when the given fraction of the motion's time has
+   * passed, by finding the point of the curve at that time.
+   *
+   * @param progress the fraction of the motion's time that has passed, clamped to [0, 1]
+   * @return the fraction of the way from the first keyframe to the second the shape is at
+   */
+  public double ease(double progress) {
+    if (!(progress > 0)) {
+      return 0;
+    }
+    if (progress >= 1) {
+      return 1;
+    }
+    if (this.isLinear()) {
+      return progress;
+    }
+    return bezier(this.solve(progress), this.y1, this.y2);
+  }
+
+  // Finds the parameter of the curve where its x value is the given one, by Newton's method where
+  // it converges and by bisection where it doesn't.
+  private double solve(double x) {
+    double t = x;
+    for (int i = 0; i < NEWTON_STEPS; i++) {
+      double error = bezier(t, this.x1, this.x2) - x;
+      if (Math.abs(error) < EPSILON) {
+        return t;
+      }
+      double slope = slope(t, this.x1, this.x2);
+      if (Math.abs(slope) < EPSILON) {
+        break;
+      }
+      t -= error / slope;
+      if (t < 0 || t > 1) {
+        break;
+      }
+    }
+    double low = 0;
+    double high = 1;
+    t = x;
+    for (int i = 0; i < BISECTION_STEPS && high - low > EPSILON; i++) {
+      if (bezier(t, this.x1, this.x2) < x) {
+        low = t;
+      } else {
+        high = t;
+      }
+      t = (low + high) / 2;
+    }
+    return t;
+  }
+
+  // the value of a curve from 0 to 1 with the given control values at parameter t.
+  private static double bezier(double t, double p1, double p2) {
+    double s = 1 - t;
+    return 3 * s * s * t * p1 + 3 * s * t * t * p2 + t * t * t;
+  }
+
+  // the derivative of a curve from 0 to 1 with the given control values at parameter t.
+  private static double slope(double t, double p1, double p2) {
+    double s = 1 - t;
+    return 3 * s * s * p1 + 6 * s * t * (p2 - p1) + 3 * t * t * (1 - p2);
+  }
+
+  @Override
+  public boolean equals(Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (!(that instanceof Easing)) {
+      return false;
+    }
+    Easing thatEasing = (Easing) that;
+    return Double.compare(this.x1, thatEasing.x1) == 0
+            && Double.compare(this.y1, thatEasing.y1) == 0
+            && Double.compare(this.x2, thatEasing.x2) == 0
+            && Double.compare(this.y2, thatEasing.y2) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    hash = 31 * hash + Double.hashCode(this.x1);
+    hash = 31 * hash + Double.hashCode(this.y1);
+    hash = 31 * hash + Double.hashCode(this.x2);
+    hash = 31 * hash + Double.hashCode(this.y2);
+    return hash;
+  }
+
+  /**
+   * Gives the name of the easing in the form {@link #parse} reads, such as "ease-in" or
+   * "cubic-bezier(0.1,0.7,1.0,0.1)".
+   *
+   * @return the name of the easing
+   */
+  @Override
+  public String toString() {
+    if (this.equals(LINEAR)) {
+      return "linear";
+    } else if (this.equals(EASE_IN)) {
+      return "ease-in";
+    } else if (this.equals(EASE_OUT)) {
+      return "ease-out";
+    } else if (this.equals(EASE_IN_OUT)) {
+      return "ease-in-out";
+    }
+    return "cubic-bezier(" + this.x1 + "," + this.y1 + "," + this.x2 + "," + this.y2 + ")";
+  }
+}
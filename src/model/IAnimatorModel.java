@@ -44,6 +44,18 @@ public interface IAnimatorModel extends IAnimatorModelView {
    */
   public void removeMotion(String s, IMotion m);
 
+  /**
+   * Sets the easing of a shape's motion from the keyframe at the given tick to the next one.
+   * Setting a linear easing makes the motion linear again. The easing stays with the tick, and is
+   * dropped when the last keyframe at that tick is removed.
+   *
+   * @param s      the name of the shape
+   * @param tick   the tick of the keyframe the motion starts at
+   * @param easing the easing of the motion
+   * @throws IllegalArgumentException if s or easing is null
+   */
+  public void setEasing(String s, int tick, Easing easing) throws IllegalArgumentException;
+
   /**
    * Sets the x coordinate for the canvas to desired number.
    *
@@ -75,4 +87,16 @@ public interface IAnimatorModel extends IAnimatorModelView {
    * @throws IllegalArgumentException if height is not positive
    */
   public void setHeight(int height) throws IllegalArgumentException;
+
+  /**
+   * Takes an immutable snapshot of the model as it is now. The snapshot shares its keyframes with
+   * the model rather than copying them, so taking one takes constant time, and only the shapes the
+   * model edits afterwards are ever copied. A snapshot can be read from any thread without locking
+   * while the model goes on being edited, and edits made through the model's methods are published
+   * to later snapshots whole. Tracks handed out by the model before a snapshot is taken stop
+   * following the model once it next edits that shape.
+   *
+   * @return a read-only snapshot of the model
+   */
+  public IAnimatorModelView snapshot();
 }
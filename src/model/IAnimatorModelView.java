@@ -1,5 +1,6 @@
 package model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -8,6 +9,12 @@ import java.util.Set;
  * implements it. It only allows the retrieval of information from the model. The interface allows
  * the user to get the motions a specified shape has, get a specified shape's type, get the shapes,
  * and interpret the model as a String.
+ *
+ * <p>Besides its name, every shape has an id: its position in the order the shapes were added,
+ * from 0 up to the number of shapes. Ids let views keep per-shape data in arrays instead of looking
+ * shapes up by name. Adding a shape under a new name gives it the next id and redeclaring a shape
+ * keeps its id, but removing a shape moves every later shape down by one, so ids should be looked
+ * up again after a shape is removed.</p>
  */
 public interface IAnimatorModelView {
 
@@ -19,6 +26,16 @@ public interface IAnimatorModelView {
    */
   public List<IMotion> getMotions(String s) throws IllegalArgumentException;
 
+  /**
+   * Returns a read-only view of the keyframes of a given shape, without copying them. Views that
+   * read the model every frame should use this instead of {@link #getMotions}.
+   *
+   * @param s the shape to get the keyframes of
+   * @return the keyframes of the shape in tick order, or an empty track if there's no such shape
+   * @throws IllegalArgumentException if s is null
+   */
+  public IKeyframeTrack getTrack(String s) throws IllegalArgumentException;
+
   /**
    * Returns the type of shape associated with the key.
    *
@@ -29,14 +46,303 @@ public interface IAnimatorModelView {
   public ShapeType getShapeType(String s) throws IllegalArgumentException;
 
   /**
-   * Returns a list of the names associated with each shape and animation.
+   * Returns a read-only view of the names associated with each shape and animation, in the order
+   * the shapes were added. The view is not a copy: it reflects later changes to the model, and the
+   * set itself can't be changed. Adding or removing a shape while the view is being iterated, on
+   * any thread, leaves the iteration undefined and may throw a
+   * {@link java.util.ConcurrentModificationException}, so callers that edit the model as they go
+   * should iterate over a copy, such as {@code new ArrayList<String>(getKeys())}, instead.
    *
-   * @return a list with the names of the model's shapes
+   * @return a live, unmodifiable set with the names of the model's shapes
    */
   public Set<String> getKeys();
 
+  /**
+   * Gets the tick of the last keyframe in the animation. The model keeps this up to date as
+   * keyframes are added and removed, so it takes constant time.
+   *
+   * @return the latest tick of any shape's keyframes, or 0 if there are no keyframes
+   */
   public int getLastMotionTick();
 
+  /**
+   * Gets the tick of the first keyframe in the animation. The model keeps this up to date as
+   * keyframes are added and removed, so it takes constant time.
+   *
+   * @return the earliest tick of any shape's keyframes, or 0 if there are no keyframes
+   */
+  public int getFirstMotionTick();
+
+  /**
+   * Gets the tick of the first keyframe of the given shape, which is when the shape appears.
+   *
+   * @param s the shape to get the start of
+   * @return the first tick of the shape's lifetime
+   * @throws IllegalArgumentException if s is null, isn't in the list of shapes or has no keyframes
+   */
+  public int getStartTick(String s) throws IllegalArgumentException;
+
+  /**
+   * Gets the tick of the last keyframe of the given shape, after which the shape disappears.
+   *
+   * @param s the shape to get the end of
+   * @return the last tick of the shape's lifetime
+   * @throws IllegalArgumentException if s is null, isn't in the list of shapes or has no keyframes
+   */
+  public int getEndTick(String s) throws IllegalArgumentException;
+
+  /**
+   * Registers a listener to be told about every later change to the model. Views that can't change,
+   * such as snapshots, accept listeners but never call them.
+   *
+   * @param listener the listener to add
+   * @throws IllegalArgumentException if listener is null
+   */
+  public void addListener(IModelListener listener) throws IllegalArgumentException;
+
+  /**
+   * Stops telling the given listener about changes to the model. Does nothing if the listener
+   * wasn't registered.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeListener(IModelListener listener);
+
+  /**
+   * Estimates the heap memory kept alive by the animation, counting every shape's keyframes and
+   * description, the tables holding the shapes, and any indexes built so far. Keyframes shared with
+   * a snapshot are counted in full by both.
+   *
+   * @return the estimated memory taken by the animation
+   */
+  public MemoryFootprint getFootprint();
+
+  /**
+   * Estimates the heap memory kept alive by a single shape: its keyframes, its name and its entry
+   * in the model's tables, and its share of any indexes built so far.
+   *
+   * @param shape the name of the shape
+   * @return the estimated memory taken by the shape
+   * @throws IllegalArgumentException if shape is null or not in the model
+   */
+  public MemoryFootprint getFootprint(String shape) throws IllegalArgumentException;
+
+  /**
+   * Returns the names of the shapes that are on screen at the given tick, meaning the tick falls
+   * between the shape's first and last keyframes. The model answers this from an index over the
+   * lifetimes of its shapes, so the cost depends on how many shapes are active rather than on how
+   * many shapes there are.
+   *
+   * @param tick the tick to find the active shapes at
+   * @return the names of the active shapes, in the order the shapes were added
+   */
+  public List<String> getActiveShapes(int tick);
+
+  /**
+   * Returns the names of the shapes that are on screen at any tick in the given range.
+   *
+   * @param fromTick the first tick of the range
+   * @param toTick   the last tick of the range
+   * @return the names of the shapes active during the range, in the order the shapes were added
+   * @throws IllegalArgumentException if fromTick is after toTick
+   */
+  public List<String> getActiveShapes(int fromTick, int toTick) throws IllegalArgumentException;
+
+  /**
+   * Gets the number of shapes in the model, which is one more than the largest shape id.
+   *
+   * @return the number of shapes
+   */
+  public int getShapeCount();
+
+  /**
+   * Gets the id of the shape with the given name.
+   *
+   * @param s the name of the shape
+   * @return the id of the shape, or -1 if there's no shape with that name
+   * @throws IllegalArgumentException if s is null
+   */
+  public int getShapeId(String s) throws IllegalArgumentException;
+
+  /**
+   * Gets the name of the shape with the given id.
+   *
+   * @param id the id of the shape
+   * @return the name of the shape
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  public String getShapeName(int id) throws IllegalArgumentException;
+
+  /**
+   * Returns the type of the shape with the given id.
+   *
+   * @param id the id of the shape
+   * @return the type of the shape
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  public ShapeType getShapeType(int id) throws IllegalArgumentException;
+
+  /**
+   * Returns a read-only view of the keyframes of the shape with the given id, without copying
+   * them.
+   *
+   * @param id the id of the shape
+   * @return the keyframes of the shape in tick order
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  public IKeyframeTrack getTrack(int id) throws IllegalArgumentException;
+
+  /**
+   * Gets the tick of the first keyframe of the shape with the given id.
+   *
+   * @param id the id of the shape
+   * @return the first tick of the shape's lifetime
+   * @throws IllegalArgumentException if there's no shape with that id or it has no keyframes
+   */
+  public int getStartTick(int id) throws IllegalArgumentException;
+
+  /**
+   * Gets the tick of the last keyframe of the shape with the given id.
+   *
+   * @param id the id of the shape
+   * @return the last tick of the shape's lifetime
+   * @throws IllegalArgumentException if there's no shape with that id or it has no keyframes
+   */
+  public int getEndTick(int id) throws IllegalArgumentException;
+
+  /**
+   * Returns the ids of the shapes that are on screen at the given tick. This is
+   * {@link #getActiveShapes(int)} without the names.
+   *
+   * @param tick the tick to find the active shapes at
+   * @return the ids of the active shapes, in increasing order
+   */
+  public int[] getActiveShapeIds(int tick);
+
+  /**
+   * Returns the ids of the shapes that are on screen at any tick in the given range.
+   *
+   * @param fromTick the first tick of the range
+   * @param toTick   the last tick of the range
+   * @return the ids of the shapes active during the range, in increasing order
+   * @throws IllegalArgumentException if fromTick is after toTick
+   */
+  public int[] getActiveShapeIds(int fromTick, int toTick) throws IllegalArgumentException;
+
+  /**
+   * Finds the ids of the shapes that are on screen at the given tick, writing them into the given
+   * array rather than creating one, for callers that ask every frame and want to reuse one array.
+   * If the array is too small, the number returned is larger than the array and the caller should
+   * ask again with an array at least that long.
+   *
+   * @param tick the tick to find the active shapes at
+   * @param ids  the array to write the ids into, in increasing order
+   * @return the number of active shapes
+   * @throws IllegalArgumentException if ids is null
+   */
+  public int getActiveShapeIds(int tick, int[] ids) throws IllegalArgumentException;
+
+  /**
+   * Gets the keyframes of a shape whose ticks fall in the given range. The ends of the range are
+   * found by binary search on the shape's track, so the cost depends on how many keyframes are in
+   * the range rather than on the length of the track.
+   *
+   * @param shape    the name of the shape
+   * @param fromTick the first tick of the range
+   * @param toTick   the last tick of the range
+   * @return the keyframes in the range, in tick order, or an empty list if the shape isn't in the
+   *         model
+   * @throws IllegalArgumentException if shape is null or fromTick is after toTick
+   */
+  public default List<IMotion> getKeyframes(String shape, int fromTick, int toTick)
+          throws IllegalArgumentException {
+    if (fromTick > toTick) {
+      throw new IllegalArgumentException("range ends before it starts");
+    }
+    IKeyframeTrack track = this.getTrack(shape);
+    int from = track.ceiling(fromTick);
+    int to = track.floor(toTick);
+    List<IMotion> keyframes = new ArrayList<IMotion>(Math.max(0, to - from + 1));
+    for (int i = from; i <= to; i++) {
+      keyframes.add(track.getMotion(i));
+    }
+    return keyframes;
+  }
+
+  /**
+   * Gets the nearest keyframe of a shape at or before the given tick.
+   *
+   * @param shape the name of the shape
+   * @param tick  the tick to search from
+   * @return the last keyframe at or before the tick, or null if there is none
+   * @throws IllegalArgumentException if shape is null
+   */
+  public default IMotion getKeyframeBefore(String shape, int tick)
+          throws IllegalArgumentException {
+    IKeyframeTrack track = this.getTrack(shape);
+    int i = track.floor(tick);
+    return i < 0 ? null : track.getMotion(i);
+  }
+
+  /**
+   * Gets the nearest keyframe of a shape at or after the given tick.
+   *
+   * @param shape the name of the shape
+   * @param tick  the tick to search from
+   * @return the first keyframe at or after the tick, or null if there is none
+   * @throws IllegalArgumentException if shape is null
+   */
+  public default IMotion getKeyframeAfter(String shape, int tick)
+          throws IllegalArgumentException {
+    IKeyframeTrack track = this.getTrack(shape);
+    int i = track.ceiling(tick);
+    return i == track.size() ? null : track.getMotion(i);
+  }
+
+  /**
+   * Finds the segment of a shape's motion that the given tick falls in. The segment is given as the
+   * position, in the shape's {@link #getTrack track}, of the keyframe that starts it, and runs
+   * until the next keyframe; a tick on the shape's last keyframe falls in a segment of its own,
+   * starting and ending there.
+   *
+   * @param shape the name of the shape
+   * @param tick  the tick to find the segment of
+   * @return the position of the keyframe starting the segment, or -1 if the tick is outside the
+   *         shape's lifetime
+   * @throws IllegalArgumentException if shape is null
+   */
+  public default int getSegment(String shape, int tick) throws IllegalArgumentException {
+    IKeyframeTrack track = this.getTrack(shape);
+    int i = track.floor(tick);
+    if (i < 0 || (i == track.size() - 1 && track.getTick(i) != tick)) {
+      return -1;
+    }
+    return i;
+  }
+
+  /**
+   * Gets the easing of a shape's motion from the keyframe at the given tick to the next one. Every
+   * motion is linear unless an easing was set for it.
+   *
+   * @param shape the name of the shape
+   * @param tick  the tick of the keyframe the motion starts at
+   * @return the easing of the motion, or {@link Easing#LINEAR} if none was set or the shape isn't
+   *         in the model
+   * @throws IllegalArgumentException if shape is null
+   */
+  public Easing getEasing(String shape, int tick) throws IllegalArgumentException;
+
+  /**
+   * Gets the easing of the motion of the shape with the given id from the keyframe at the given
+   * tick to the next one.
+   *
+   * @param id   the id of the shape
+   * @param tick the tick of the keyframe the motion starts at
+   * @return the easing of the motion, or {@link Easing#LINEAR} if none was set
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  public Easing getEasing(int id, int tick) throws IllegalArgumentException;
+
   /**
    * Get the model's X-bound.
    *
@@ -0,0 +1,107 @@
+package model;
+
+/**
+ * This interface represents a cursor that walks forward through the keyframes of a track, one
+ * keyframe at a time. A cursor starts before its first keyframe, so {@link #next} has to be called
+ * before the first keyframe can be read. Walking a track with a cursor lets tracks that store their
+ * keyframes compressed decode each keyframe once, in order, instead of decoding from the start of a
+ * block on every read.
+ */
+public interface IKeyframeCursor {
+
+  /**
+   * Moves the cursor to the next keyframe of the track.
+   *
+   * @return true if there was a next keyframe, or false if the cursor has passed the last one
+   */
+  public boolean next();
+
+  /**
+   * Moves the cursor back or forward to just before the keyframe at the given position, as if it
+   * had just been made by the track's {@link IKeyframeTrack#cursor} method. This lets a view that
+   * plays an animation keep one cursor per shape rather than making a new one whenever it seeks.
+   *
+   * @param position the position of the next keyframe the cursor moves to
+   * @throws IndexOutOfBoundsException if position is negative or past the end of the track
+   */
+  public void seek(int position);
+
+  /**
+   * Gets the position in the track of the keyframe the cursor is on.
+   *
+   * @return the position of the current keyframe, ordered by tick
+   */
+  public int getPosition();
+
+  /**
+   * Gets the tick of the keyframe the cursor is on.
+   *
+   * @return the tick of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getTick();
+
+  /**
+   * Gets the x-coordinate of the keyframe the cursor is on.
+   *
+   * @return the x-coordinate of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getX();
+
+  /**
+   * Gets the y-coordinate of the keyframe the cursor is on.
+   *
+   * @return the y-coordinate of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getY();
+
+  /**
+   * Gets the width of the keyframe the cursor is on.
+   *
+   * @return the width of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getWidth();
+
+  /**
+   * Gets the height of the keyframe the cursor is on.
+   *
+   * @return the height of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getHeight();
+
+  /**
+   * Gets the red RGB value of the keyframe the cursor is on.
+   *
+   * @return the red value of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getRed();
+
+  /**
+   * Gets the green RGB value of the keyframe the cursor is on.
+   *
+   * @return the green value of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getGreen();
+
+  /**
+   * Gets the blue RGB value of the keyframe the cursor is on.
+   *
+   * @return the blue value of the current keyframe
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public int getBlue();
+
+  /**
+   * Gets the keyframe the cursor is on as a motion.
+   *
+   * @return the current keyframe as a motion
+   * @throws IllegalStateException if the cursor isn't on a keyframe
+   */
+  public IMotion getMotion();
+}
@@ -0,0 +1,160 @@
+package model;
+
+/**
+ * This interface represents a read-only view of the keyframes of a single shape, ordered by tick.
+ * Keyframes are read by their position in the track, so callers can walk a track without the model
+ * copying it or creating a motion for every keyframe. A track handed out by a model reflects later
+ * changes made to that model, until a snapshot of the model is taken; tracks handed out by a
+ * snapshot never change.
+ */
+public interface IKeyframeTrack {
+
+  /**
+   * Gets the number of keyframes in the track.
+   *
+   * @return the number of keyframes
+   */
+  public int size();
+
+  /**
+   * Gets the tick of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the tick of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getTick(int i);
+
+  /**
+   * Gets the x-coordinate of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the x-coordinate of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getX(int i);
+
+  /**
+   * Gets the y-coordinate of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the y-coordinate of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getY(int i);
+
+  /**
+   * Gets the width of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the width of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getWidth(int i);
+
+  /**
+   * Gets the height of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the height of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getHeight(int i);
+
+  /**
+   * Gets the red RGB value of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the red value of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getRed(int i);
+
+  /**
+   * Gets the green RGB value of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the green value of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getGreen(int i);
+
+  /**
+   * Gets the blue RGB value of the keyframe at the given position.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the blue value of the keyframe
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public int getBlue(int i);
+
+  /**
+   * Gets the keyframe at the given position as a motion. Tracks that store motions hand out the
+   * stored motion itself; other tracks create one.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @return the keyframe as a motion
+   * @throws IndexOutOfBoundsException if there's no keyframe at that position
+   */
+  public IMotion getMotion(int i);
+
+  /**
+   * Gets a cursor that walks forward through the track, starting with the keyframe at the given
+   * position. Reading a track in order through a cursor is never slower than reading it by
+   * position, and is much faster for tracks that store their keyframes compressed.
+   *
+   * @param from the position of the first keyframe the cursor moves to
+   * @return a cursor positioned just before that keyframe
+   * @throws IndexOutOfBoundsException if from is negative or past the end of the track
+   */
+  public default IKeyframeCursor cursor(int from) {
+    if (from < 0 || from > this.size()) {
+      throw new IndexOutOfBoundsException("Index: " + from + ", Size: " + this.size());
+    }
+    return new PositionCursor(this, from);
+  }
+
+  /**
+   * Finds the last keyframe at or before the given tick. Since the track is sorted by tick, this is
+   * a binary search.
+   *
+   * @param tick the tick to search from
+   * @return the position of the last keyframe at or before the tick, or -1 if every keyframe comes
+   *         after it
+   */
+  public default int floor(int tick) {
+    int low = 0;
+    int high = this.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.getTick(mid) <= tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - 1;
+  }
+
+  /**
+   * Finds the first keyframe at or after the given tick. Since the track is sorted by tick, this is
+   * a binary search.
+   *
+   * @param tick the tick to search from
+   * @return the position of the first keyframe at or after the tick, or the size of the track if
+   *         every keyframe comes before it
+   */
+  public default int ceiling(int tick) {
+    int low = 0;
+    int high = this.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.getTick(mid) < tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,60 @@
+package model;
+
+/**
+ * This interface represents something that wants to hear about changes to a model, such as a view
+ * that caches what it draws. Each event names the shape that changed and, for keyframes, the range
+ * of ticks whose frames may look different afterwards, so a listener only has to throw away what it
+ * knows about that shape in that window. Events are sent on the thread that made the change, after
+ * the change has been made and the model's locks released, so a listener may edit the model in
+ * turn, and a model loaded from several threads may send events to the same listener at the same
+ * time.
+ */
+public interface IModelListener {
+
+  /**
+   * Called after a shape is added to the model. A shape that is declared again is reported as
+   * removed and then added, since it loses its keyframes and may change type.
+   *
+   * @param shape the name of the new shape
+   */
+  public void shapeAdded(String shape);
+
+  /**
+   * Called after a shape and all of its keyframes are removed from the model.
+   *
+   * @param shape the name of the removed shape
+   */
+  public void shapeRemoved(String shape);
+
+  /**
+   * Called after a keyframe is added to a shape. The affected range runs from the keyframe before
+   * the new one to the keyframe after it, since the shape is interpolated differently on both
+   * sides; at either end of the shape's lifetime the range stops at the new keyframe's tick.
+   *
+   * @param shape    the name of the shape
+   * @param fromTick the first tick whose frame may have changed
+   * @param toTick   the last tick whose frame may have changed
+   */
+  public void keyframeAdded(String shape, int fromTick, int toTick);
+
+  /**
+   * Called after a keyframe is removed from a shape. The affected range runs from the keyframe
+   * before the removed one to the keyframe after it, or stops at the removed keyframe's tick at
+   * either end of the shape's lifetime.
+   *
+   * @param shape    the name of the shape
+   * @param fromTick the first tick whose frame may have changed
+   * @param toTick   the last tick whose frame may have changed
+   */
+  public void keyframeRemoved(String shape, int fromTick, int toTick);
+
+  /**
+   * Called after many keyframes of a shape are replaced at once, such as when a builder hands the
+   * model a whole batch of keyframes.
+   *
+   * @param shape    the name of the shape
+   * @param fromTick the first tick whose frame may have changed
+   * @param toTick   the last tick whose frame may have changed
+   */
+  public void keyframesChanged(String shape, int fromTick, int toTick);
+}
@@ -0,0 +1,198 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class that represents the keyframes of a single shape, kept in order of their ticks. Because
+ * the keyframes are always sorted, finding where a keyframe belongs is a binary search instead of
+ * re-sorting the whole track, and keyframes that arrive in order are simply appended. Subclasses
+ * decide how the keyframes are actually stored, and the model hands tracks out as read-only
+ * {@link IKeyframeTrack}s.
+ *
+ * <p>A track may be shared between a model and its snapshots. Each track remembers the model that
+ * owns it, and only the owner may change it in place; anyone else has to {@link #duplicate} it
+ * first.</p>
+ */
+abstract class KeyframeTrack implements IKeyframeTrack {
+
+  private Object owner;
+
+  /**
+   * Creates a copy of the track that can be changed without affecting this one. The copy has no
+   * owner.
+   *
+   * @return a copy of the track
+   */
+  abstract KeyframeTrack duplicate();
+
+  /**
+   * Estimates the heap memory taken by the track and its keyframes.
+   *
+   * @return the estimated size of the track in bytes
+   */
+  abstract long footprint();
+
+  /**
+   * Checks whether the keyframe at the given position has the same properties as the given one.
+   *
+   * @param i the position of the keyframe, ordered by tick
+   * @param m the keyframe to compare against
+   * @return true if the two keyframes are equal
+   */
+  abstract boolean matches(int i, IMotion m);
+
+  /**
+   * Stores the keyframe at the given position, shifting the keyframes after it back by one.
+   *
+   * @param i the position to store the keyframe at
+   * @param m the keyframe to store
+   */
+  abstract void insert(int i, IMotion m);
+
+  /**
+   * Removes the keyframe at the given position, shifting the keyframes after it forward by one.
+   *
+   * @param i the position of the keyframe to remove
+   */
+  abstract void delete(int i);
+
+  /**
+   * Checks whether the given writer owns the track and may change it in place.
+   *
+   * @param writer the token of the writer
+   * @return true if the writer owns the track
+   */
+  boolean isOwnedBy(Object writer) {
+    return this.owner == writer;
+  }
+
+  /**
+   * Makes the given writer the owner of the track.
+   *
+   * @param writer the token of the writer
+   * @return this track
+   */
+  KeyframeTrack claim(Object writer) {
+    this.owner = writer;
+    return this;
+  }
+
+  /**
+   * Searches the track for a keyframe at the given tick.
+   *
+   * @param tick the tick to search for
+   * @return the position of a keyframe at that tick if there is one, otherwise (-(insertion point)
+   *         - 1) in the style of {@link java.util.Collections#binarySearch}
+   */
+  int indexOf(int tick) {
+    int low = 0;
+    int high = this.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midTick = this.getTick(mid);
+      if (midTick < tick) {
+        low = mid + 1;
+      } else if (midTick > tick) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Inserts the keyframe in tick order, after any keyframes that share its tick.
+   *
+   * @param m the keyframe to insert
+   */
+  void add(IMotion m) {
+    int size = this.size();
+    if (size == 0 || this.getTick(size - 1) <= m.getTick()) {
+      this.insert(size, m);
+      return;
+    }
+    int i = this.indexOf(m.getTick());
+    if (i < 0) {
+      i = -(i + 1);
+    }
+    while (i < size && this.getTick(i) <= m.getTick()) {
+      i++;
+    }
+    this.insert(i, m);
+  }
+
+  /**
+   * Checks whether the track has a keyframe equal to the given one. Only keyframes at the same tick
+   * can be equal, so this is a binary search on the tick rather than a scan of the track, and a
+   * keyframe at the last tick of the track, such as the start of a motion that repeats the end of
+   * the one before it, is checked without searching at all.
+   *
+   * @param m the keyframe to look for
+   * @return true if an equal keyframe is in the track
+   */
+  boolean contains(IMotion m) {
+    return this.find(m) >= 0;
+  }
+
+  /**
+   * Removes a keyframe equal to the given one from the track, if there is one.
+   *
+   * @param m the keyframe to remove
+   * @return true if a keyframe was removed
+   */
+  boolean remove(IMotion m) {
+    int i = this.find(m);
+    if (i < 0) {
+      return false;
+    }
+    this.delete(i);
+    return true;
+  }
+
+  /**
+   * Searches the track for a keyframe equal to the given one.
+   *
+   * @param m the keyframe to look for
+   * @return the position of an equal keyframe, or -1 if there's no such keyframe
+   */
+  int find(IMotion m) {
+    int size = this.size();
+    if (size == 0) {
+      return -1;
+    }
+    int tick = m.getTick();
+    int i;
+    if (this.getTick(size - 1) == tick) {
+      i = size - 1;
+    } else {
+      i = this.indexOf(tick);
+      if (i < 0) {
+        return -1;
+      }
+      while (i + 1 < size && this.getTick(i + 1) == tick) {
+        i++;
+      }
+    }
+    for (; i >= 0 && this.getTick(i) == tick; i--) {
+      if (this.matches(i, m)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets a list of copies of the keyframes in the track, in tick order.
+   *
+   * @return a copy of the track's keyframes
+   */
+  List<IMotion> copy() {
+    List<IMotion> copy = new ArrayList<IMotion>(this.size());
+    for (int i = 0; i < this.size(); i++) {
+      copy.add(this.getMotion(i).copy());
+    }
+    return copy;
+  }
+}
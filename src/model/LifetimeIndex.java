@@ -0,0 +1,182 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An interval tree over the lifetimes of the shapes in an animation, used to find the shapes that
+ * are on screen at a tick without looking at every shape. The lifetimes are sorted by their start
+ * tick and laid out as an implicit balanced tree, where each node also knows the latest end tick
+ * below it, so a query only visits the branches that can hold an active shape. The index is
+ * immutable; models build a new one after an edit changes a lifetime.
+ */
+final class LifetimeIndex {
+
+  private final int[] shapes;
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] maxEnds;
+
+  /**
+   * Builds an index over the given lifetimes. Only shapes with keyframes should be given.
+   *
+   * @param shapes the ids of the shapes, which are their positions in drawing order
+   * @param starts the first tick of each shape
+   * @param ends   the last tick of each shape
+   * @param count  the number of shapes
+   */
+  LifetimeIndex(int[] shapes, int[] starts, int[] ends, int count) {
+    Integer[] byStart = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      byStart[i] = i;
+    }
+    Arrays.sort(byStart, (a, b) -> Integer.compare(starts[a], starts[b]));
+    this.shapes = new int[count];
+    this.starts = new int[count];
+    this.ends = new int[count];
+    this.maxEnds = new int[count];
+    for (int i = 0; i < count; i++) {
+      int shape = byStart[i];
+      this.shapes[i] = shapes[shape];
+      this.starts[i] = starts[shape];
+      this.ends[i] = ends[shape];
+    }
+    this.fillMaxEnds(0, count - 1);
+  }
+
+  /**
+   * Builds an index over the lifetimes of the shapes with keyframes in the given tracks.
+   *
+   * @param tracks the track of each shape, indexed by the shape's id
+   * @return an index over the lifetimes of the shapes
+   */
+  static LifetimeIndex of(List<? extends KeyframeTrack> tracks) {
+    int[] shapes = new int[tracks.size()];
+    int[] starts = new int[tracks.size()];
+    int[] ends = new int[tracks.size()];
+    int count = 0;
+    for (int id = 0; id < tracks.size(); id++) {
+      KeyframeTrack track = tracks.get(id);
+      if (track.size() > 0) {
+        shapes[count] = id;
+        starts[count] = track.getTick(0);
+        ends[count] = track.getTick(track.size() - 1);
+        count++;
+      }
+    }
+    return new LifetimeIndex(shapes, starts, ends, count);
+  }
+
+  /**
+   * Estimates the heap memory taken by the index.
+   *
+   * @return the estimated size of the index in bytes
+   */
+  long footprint() {
+    return MemoryFootprint.object(4, 0) + 4 * MemoryFootprint.array(Integer.BYTES,
+            this.shapes.length);
+  }
+
+  // Computes the latest end tick below each node of the subtree over [low, high], returning the
+  // latest end tick of the whole subtree.
+  private int fillMaxEnds(int low, int high) {
+    if (low > high) {
+      return Integer.MIN_VALUE;
+    }
+    int mid = (low + high) >>> 1;
+    int max = Math.max(this.ends[mid],
+            Math.max(this.fillMaxEnds(low, mid - 1), this.fillMaxEnds(mid + 1, high)));
+    this.maxEnds[mid] = max;
+    return max;
+  }
+
+  /**
+   * Finds the shapes whose lifetimes overlap the given tick range.
+   *
+   * @param from the first tick of the range
+   * @param to   the last tick of the range
+   * @return the ids of the shapes alive at some tick in the range, in increasing order
+   */
+  int[] query(int from, int to) {
+    Hits hits = new Hits();
+    this.collect(0, this.shapes.length - 1, from, to, hits);
+    int[] active = Arrays.copyOf(hits.shapes, hits.count);
+    Arrays.sort(active);
+    return active;
+  }
+
+  /**
+   * Finds the shapes whose lifetimes overlap the given tick range, writing their ids into the given
+   * array instead of a new one.
+   *
+   * @param from   the first tick of the range
+   * @param to     the last tick of the range
+   * @param active the array to write the ids into, in increasing order
+   * @return the number of shapes found, which is more than the length of the array if they didn't
+   *         all fit, in which case the array holds an unspecified part of them
+   */
+  int query(int from, int to, int[] active) {
+    int count = this.collect(0, this.shapes.length - 1, from, to, active, 0);
+    if (count <= active.length) {
+      Arrays.sort(active, 0, count);
+    }
+    return count;
+  }
+
+  // Writes each shape in the subtree over [low, high] whose lifetime overlaps [from, to] into the
+  // array after the given number of shapes already found, returning the new number found.
+  private int collect(int low, int high, int from, int to, int[] active, int count) {
+    if (low > high) {
+      return count;
+    }
+    int mid = (low + high) >>> 1;
+    if (this.maxEnds[mid] < from) {
+      return count;
+    }
+    count = this.collect(low, mid - 1, from, to, active, count);
+    if (this.starts[mid] <= to) {
+      if (this.ends[mid] >= from) {
+        if (count < active.length) {
+          active[count] = this.shapes[mid];
+        }
+        count++;
+      }
+      count = this.collect(mid + 1, high, from, to, active, count);
+    }
+    return count;
+  }
+
+  // Adds each shape in the subtree over [low, high] whose lifetime overlaps [from, to] to hits.
+  private void collect(int low, int high, int from, int to, Hits hits) {
+    if (low > high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    if (this.maxEnds[mid] < from) {
+      return;
+    }
+    this.collect(low, mid - 1, from, to, hits);
+    if (this.starts[mid] <= to) {
+      if (this.ends[mid] >= from) {
+        hits.add(this.shapes[mid]);
+      }
+      this.collect(mid + 1, high, from, to, hits);
+    }
+  }
+
+  /**
+   * A growable list of the ids of the shapes found by a query.
+   */
+  private static final class Hits {
+    private int[] shapes = new int[16];
+    private int count = 0;
+
+    // adds a shape to the list.
+    private void add(int shape) {
+      if (this.count == this.shapes.length) {
+        this.shapes = Arrays.copyOf(this.shapes, this.count * 2);
+      }
+      this.shapes[this.count++] = shape;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A keyframe track that stores each keyframe as its own motion object in a list. This is the
+ * storage used by {@link AnimatorModelImpl}.
+ */
+final class ListTrack extends KeyframeTrack {
+
+  private final List<IMotion> motions;
+
+  /**
+   * Constructs an empty track.
+   */
+  ListTrack() {
+    this.motions = new ArrayList<IMotion>();
+  }
+
+  // Constructs a track holding the given motions.
+  private ListTrack(List<IMotion> motions) {
+    this.motions = motions;
+  }
+
+  @Override
+  KeyframeTrack duplicate() {
+    return new ListTrack(new ArrayList<IMotion>(this.motions));
+  }
+
+  @Override
+  long footprint() {
+    return MemoryFootprint.object(2, 0) + MemoryFootprint.ARRAY_LIST
+            + MemoryFootprint.array(4, this.motions.size())
+            + this.motions.size() * MemoryFootprint.object(0, 8 * Integer.BYTES);
+  }
+
+  @Override
+  public int size() {
+    return this.motions.size();
+  }
+
+  @Override
+  public int getTick(int i) {
+    return this.motions.get(i).getTick();
+  }
+
+  @Override
+  public int getX(int i) {
+    return this.motions.get(i).getX();
+  }
+
+  @Override
+  public int getY(int i) {
+    return this.motions.get(i).getY();
+  }
+
+  @Override
+  public int getWidth(int i) {
+    return this.motions.get(i).getWidth();
+  }
+
+  @Override
+  public int getHeight(int i) {
+    return this.motions.get(i).getHeight();
+  }
+
+  @Override
+  public int getRed(int i) {
+    return this.motions.get(i).getRed();
+  }
+
+  @Override
+  public int getGreen(int i) {
+    return this.motions.get(i).getGreen();
+  }
+
+  @Override
+  public int getBlue(int i) {
+    return this.motions.get(i).getBlue();
+  }
+
+  @Override
+  public IMotion getMotion(int i) {
+    return this.motions.get(i);
+  }
+
+  @Override
+  boolean matches(int i, IMotion m) {
+    return this.motions.get(i).equals(m);
+  }
+
+  @Override
+  void insert(int i, IMotion m) {
+    this.motions.add(i, m);
+  }
+
+  @Override
+  void delete(int i) {
+    this.motions.remove(i);
+  }
+}
@@ -0,0 +1,776 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import util.AnimationBuilder;
+
+/**
+ * A class that represents a read-only view of an animation whose keyframes are kept in a
+ * memory-mapped file instead of on the heap. Only the shape names, their types and a small
+ * directory saying where each shape's track starts are loaded; keyframes are read from the mapping
+ * as they are asked for, so the heap and the garbage collector never see the bulk of the animation.
+ *
+ * <p>The file starts with a header holding the canvas and the first and last tick of the animation,
+ * followed by each shape's keyframes as tick-sorted records of six ints, followed by the directory
+ * of shapes. The directory also holds the easings of each shape's motions, which are few enough to
+ * load; files written before easings were added have none, and their motions are all linear.</p>
+ */
+public final class MappedAnimatorModelView implements IAnimatorModelView {
+
+  private static final int MAGIC = 0x414E494D;
+  private static final int VERSION = 3;
+  private static final int LINEAR_VERSION = 2;
+  private static final int HEADER_BYTES = 44;
+  private static final int RECORD_BYTES = MappedTrack.RECORD_BYTES;
+  private static final long MAX_MAPPING = Integer.MAX_VALUE - Integer.MAX_VALUE % RECORD_BYTES;
+  private static final ShapeType[] TYPES = ShapeType.values();
+
+  private static final MappedTrack EMPTY = new MappedTrack(ByteBuffer.allocate(0), 0);
+
+  private final Map<String, Integer> ids;
+  private final String[] names;
+  private final List<MappedTrack> tracks;
+  private final ShapeType[] shapeTypes;
+  private final SegmentEasings[] easings;
+  private final Set<String> keys;
+  private final int xBound;
+  private final int yBound;
+  private final int width;
+  private final int height;
+  private final int firstTick;
+  private final int lastTick;
+  private volatile LifetimeIndex lifetimes;
+
+  // Constructs a view over tracks that have already been mapped.
+  private MappedAnimatorModelView(String[] names, MappedTrack[] tracks, ShapeType[] shapeTypes,
+                                  SegmentEasings[] easings, int xBound, int yBound, int width,
+                                  int height, int firstTick, int lastTick) {
+    this.ids = new LinkedHashMap<String, Integer>();
+    for (int i = 0; i < names.length; i++) {
+      this.ids.put(names[i], i);
+    }
+    this.names = names;
+    this.tracks = Arrays.asList(tracks);
+    this.shapeTypes = shapeTypes;
+    this.easings = easings;
+    this.keys = Collections.unmodifiableSet(this.ids.keySet());
+    this.xBound = xBound;
+    this.yBound = yBound;
+    this.width = width;
+    this.height = height;
+    this.firstTick = firstTick;
+    this.lastTick = lastTick;
+  }
+
+  /**
+   * Opens an animation file written by a {@link Builder}.
+   *
+   * @param file the file to open
+   * @return a view of the animation in the file
+   * @throws IOException              if the file can't be read or mapped
+   * @throws IllegalArgumentException if file is null
+   */
+  public static MappedAnimatorModelView open(File file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file is a null!");
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+         FileChannel channel = raf.getChannel()) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new IOException("Not an animation file: " + file);
+        }
+      }
+      header.flip();
+      if (header.getInt() != MAGIC) {
+        throw new IOException("Not an animation file: " + file);
+      }
+      int version = header.getInt();
+      if (version != VERSION && version != LINEAR_VERSION) {
+        throw new IOException("Not an animation file: " + file);
+      }
+      int x = header.getInt();
+      int y = header.getInt();
+      int width = header.getInt();
+      int height = header.getInt();
+      int shapeCount = header.getInt();
+      int firstTick = header.getInt();
+      int lastTick = header.getInt();
+      long directoryOffset = header.getLong();
+
+      String[] names = new String[shapeCount];
+      ShapeType[] types = new ShapeType[shapeCount];
+      long[] offsets = new long[shapeCount];
+      int[] counts = new int[shapeCount];
+      SegmentEasings[] easings = new SegmentEasings[shapeCount];
+      channel.position(directoryOffset);
+      DataInputStream directory = new DataInputStream(
+              new BufferedInputStream(Channels.newInputStream(channel)));
+      for (int i = 0; i < shapeCount; i++) {
+        names[i] = directory.readUTF();
+        types[i] = TYPES[directory.readByte()];
+        offsets[i] = directory.readLong();
+        counts[i] = directory.readInt();
+        easings[i] = SegmentEasings.NONE;
+        int easingCount = version == LINEAR_VERSION ? 0 : directory.readInt();
+        for (int e = 0; e < easingCount; e++) {
+          int tick = directory.readInt();
+          easings[i] = easings[i].with(tick, Easing.parse(directory.readUTF()));
+        }
+      }
+
+      ByteBuffer[] records = map(channel, FileChannel.MapMode.READ_ONLY, offsets, counts);
+      MappedTrack[] tracks = new MappedTrack[shapeCount];
+      for (int i = 0; i < shapeCount; i++) {
+        tracks[i] = new MappedTrack(records[i], counts[i]);
+      }
+      return new MappedAnimatorModelView(names, tracks, types, easings, x, y, width, height,
+              firstTick, lastTick);
+    }
+  }
+
+  // Maps the records of each track into memory. Tracks that sit next to each other in the file
+  // share a mapping, as long as the mapping stays within the 2 GB a single buffer can address.
+  private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long[] offsets,
+                                  int[] counts) throws IOException {
+    Integer[] order = new Integer[offsets.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> offsets[i]));
+
+    ByteBuffer[] records = new ByteBuffer[offsets.length];
+    int first = 0;
+    while (first < order.length) {
+      long start = offsets[order[first]];
+      long end = start;
+      int last = first;
+      while (last < order.length) {
+        long trackEnd = offsets[order[last]] + (long) counts[order[last]] * RECORD_BYTES;
+        if (trackEnd - start > MAX_MAPPING) {
+          if (last == first) {
+            throw new IOException("A track is too large to map");
+          }
+          break;
+        }
+        end = Math.max(end, trackEnd);
+        last++;
+      }
+      ByteBuffer mapping = end == start ? ByteBuffer.allocate(0)
+              : channel.map(mode, start, end - start);
+      for (int i = first; i < last; i++) {
+        int track = order[i];
+        ByteBuffer slice = mapping.duplicate();
+        int position = (int) (offsets[track] - start);
+        slice.position(position);
+        slice.limit(position + counts[track] * RECORD_BYTES);
+        records[track] = slice.slice();
+      }
+      first = last;
+    }
+    return records;
+  }
+
+  @Override
+  public List<IMotion> getMotions(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    if (id < 0) {
+      return new ArrayList<IMotion>();
+    }
+    return this.tracks.get(id).copy();
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    return id < 0 ? EMPTY : this.tracks.get(id);
+  }
+
+  @Override
+  public ShapeType getShapeType(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    if (id >= 0) {
+      return this.shapeTypes[id];
+    }
+    throw new IllegalArgumentException("shape isn't in the map");
+  }
+
+  @Override
+  public Set<String> getKeys() {
+    return this.keys;
+  }
+
+  @Override
+  public int getLastMotionTick() {
+    return this.lastTick;
+  }
+
+  @Override
+  public int getFirstMotionTick() {
+    return this.firstTick;
+  }
+
+  @Override
+  public int getStartTick(String s) throws IllegalArgumentException {
+    return this.lifetime(s).getTick(0);
+  }
+
+  @Override
+  public int getEndTick(String s) throws IllegalArgumentException {
+    MappedTrack track = this.lifetime(s);
+    return track.getTick(track.size() - 1);
+  }
+
+  @Override
+  public void addListener(IModelListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+  }
+
+  @Override
+  public void removeListener(IModelListener listener) {
+    // the animation never changes, so there's nothing to stop telling the listener about.
+  }
+
+  @Override
+  public List<String> getActiveShapes(int tick) {
+    return this.getActiveShapes(tick, tick);
+  }
+
+  @Override
+  public List<String> getActiveShapes(int fromTick, int toTick) throws IllegalArgumentException {
+    int[] active = this.getActiveShapeIds(fromTick, toTick);
+    List<String> shapes = new ArrayList<String>(active.length);
+    for (int id : active) {
+      shapes.add(this.names[id]);
+    }
+    return shapes;
+  }
+
+  @Override
+  public int getShapeCount() {
+    return this.names.length;
+  }
+
+  @Override
+  public int getShapeId(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    return this.id(s);
+  }
+
+  @Override
+  public String getShapeName(int id) throws IllegalArgumentException {
+    return this.names[this.checkId(id)];
+  }
+
+  @Override
+  public ShapeType getShapeType(int id) throws IllegalArgumentException {
+    return this.shapeTypes[this.checkId(id)];
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(int id) throws IllegalArgumentException {
+    return this.tracks.get(this.checkId(id));
+  }
+
+  @Override
+  public int getStartTick(int id) throws IllegalArgumentException {
+    return this.lifetime(id).getTick(0);
+  }
+
+  @Override
+  public int getEndTick(int id) throws IllegalArgumentException {
+    MappedTrack track = this.lifetime(id);
+    return track.getTick(track.size() - 1);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int tick) {
+    return this.getActiveShapeIds(tick, tick);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int fromTick, int toTick) throws IllegalArgumentException {
+    if (fromTick > toTick) {
+      throw new IllegalArgumentException("range ends before it starts");
+    }
+    LifetimeIndex index = this.lifetimes;
+    if (index == null) {
+      index = LifetimeIndex.of(this.tracks);
+      this.lifetimes = index;
+    }
+    return index.query(fromTick, toTick);
+  }
+
+  @Override
+  public int getActiveShapeIds(int tick, int[] ids) throws IllegalArgumentException {
+    if (ids == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    LifetimeIndex index = this.lifetimes;
+    if (index == null) {
+      index = LifetimeIndex.of(this.tracks);
+      this.lifetimes = index;
+    }
+    return index.query(tick, tick, ids);
+  }
+
+  @Override
+  public Easing getEasing(String shape, int tick) throws IllegalArgumentException {
+    if (shape == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(shape);
+    return id < 0 ? Easing.LINEAR : this.easings[id].get(tick);
+  }
+
+  @Override
+  public Easing getEasing(int id, int tick) throws IllegalArgumentException {
+    return this.easings[this.checkId(id)].get(tick);
+  }
+
+  @Override
+  public MemoryFootprint getFootprint() {
+    LifetimeIndex index = this.lifetimes;
+    int count = this.names.length;
+    long keyframeBytes = 0;
+    // the view's fields, its map of ids, its four arrays of shapes, and the list wrapping the
+    // tracks and the read-only wrapper of its keys.
+    long shapeBytes = MemoryFootprint.object(7, 6 * Integer.BYTES)
+            + MemoryFootprint.LINKED_HASH_MAP + MemoryFootprint.table(count)
+            + 4 * MemoryFootprint.array(4, count) + 2 * MemoryFootprint.object(1, 0);
+    for (int id = 0; id < count; id++) {
+      keyframeBytes += this.tracks.get(id).footprint();
+      shapeBytes += MemoryFootprint.string(this.names[id]) + MemoryFootprint.entry(id, 2)
+              + this.easings[id].footprint();
+    }
+    return new MemoryFootprint(keyframeBytes, shapeBytes, index == null ? 0 : index.footprint());
+  }
+
+  @Override
+  public MemoryFootprint getFootprint(String shape) throws IllegalArgumentException {
+    if (shape == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(shape);
+    if (id < 0) {
+      throw new IllegalArgumentException("shape isn't in the map");
+    }
+    MappedTrack track = this.tracks.get(id);
+    return new MemoryFootprint(track.footprint(),
+            MemoryFootprint.string(shape) + MemoryFootprint.entry(id, 2)
+                    + this.easings[id].footprint(),
+            this.lifetimes == null || track.size() == 0 ? 0 : 4 * Integer.BYTES);
+  }
+
+  // Gets the id of the shape with the given name, or -1 if there's no such shape.
+  private int id(String s) {
+    Integer id = this.ids.get(s);
+    return id == null ? -1 : id;
+  }
+
+  // Throws an IllegalArgumentException if there's no shape with the given id.
+  private int checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.names.length) {
+      throw new IllegalArgumentException("no shape with that id");
+    }
+    return id;
+  }
+
+  // Gets the track of the given shape, throwing an IllegalArgumentException if s is null, isn't a
+  // shape in the animation or has no keyframes to give it a lifetime.
+  private MappedTrack lifetime(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    if (id < 0) {
+      throw new IllegalArgumentException("shape isn't in the map");
+    }
+    return this.lifetime(id);
+  }
+
+  // Gets the track of the shape with the given id, throwing an IllegalArgumentException if there's
+  // no such shape or it has no keyframes to give it a lifetime.
+  private MappedTrack lifetime(int id) throws IllegalArgumentException {
+    MappedTrack track = this.tracks.get(this.checkId(id));
+    if (track.size() == 0) {
+      throw new IllegalArgumentException("shape has no motions");
+    }
+    return track;
+  }
+
+  @Override
+  public int getXBound() {
+    return this.xBound;
+  }
+
+  @Override
+  public int getYBound() {
+    return this.yBound;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Creates a new Builder object that writes its animation to the given file.
+   *
+   * @param file the file to write the animation to
+   * @return a new Builder
+   */
+  public static Builder builder(File file) {
+    return new Builder(file);
+  }
+
+  /**
+   * A class that represents a builder for a mapped animation. Keyframes are spilled to a temporary
+   * file as they arrive, so the heap only ever holds the shapes. When the animation is built, each
+   * keyframe is copied into its shape's track in the animation file, and each track is sorted and
+   * checked for overlapping keyframes in place.
+   */
+  public static final class Builder implements AnimationBuilder<IAnimatorModelView> {
+
+    // the count of a track whose shape was declared again, whose spilled keyframes are skipped.
+    private static final int DROPPED = -1;
+
+    private final File file;
+    private final Map<String, Integer> shapes;
+    private final List<ShapeType> types;
+    private final List<SegmentEasings> easings;
+    private int[] counts;
+    private int xBound;
+    private int yBound;
+    private int width;
+    private int height;
+    private File spill;
+    private DataOutputStream spillOut;
+
+    /**
+     * Constructs a builder that will write its animation to the given file.
+     *
+     * @param file the file to write the animation to, replacing anything already in it
+     * @throws IllegalArgumentException if file is null
+     */
+    public Builder(File file) throws IllegalArgumentException {
+      if (file == null) {
+        throw new IllegalArgumentException("file is a null!");
+      }
+      this.file = file;
+      this.shapes = new LinkedHashMap<String, Integer>();
+      this.types = new ArrayList<ShapeType>();
+      this.easings = new ArrayList<SegmentEasings>();
+      this.counts = new int[16];
+      this.xBound = 0;
+      this.yBound = 0;
+      this.width = 500;
+      this.height = 500;
+    }
+
+    @Override
+    public IAnimatorModelView build() {
+      try {
+        return this.write();
+      } catch (IOException e) {
+        throw new IllegalStateException("Couldn't write the animation to " + this.file, e);
+      } finally {
+        if (this.spill != null) {
+          this.spill.delete();
+          this.spill = null;
+        }
+      }
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModelView> setBounds(int x, int y, int width, int height) {
+      if (width < 1) {
+        throw new IllegalArgumentException("width is not positive");
+      }
+      if (height < 1) {
+        throw new IllegalArgumentException("height is not positive");
+      }
+      this.xBound = x;
+      this.yBound = y;
+      this.width = width;
+      this.height = height;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModelView> declareShape(String name, String type) {
+      if (name == null || type == null) {
+        throw new IllegalArgumentException("null string");
+      }
+      ShapeType shapeType = ShapeType.parse(type);
+      int index = this.types.size();
+      if (index == this.counts.length) {
+        this.counts = Arrays.copyOf(this.counts, index * 2);
+      }
+      this.types.add(shapeType);
+      this.easings.add(SegmentEasings.NONE);
+      // a shape declared again starts over with a new, empty track, and its old track is dropped
+      // so that the keyframes already spilled for it take no space in the file
+      Integer old = this.shapes.put(name, index);
+      if (old != null) {
+        this.counts[old] = DROPPED;
+      }
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModelView> addMotion(String name, int t1, int x1, int y1,
+                                                          int w1, int h1, int r1, int g1, int b1,
+                                                          int t2, int x2, int y2, int w2, int h2,
+                                                          int r2, int g2, int b2) {
+      this.addKeyframe(name, t1, x1, y1, w1, h1, r1, g1, b1);
+      this.addKeyframe(name, t2, x2, y2, w2, h2, r2, g2, b2);
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModelView> addKeyframe(String name, int t, int x, int y,
+                                                            int w, int h, int r, int g, int b) {
+      if (name == null) {
+        throw new IllegalArgumentException("null string");
+      }
+      IMotion m = new Motion(t, x, y, w, h, r, g, b);
+      Integer index = this.shapes.get(name);
+      if (index == null) {
+        return this;
+      }
+      try {
+        if (this.spillOut == null) {
+          File directory = this.file.getAbsoluteFile().getParentFile();
+          this.spill = File.createTempFile("animation", ".spill", directory);
+          this.spillOut = new DataOutputStream(
+                  new BufferedOutputStream(new FileOutputStream(this.spill)));
+        }
+        this.spillOut.writeInt(index);
+        this.spillOut.writeInt(m.getTick());
+        this.spillOut.writeInt(m.getX());
+        this.spillOut.writeInt(m.getY());
+        this.spillOut.writeInt(m.getWidth());
+        this.spillOut.writeInt(m.getHeight());
+        this.spillOut.writeInt((m.getRed() << 16) | (m.getGreen() << 8) | m.getBlue());
+      } catch (IOException e) {
+        throw new IllegalStateException("Couldn't spill keyframes to disk", e);
+      }
+      this.counts[index]++;
+      return this;
+    }
+
+    @Override
+    public AnimationBuilder<IAnimatorModelView> setEasing(String name, int t, String easing) {
+      if (name == null || easing == null) {
+        throw new IllegalArgumentException("null string");
+      }
+      Easing curve = Easing.parse(easing);
+      Integer index = this.shapes.get(name);
+      if (index != null) {
+        this.easings.set(index, this.easings.get(index).with(t, curve));
+      }
+      return this;
+    }
+
+    // Writes the header, the tracks and the directory to the animation file and opens it.
+    private MappedAnimatorModelView write() throws IOException {
+      int trackCount = this.types.size();
+      long[] offsets = new long[trackCount];
+      long at = HEADER_BYTES;
+      int[] sizes = new int[trackCount];
+      for (int i = 0; i < trackCount; i++) {
+        offsets[i] = at;
+        sizes[i] = Math.max(0, this.counts[i]);
+        at += (long) sizes[i] * RECORD_BYTES;
+      }
+      long directoryOffset = at;
+
+      try (RandomAccessFile raf = new RandomAccessFile(this.file, "rw");
+           FileChannel channel = raf.getChannel()) {
+        raf.setLength(directoryOffset);
+        ByteBuffer[] records = map(channel, FileChannel.MapMode.READ_WRITE, offsets, sizes);
+        if (this.spillOut != null) {
+          this.spillOut.close();
+          this.spillOut = null;
+          this.fill(records);
+        }
+        for (int i = 0; i < trackCount; i++) {
+          sort(records[i], sizes[i]);
+          sizes[i] = compact(records[i], sizes[i]);
+        }
+
+        int firstTick = 0;
+        int lastTick = 0;
+        boolean found = false;
+        channel.position(directoryOffset);
+        DataOutputStream directory = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel)));
+        for (Map.Entry<String, Integer> shape : this.shapes.entrySet()) {
+          int i = shape.getValue();
+          directory.writeUTF(shape.getKey());
+          directory.writeByte(this.types.get(i).ordinal());
+          directory.writeLong(offsets[i]);
+          directory.writeInt(sizes[i]);
+          SegmentEasings curves = this.easings.get(i);
+          directory.writeInt(curves.size());
+          for (int e = 0; e < curves.size(); e++) {
+            directory.writeInt(curves.getTick(e));
+            directory.writeUTF(curves.getEasing(e).toString());
+          }
+          if (sizes[i] > 0) {
+            int start = records[i].getInt(0);
+            int end = records[i].getInt((sizes[i] - 1) * RECORD_BYTES);
+            firstTick = found ? Math.min(firstTick, start) : start;
+            lastTick = found ? Math.max(lastTick, end) : end;
+            found = true;
+          }
+        }
+        directory.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.xBound).putInt(this.yBound)
+                .putInt(this.width).putInt(this.height).putInt(this.shapes.size())
+                .putInt(firstTick).putInt(lastTick).putLong(directoryOffset);
+        header.flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+      }
+      return open(this.file);
+    }
+
+    // Copies each spilled keyframe into the next free record of its shape's track, skipping the
+    // keyframes of dropped tracks.
+    private void fill(ByteBuffer[] records) throws IOException {
+      int[] filled = new int[records.length];
+      byte[] skipped = new byte[RECORD_BYTES];
+      try (DataInputStream in = new DataInputStream(
+              new BufferedInputStream(new FileInputStream(this.spill)))) {
+        long keyframes = this.spill.length() / (RECORD_BYTES + Integer.BYTES);
+        for (long k = 0; k < keyframes; k++) {
+          int track = in.readInt();
+          if (this.counts[track] == DROPPED) {
+            in.readFully(skipped);
+            continue;
+          }
+          int at = filled[track]++ * RECORD_BYTES;
+          for (int field = 0; field < RECORD_BYTES; field += Integer.BYTES) {
+            records[track].putInt(at + field, in.readInt());
+          }
+        }
+      }
+    }
+
+    // Sorts the first n records of the track by tick with an in-place heap sort, so that sorting a
+    // track never needs more than a record's worth of heap. Tracks that are already in order,
+    // which is how most animations are written, are left alone.
+    private static void sort(ByteBuffer records, int n) {
+      boolean sorted = true;
+      for (int i = 1; i < n && sorted; i++) {
+        sorted = tick(records, i - 1) <= tick(records, i);
+      }
+      if (sorted) {
+        return;
+      }
+      for (int i = n / 2 - 1; i >= 0; i--) {
+        siftDown(records, i, n);
+      }
+      for (int end = n - 1; end > 0; end--) {
+        swap(records, 0, end);
+        siftDown(records, 0, end);
+      }
+    }
+
+    // Moves the i-th record down the heap made of the first n records until it's in place.
+    private static void siftDown(ByteBuffer records, int i, int n) {
+      while (2 * i + 1 < n) {
+        int child = 2 * i + 1;
+        if (child + 1 < n && tick(records, child + 1) > tick(records, child)) {
+          child++;
+        }
+        if (tick(records, i) >= tick(records, child)) {
+          return;
+        }
+        swap(records, i, child);
+        i = child;
+      }
+    }
+
+    // Drops repeated keyframes from the first n sorted records, returning how many are left.
+    // Throws an IllegalArgumentException if two different keyframes share a tick.
+    private static int compact(ByteBuffer records, int n) {
+      int size = 0;
+      for (int i = 0; i < n; i++) {
+        if (size > 0 && tick(records, size - 1) == tick(records, i)) {
+          for (int field = 0; field < RECORD_BYTES; field += Integer.BYTES) {
+            if (records.getInt((size - 1) * RECORD_BYTES + field)
+                    != records.getInt(i * RECORD_BYTES + field)) {
+              throw new IllegalArgumentException("Overlapping motions!");
+            }
+          }
+          continue;
+        }
+        if (size != i) {
+          for (int field = 0; field < RECORD_BYTES; field += Integer.BYTES) {
+            records.putInt(size * RECORD_BYTES + field, records.getInt(i * RECORD_BYTES + field));
+          }
+        }
+        size++;
+      }
+      return size;
+    }
+
+    // gets the tick of the i-th record.
+    private static int tick(ByteBuffer records, int i) {
+      return records.getInt(i * RECORD_BYTES);
+    }
+
+    // swaps the i-th and j-th records.
+    private static void swap(ByteBuffer records, int i, int j) {
+      for (int field = 0; field < RECORD_BYTES; field += Integer.BYTES) {
+        int temp = records.getInt(i * RECORD_BYTES + field);
+        records.putInt(i * RECORD_BYTES + field, records.getInt(j * RECORD_BYTES + field));
+        records.putInt(j * RECORD_BYTES + field, temp);
+      }
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only keyframe track whose keyframes live in a memory-mapped file instead of on the heap.
+ * Each keyframe is a record of six ints (tick, x, y, width, height and packed RGB), sorted by tick.
+ * Motions are only created when a caller asks for one.
+ */
+final class MappedTrack extends KeyframeTrack {
+
+  /**
+   * The number of bytes taken by a single keyframe record.
+   */
+  static final int RECORD_BYTES = 6 * Integer.BYTES;
+
+  private final ByteBuffer records;
+  private final int size;
+
+  /**
+   * Constructs a track over the given records.
+   *
+   * @param records a buffer whose first byte is the first byte of the track's first record
+   * @param size    the number of keyframes in the track
+   */
+  MappedTrack(ByteBuffer records, int size) {
+    this.records = records;
+    this.size = size;
+  }
+
+  @Override
+  KeyframeTrack duplicate() {
+    return new MappedTrack(this.records, this.size);
+  }
+
+  /**
+   * Estimates the heap memory taken by the track, which is only the track and its view of the
+   * mapping; the records themselves are in the mapped file, outside the heap.
+   *
+   * @return the estimated size of the track in bytes
+   */
+  @Override
+  long footprint() {
+    return MemoryFootprint.object(2, Integer.BYTES) + MemoryFootprint.MAPPED_BUFFER;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int getTick(int i) {
+    return this.records.getInt(this.offset(i));
+  }
+
+  @Override
+  public int getX(int i) {
+    return this.records.getInt(this.offset(i) + 4);
+  }
+
+  @Override
+  public int getY(int i) {
+    return this.records.getInt(this.offset(i) + 8);
+  }
+
+  @Override
+  public int getWidth(int i) {
+    return this.records.getInt(this.offset(i) + 12);
+  }
+
+  @Override
+  public int getHeight(int i) {
+    return this.records.getInt(this.offset(i) + 16);
+  }
+
+  @Override
+  public int getRed(int i) {
+    return (this.records.getInt(this.offset(i) + 20) >> 16) & 0xFF;
+  }
+
+  @Override
+  public int getGreen(int i) {
+    return (this.records.getInt(this.offset(i) + 20) >> 8) & 0xFF;
+  }
+
+  @Override
+  public int getBlue(int i) {
+    return this.records.getInt(this.offset(i) + 20) & 0xFF;
+  }
+
+  @Override
+  public IMotion getMotion(int i) {
+    int at = this.offset(i);
+    int rgb = this.records.getInt(at + 20);
+    return new Motion(this.records.getInt(at), this.records.getInt(at + 4),
+            this.records.getInt(at + 8), this.records.getInt(at + 12),
+            this.records.getInt(at + 16), (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+  }
+
+  @Override
+  boolean matches(int i, IMotion m) {
+    int at = this.offset(i);
+    return this.records.getInt(at) == m.getTick() && this.records.getInt(at + 4) == m.getX()
+            && this.records.getInt(at + 8) == m.getY()
+            && this.records.getInt(at + 12) == m.getWidth()
+            && this.records.getInt(at + 16) == m.getHeight()
+            && this.records.getInt(at + 20)
+            == ((m.getRed() << 16) | (m.getGreen() << 8) | m.getBlue());
+  }
+
+  @Override
+  List<IMotion> copy() {
+    List<IMotion> copy = new ArrayList<IMotion>(this.size);
+    for (int i = 0; i < this.size; i++) {
+      copy.add(this.getMotion(i));
+    }
+    return copy;
+  }
+
+  @Override
+  void insert(int i, IMotion m) {
+    throw new UnsupportedOperationException("Mapped tracks are read-only");
+  }
+
+  @Override
+  void delete(int i) {
+    throw new UnsupportedOperationException("Mapped tracks are read-only");
+  }
+
+  // gets the byte offset of the i-th record, throwing an IndexOutOfBoundsException if there's no
+  // such keyframe.
+  private int offset(int i) {
+    if (i < 0 || i >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + this.size);
+    }
+    return i * RECORD_BYTES;
+  }
+}
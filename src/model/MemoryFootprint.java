@@ -0,0 +1,161 @@
+package model;
+
+/**
+ * An estimate of the heap memory kept alive by an animation or one of its shapes, split into the
+ * memory holding keyframes, the memory describing the shapes themselves (names, types and the
+ * tables that find them), and the memory of indexes built to speed up queries. The sizes are worked
+ * out from the layout of the objects involved on a 64-bit JVM with compressed references, the
+ * default for heaps under 32 GB, so they are close to what a heap dump would show but not exact.
+ */
+public final class MemoryFootprint {
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+
+  /**
+   * The bytes taken by an {@link java.util.ArrayList} itself, not counting its array: a reference
+   * to the array, its size and its modification count.
+   */
+  static final long ARRAY_LIST = object(1, 2 * Integer.BYTES);
+
+  /**
+   * The bytes taken by a {@link java.util.LinkedHashMap} itself, not counting its table or entries:
+   * references to its table, entry set, key set, values, head and tail, its size, modification
+   * count and resize threshold, its load factor and its access-order flag.
+   */
+  static final long LINKED_HASH_MAP = object(6, 3 * Integer.BYTES + Float.BYTES + 1);
+
+  /**
+   * The bytes taken by a direct {@link java.nio.ByteBuffer} over part of a mapped file, not
+   * counting the file: references to its memory segment, heap array, file descriptor, cleaner and
+   * attachment, its mark, position, limit, capacity and offset, its address, and four flags.
+   */
+  static final long MAPPED_BUFFER = object(5, 5 * Integer.BYTES + Long.BYTES + 4);
+
+  private final long keyframeBytes;
+  private final long shapeBytes;
+  private final long indexBytes;
+
+  /**
+   * Constructs a footprint from the bytes taken by each part of it.
+   *
+   * @param keyframeBytes the bytes taken by keyframes
+   * @param shapeBytes    the bytes taken by the description of shapes
+   * @param indexBytes    the bytes taken by indexes
+   */
+  MemoryFootprint(long keyframeBytes, long shapeBytes, long indexBytes) {
+    this.keyframeBytes = keyframeBytes;
+    this.shapeBytes = shapeBytes;
+    this.indexBytes = indexBytes;
+  }
+
+  /**
+   * Gets the estimated bytes taken by keyframes.
+   *
+   * @return the bytes taken by keyframes
+   */
+  public long getKeyframeBytes() {
+    return this.keyframeBytes;
+  }
+
+  /**
+   * Gets the estimated bytes taken by the names and types of shapes and the tables that hold them.
+   *
+   * @return the bytes taken by the description of shapes
+   */
+  public long getShapeBytes() {
+    return this.shapeBytes;
+  }
+
+  /**
+   * Gets the estimated bytes taken by indexes, such as the index of shape lifetimes. Indexes are
+   * built when they're first needed, so this is zero until then.
+   *
+   * @return the bytes taken by indexes
+   */
+  public long getIndexBytes() {
+    return this.indexBytes;
+  }
+
+  /**
+   * Gets the estimated bytes taken altogether.
+   *
+   * @return the total bytes
+   */
+  public long getTotalBytes() {
+    return this.keyframeBytes + this.shapeBytes + this.indexBytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("keyframes %d, shapes %d, indexes %d, total %d bytes",
+            this.keyframeBytes, this.shapeBytes, this.indexBytes, this.getTotalBytes());
+  }
+
+  /**
+   * Gets the bytes taken by an object with the given number of reference fields and bytes of
+   * primitive fields, including its header and padding.
+   *
+   * @param references the number of reference fields
+   * @param primitives the total bytes of primitive fields
+   * @return the size of the object
+   */
+  static long object(int references, int primitives) {
+    return align(OBJECT_HEADER + (long) references * REFERENCE + primitives);
+  }
+
+  /**
+   * Gets the bytes taken by an array, including its header and padding.
+   *
+   * @param elementBytes the bytes taken by each element, which is 4 for references
+   * @param length       the length of the array
+   * @return the size of the array
+   */
+  static long array(int elementBytes, int length) {
+    return align(ARRAY_HEADER + (long) elementBytes * length);
+  }
+
+  /**
+   * Gets the bytes taken by a string and its characters, assuming one byte per character as the
+   * JVM stores strings that fit in Latin-1.
+   *
+   * @param s the string
+   * @return the size of the string
+   */
+  static long string(String s) {
+    return object(1, 6) + array(1, s.length());
+  }
+
+  /**
+   * Gets the bytes taken by a hash map entry, and by the boxed integer it maps to if that integer
+   * isn't one of the small values the JVM shares.
+   *
+   * @param value the integer the entry maps to
+   * @param links the number of extra links the entry keeps, such as 2 for a linked hash map
+   * @return the size of the entry
+   */
+  static long entry(int value, int links) {
+    return object(3 + links, 4) + (value >= -128 && value <= 127 ? 0 : object(0, 4));
+  }
+
+  /**
+   * Gets the bytes taken by the bucket table of a hash map holding the given number of entries at
+   * its default load factor.
+   *
+   * @param size the number of entries
+   * @return the size of the table
+   */
+  static long table(int size) {
+    int capacity = 16;
+    while (capacity * 3 / 4 < size) {
+      capacity *= 2;
+    }
+    return array(REFERENCE, capacity);
+  }
+
+  // rounds a size up to the 8 bytes every object is aligned to.
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
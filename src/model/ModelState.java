@@ -0,0 +1,370 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The state of a model: its shapes by id with the map from names to ids, their tracks, types and
+ * easings, the first and last tick of the animation and its canvas. This is the one place the state
+ * of a model is read, both by the model and by its snapshots, which are the state itself.
+ *
+ * <p>A model only changes the state it owns. Taking a snapshot hands the state out and gives up
+ * owning it, so the model copies the state before its next edit, and from then on the state handed
+ * out never changes. Copying the state copies its tables but not the tracks in them, which the
+ * model copies one at a time as it edits them.</p>
+ */
+final class ModelState implements IAnimatorModelView {
+
+  private static final KeyframeTrack EMPTY = new ListTrack();
+
+  final Map<String, Integer> ids;
+  final List<String> names;
+  final List<KeyframeTrack> animations;
+  final List<ShapeType> shapeTypes;
+  final List<SegmentEasings> easings;
+  final LongAdder keyframes;
+  final AtomicInteger firstTick;
+  final AtomicInteger lastTick;
+  private final Set<String> keys;
+  private volatile LifetimeIndex lifetimes;
+  int xBound;
+  int yBound;
+  int width;
+  int height;
+
+  /**
+   * Constructs the state of an empty model with the default canvas.
+   */
+  ModelState() {
+    this.ids = new LinkedHashMap<String, Integer>();
+    this.names = new ArrayList<String>();
+    this.animations = new ArrayList<KeyframeTrack>();
+    this.shapeTypes = new ArrayList<ShapeType>();
+    this.easings = new ArrayList<SegmentEasings>();
+    this.keyframes = new LongAdder();
+    this.firstTick = new AtomicInteger(Integer.MAX_VALUE);
+    this.lastTick = new AtomicInteger(Integer.MIN_VALUE);
+    this.keys = Collections.unmodifiableSet(this.ids.keySet());
+    this.lifetimes = null;
+    this.xBound = 0;
+    this.yBound = 0;
+    this.width = 500;
+    this.height = 500;
+  }
+
+  // Constructs a copy of the given state, sharing its tracks and its index of lifetimes.
+  private ModelState(ModelState source) {
+    this.ids = new LinkedHashMap<String, Integer>(source.ids);
+    this.names = new ArrayList<String>(source.names);
+    this.animations = new ArrayList<KeyframeTrack>(source.animations);
+    this.shapeTypes = new ArrayList<ShapeType>(source.shapeTypes);
+    this.easings = new ArrayList<SegmentEasings>(source.easings);
+    this.keyframes = new LongAdder();
+    this.keyframes.add(source.keyframes.sum());
+    this.firstTick = new AtomicInteger(source.firstTick.get());
+    this.lastTick = new AtomicInteger(source.lastTick.get());
+    this.keys = Collections.unmodifiableSet(this.ids.keySet());
+    this.lifetimes = source.lifetimes;
+    this.xBound = source.xBound;
+    this.yBound = source.yBound;
+    this.width = source.width;
+    this.height = source.height;
+  }
+
+  /**
+   * Copies the state so the copy can be changed without changing this state. The tracks are shared
+   * rather than copied.
+   *
+   * @return a copy of the state
+   */
+  ModelState copy() {
+    return new ModelState(this);
+  }
+
+  /**
+   * Drops the index of lifetimes after an edit changes when a shape is active, so it's built again
+   * the next time it's needed.
+   */
+  void forgetLifetimes() {
+    this.lifetimes = null;
+  }
+
+  @Override
+  public List<IMotion> getMotions(String key) throws IllegalArgumentException {
+    if (key == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(key);
+    if (id < 0) {
+      return new ArrayList<IMotion>();
+    }
+    return this.animations.get(id).copy();
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(String key) throws IllegalArgumentException {
+    if (key == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(key);
+    return id < 0 ? EMPTY : this.animations.get(id);
+  }
+
+  @Override
+  public ShapeType getShapeType(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    if (id >= 0) {
+      return this.shapeTypes.get(id);
+    }
+    throw new IllegalArgumentException("shape isn't in the map");
+  }
+
+  @Override
+  public Set<String> getKeys() {
+    return this.keys;
+  }
+
+  @Override
+  public int getLastMotionTick() {
+    return this.keyframes.sum() == 0 ? 0 : this.lastTick.get();
+  }
+
+  @Override
+  public int getFirstMotionTick() {
+    return this.keyframes.sum() == 0 ? 0 : this.firstTick.get();
+  }
+
+  @Override
+  public int getStartTick(String s) throws IllegalArgumentException {
+    return this.lifetime(s).getTick(0);
+  }
+
+  @Override
+  public int getEndTick(String s) throws IllegalArgumentException {
+    KeyframeTrack track = this.lifetime(s);
+    return track.getTick(track.size() - 1);
+  }
+
+  @Override
+  public void addListener(IModelListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    // state handed out as a snapshot never changes, so there's nothing to tell the listener.
+  }
+
+  @Override
+  public void removeListener(IModelListener listener) {
+    // no listener is ever kept.
+  }
+
+  @Override
+  public List<String> getActiveShapes(int tick) {
+    return this.getActiveShapes(tick, tick);
+  }
+
+  @Override
+  public List<String> getActiveShapes(int fromTick, int toTick) throws IllegalArgumentException {
+    int[] active = this.getActiveShapeIds(fromTick, toTick);
+    List<String> shapes = new ArrayList<String>(active.length);
+    for (int id : active) {
+      shapes.add(this.names.get(id));
+    }
+    return shapes;
+  }
+
+  @Override
+  public int getShapeCount() {
+    return this.names.size();
+  }
+
+  @Override
+  public int getShapeId(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    return this.id(s);
+  }
+
+  @Override
+  public String getShapeName(int id) throws IllegalArgumentException {
+    return this.names.get(this.checkId(id));
+  }
+
+  @Override
+  public ShapeType getShapeType(int id) throws IllegalArgumentException {
+    return this.shapeTypes.get(this.checkId(id));
+  }
+
+  @Override
+  public IKeyframeTrack getTrack(int id) throws IllegalArgumentException {
+    return this.animations.get(this.checkId(id));
+  }
+
+  @Override
+  public int getStartTick(int id) throws IllegalArgumentException {
+    return this.lifetime(id).getTick(0);
+  }
+
+  @Override
+  public int getEndTick(int id) throws IllegalArgumentException {
+    KeyframeTrack track = this.lifetime(id);
+    return track.getTick(track.size() - 1);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int tick) {
+    return this.getActiveShapeIds(tick, tick);
+  }
+
+  @Override
+  public int[] getActiveShapeIds(int fromTick, int toTick) throws IllegalArgumentException {
+    if (fromTick > toTick) {
+      throw new IllegalArgumentException("range ends before it starts");
+    }
+    return this.index().query(fromTick, toTick);
+  }
+
+  @Override
+  public int getActiveShapeIds(int tick, int[] ids) throws IllegalArgumentException {
+    if (ids == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    return this.index().query(tick, tick, ids);
+  }
+
+  @Override
+  public Easing getEasing(String shape, int tick) throws IllegalArgumentException {
+    if (shape == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(shape);
+    return id < 0 ? Easing.LINEAR : this.easings.get(id).get(tick);
+  }
+
+  @Override
+  public Easing getEasing(int id, int tick) throws IllegalArgumentException {
+    return this.easings.get(this.checkId(id)).get(tick);
+  }
+
+  @Override
+  public MemoryFootprint getFootprint() {
+    LifetimeIndex index = this.lifetimes;
+    int count = this.names.size();
+    long keyframeBytes = 0;
+    // the state's fields, the read-only wrapper of its keys, its map of ids and its four lists of
+    // shapes.
+    long shapeBytes = MemoryFootprint.object(10, 4 * Integer.BYTES) + MemoryFootprint.object(1, 0)
+            + MemoryFootprint.LINKED_HASH_MAP + MemoryFootprint.table(count)
+            + 4 * (MemoryFootprint.ARRAY_LIST + MemoryFootprint.array(4, count));
+    for (int id = 0; id < count; id++) {
+      keyframeBytes += this.animations.get(id).footprint();
+      shapeBytes += MemoryFootprint.string(this.names.get(id)) + MemoryFootprint.entry(id, 2)
+              + this.easings.get(id).footprint();
+    }
+    return new MemoryFootprint(keyframeBytes, shapeBytes, index == null ? 0 : index.footprint());
+  }
+
+  @Override
+  public MemoryFootprint getFootprint(String shape) throws IllegalArgumentException {
+    if (shape == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(shape);
+    if (id < 0) {
+      throw new IllegalArgumentException("shape isn't in the map");
+    }
+    KeyframeTrack track = this.animations.get(id);
+    return new MemoryFootprint(track.footprint(),
+            MemoryFootprint.string(shape) + MemoryFootprint.entry(id, 2)
+                    + this.easings.get(id).footprint(),
+            this.lifetimes == null || track.size() == 0 ? 0 : 4 * Integer.BYTES);
+  }
+
+  @Override
+  public int getXBound() {
+    return this.xBound;
+  }
+
+  @Override
+  public int getYBound() {
+    return this.yBound;
+  }
+
+  @Override
+  public int getWidth() {
+    return this.width;
+  }
+
+  @Override
+  public int getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Gets the id of the shape with the given name.
+   *
+   * @param s the name of the shape
+   * @return the id of the shape, or -1 if there's no such shape
+   */
+  int id(String s) {
+    Integer id = this.ids.get(s);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Checks that there's a shape with the given id.
+   *
+   * @param id the id of the shape
+   * @return the id
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  int checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.names.size()) {
+      throw new IllegalArgumentException("no shape with that id");
+    }
+    return id;
+  }
+
+  // Gets the index of when each shape is active, building it the first time it's needed.
+  private LifetimeIndex index() {
+    LifetimeIndex index = this.lifetimes;
+    if (index == null) {
+      index = LifetimeIndex.of(this.animations);
+      this.lifetimes = index;
+    }
+    return index;
+  }
+
+  // Gets the track of the given shape, throwing an IllegalArgumentException if s is null, isn't a
+  // shape in the model or has no keyframes to give it a lifetime.
+  private KeyframeTrack lifetime(String s) throws IllegalArgumentException {
+    if (s == null) {
+      throw new IllegalArgumentException("passed in a null!");
+    }
+    int id = this.id(s);
+    if (id < 0) {
+      throw new IllegalArgumentException("shape isn't in the map");
+    }
+    return this.lifetime(id);
+  }
+
+  // Gets the track of the shape with the given id, throwing an IllegalArgumentException if there's
+  // no such shape or it has no keyframes to give it a lifetime.
+  private KeyframeTrack lifetime(int id) throws IllegalArgumentException {
+    KeyframeTrack track = this.animations.get(this.checkId(id));
+    if (track.size() == 0) {
+      throw new IllegalArgumentException("shape has no motions");
+    }
+    return track;
+  }
+}
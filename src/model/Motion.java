@@ -1,7 +1,5 @@
 package model;
 
-import java.util.Objects;
-
 /**
  * A class to represent a motion, including the properties of the shape for when the motion
  * finishes.
@@ -141,9 +139,18 @@ public class Motion implements IMotion {
             this.blue == thatMotion.blue);
   }
 
+  // Gives the same value as Objects.hash over the eight fields, without boxing them into an array.
   @Override
   public int hashCode() {
-    return Objects.hash(this.tick, this.x, this.y, this.width, this.height,
-            this.red, this.green, this.blue);
+    int hash = 1;
+    hash = 31 * hash + this.tick;
+    hash = 31 * hash + this.x;
+    hash = 31 * hash + this.y;
+    hash = 31 * hash + this.width;
+    hash = 31 * hash + this.height;
+    hash = 31 * hash + this.red;
+    hash = 31 * hash + this.green;
+    hash = 31 * hash + this.blue;
+    return hash;
   }
 }
@@ -0,0 +1,96 @@
+package model;
+
+/**
+ * A cursor that walks a track by reading each keyframe by its position. This is the cursor of every
+ * track that can read any keyframe directly.
+ */
+final class PositionCursor implements IKeyframeCursor {
+
+  private final IKeyframeTrack track;
+  private int position;
+
+  /**
+   * Constructs a cursor that starts just before the given position of the track.
+   *
+   * @param track the track to walk
+   * @param from  the position of the first keyframe the cursor moves to
+   */
+  PositionCursor(IKeyframeTrack track, int from) {
+    this.track = track;
+    this.position = from - 1;
+  }
+
+  @Override
+  public boolean next() {
+    if (this.position < this.track.size()) {
+      this.position++;
+    }
+    return this.position < this.track.size();
+  }
+
+  @Override
+  public void seek(int position) {
+    if (position < 0 || position > this.track.size()) {
+      throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + this.track.size());
+    }
+    this.position = position - 1;
+  }
+
+  @Override
+  public int getPosition() {
+    return this.position;
+  }
+
+  @Override
+  public int getTick() {
+    return this.track.getTick(this.current());
+  }
+
+  @Override
+  public int getX() {
+    return this.track.getX(this.current());
+  }
+
+  @Override
+  public int getY() {
+    return this.track.getY(this.current());
+  }
+
+  @Override
+  public int getWidth() {
+    return this.track.getWidth(this.current());
+  }
+
+  @Override
+  public int getHeight() {
+    return this.track.getHeight(this.current());
+  }
+
+  @Override
+  public int getRed() {
+    return this.track.getRed(this.current());
+  }
+
+  @Override
+  public int getGreen() {
+    return this.track.getGreen(this.current());
+  }
+
+  @Override
+  public int getBlue() {
+    return this.track.getBlue(this.current());
+  }
+
+  @Override
+  public IMotion getMotion() {
+    return this.track.getMotion(this.current());
+  }
+
+  // gets the position of the current keyframe, throwing if the cursor isn't on one.
+  private int current() {
+    if (this.position < 0 || this.position >= this.track.size()) {
+      throw new IllegalStateException("cursor isn't on a keyframe");
+    }
+    return this.position;
+  }
+}
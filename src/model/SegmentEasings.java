@@ -0,0 +1,129 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The easings set on the motions of one shape, each kept under the tick of the keyframe its motion
+ * starts at. Motions without an easing are linear, and most shapes have none, so the easings are
+ * kept apart from the keyframes as a short tick-sorted array that's searched without boxing. The
+ * table is immutable: setting or dropping an easing gives a new table, so models and their
+ * snapshots can share one freely.
+ */
+final class SegmentEasings {
+
+  /**
+   * The table of a shape whose motions are all linear.
+   */
+  static final SegmentEasings NONE = new SegmentEasings(new int[0], new Easing[0]);
+
+  private final int[] ticks;
+  private final Easing[] easings;
+
+  // Constructs a table from sorted ticks and their easings.
+  private SegmentEasings(int[] ticks, Easing[] easings) {
+    this.ticks = ticks;
+    this.easings = easings;
+  }
+
+  /**
+   * Gets the easing of the motion that starts at the given tick.
+   *
+   * @param tick the tick of the keyframe the motion starts at
+   * @return the easing of the motion, or {@link Easing#LINEAR} if none is set
+   */
+  Easing get(int tick) {
+    if (this.ticks.length == 0) {
+      return Easing.LINEAR;
+    }
+    int i = Arrays.binarySearch(this.ticks, tick);
+    return i < 0 ? Easing.LINEAR : this.easings[i];
+  }
+
+  /**
+   * Gives a table with the easing of the motion that starts at the given tick replaced. Setting a
+   * linear easing drops the motion from the table.
+   *
+   * @param tick   the tick of the keyframe the motion starts at
+   * @param easing the easing of the motion
+   * @return the new table
+   */
+  SegmentEasings with(int tick, Easing easing) {
+    int i = Arrays.binarySearch(this.ticks, tick);
+    if (easing.isLinear()) {
+      return i < 0 ? this : this.without(i);
+    }
+    if (i >= 0) {
+      Easing[] easings = this.easings.clone();
+      easings[i] = easing;
+      return new SegmentEasings(this.ticks, easings);
+    }
+    i = -(i + 1);
+    int[] ticks = new int[this.ticks.length + 1];
+    Easing[] easings = new Easing[ticks.length];
+    System.arraycopy(this.ticks, 0, ticks, 0, i);
+    System.arraycopy(this.easings, 0, easings, 0, i);
+    ticks[i] = tick;
+    easings[i] = easing;
+    System.arraycopy(this.ticks, i, ticks, i + 1, this.ticks.length - i);
+    System.arraycopy(this.easings, i, easings, i + 1, this.ticks.length - i);
+    return new SegmentEasings(ticks, easings);
+  }
+
+  // gives a table without the i-th easing.
+  private SegmentEasings without(int i) {
+    if (this.ticks.length == 1) {
+      return NONE;
+    }
+    int[] ticks = new int[this.ticks.length - 1];
+    Easing[] easings = new Easing[ticks.length];
+    System.arraycopy(this.ticks, 0, ticks, 0, i);
+    System.arraycopy(this.easings, 0, easings, 0, i);
+    System.arraycopy(this.ticks, i + 1, ticks, i, ticks.length - i);
+    System.arraycopy(this.easings, i + 1, easings, i, ticks.length - i);
+    return new SegmentEasings(ticks, easings);
+  }
+
+  /**
+   * Gets the number of motions with an easing.
+   *
+   * @return the number of easings in the table
+   */
+  int size() {
+    return this.ticks.length;
+  }
+
+  /**
+   * Gets the tick of the i-th motion with an easing, in increasing order.
+   *
+   * @param i the position of the easing in the table
+   * @return the tick the motion starts at
+   */
+  int getTick(int i) {
+    return this.ticks[i];
+  }
+
+  /**
+   * Gets the i-th easing, in increasing order of tick.
+   *
+   * @param i the position of the easing in the table
+   * @return the easing
+   */
+  Easing getEasing(int i) {
+    return this.easings[i];
+  }
+
+  /**
+   * Estimates the heap memory taken by the table, not counting the empty table shared by every
+   * shape without easings.
+   *
+   * @return the estimated size of the table in bytes
+   */
+  long footprint() {
+    if (this == NONE) {
+      return 0;
+    }
+    return MemoryFootprint.object(2, 0) + MemoryFootprint.array(4, this.ticks.length)
+            + MemoryFootprint.array(4, this.easings.length)
+            + this.easings.length * MemoryFootprint.object(0, 4 * Double.BYTES);
+  }
+}
@@ -6,6 +6,26 @@ package model;
 public enum ShapeType {
   RECTANGLE, CIRCLE, ELLIPSE;
 
+  /**
+   * Gets the shape type with the given name, ignoring case.
+   *
+   * @param type the name of the shape type, such as "rectangle"
+   * @return the shape type with that name
+   * @throws IllegalArgumentException if there's no shape type with that name
+   */
+  static ShapeType parse(String type) throws IllegalArgumentException {
+    switch (type.toLowerCase()) {
+      case "rectangle":
+        return RECTANGLE;
+      case "ellipse":
+        return ELLIPSE;
+      case "circle":
+        return CIRCLE;
+      default:
+        throw new IllegalArgumentException("Unsupported shape type!");
+    }
+  }
+
   @Override
   public String toString() {
     switch (this) {
@@ -79,4 +79,41 @@ public interface AnimationBuilder<Doc> {
    */
   AnimationBuilder<Doc> addKeyframe(String name,
                                     int t, int x, int y, int w, int h, int r, int g, int b);
+
+  /**
+   * Sets the easing of a shape's motion from its keyframe at the given time to its next keyframe.
+   * Motions are linear unless an easing is set.
+   *
+   * @param name   The name of the shape (added with {@link AnimationBuilder#declareShape})
+   * @param t      The time of the keyframe the motion starts at
+   * @param easing The name of the easing: "linear", "ease-in", "ease-out", "ease-in-out", or a
+   *               curve written as "cubic-bezier(x1,y1,x2,y2)" with the two control points of a
+   *               cubic Bezier curve from (0, 0) to (1, 1)
+   * @return This {@link AnimationBuilder}
+   */
+  AnimationBuilder<Doc> setEasing(String name, int t, String easing);
+
+  /**
+   * Adds a batch of keyframes for one shape to the growing document. The keyframes are packed into
+   * a single array, eight numbers to a keyframe in the same order {@link #addKeyframe} takes them:
+   * time, x, y, width, height, red, green and blue. They need not be sorted by time. Builders may
+   * hold on to a batch and only sort and validate it when the document is built, so an invalid or
+   * overlapping keyframe in a batch may not be reported until {@link #build}. The builder copies
+   * what it needs, so the caller may reuse the array.
+   *
+   * @param name      The name of the shape (added with {@link AnimationBuilder#declareShape})
+   * @param keyframes The keyframes, eight numbers each
+   * @param count     The number of keyframes in the array
+   * @return This {@link AnimationBuilder}
+   */
+  default AnimationBuilder<Doc> addKeyframes(String name, int[] keyframes, int count) {
+    if (keyframes == null || count < 0 || count > keyframes.length / 8) {
+      throw new IllegalArgumentException("not a batch of keyframes");
+    }
+    for (int i = 0; i < count * 8; i += 8) {
+      this.addKeyframe(name, keyframes[i], keyframes[i + 1], keyframes[i + 2], keyframes[i + 3],
+              keyframes[i + 4], keyframes[i + 5], keyframes[i + 6], keyframes[i + 7]);
+    }
+    return this;
+  }
 }
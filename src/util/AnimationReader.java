@@ -1,5 +1,8 @@
 package util;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -23,9 +26,20 @@ public class AnimationReader {
    * eight numbers giving the time, the x and y coordinates, the width and height,
    * and the red, green and blue color values at the start of the motion; followed by 
    * eight numbers for the end of the motion.  See {@link AnimationBuilder#addMotion}</li>
+   * <li>Ease lines: the keyword "ease" followed by an identifier giving the name of a shape, an
+   * integer giving the time of one of its keyframes, and the easing of the motion from that
+   * keyframe to the next, such as "ease-in" or "cubic-bezier(0.25,0.1,0.25,1)", with no spaces.
+   * See {@link AnimationBuilder#setEasing}</li>
    * </ul>
    * </p>
    *
+   * <p>
+   * Motions are handed to the builder in batches, one per shape, through
+   * {@link AnimationBuilder#addKeyframes}. A shape's batch is handed over before the shape is
+   * declared again and at the end of the input, so the builder sees each keyframe in the same
+   * place relative to the shape lines as it appears in the input.
+   * </p>
+   *
    * @param readable The source of data for the animation
    * @param builder  A builder for helping to construct a new animation
    * @param <Doc>    The main model interface type describing animations
@@ -37,6 +51,7 @@ public class AnimationReader {
     Scanner s = new Scanner(readable);
     // Split at whitespace, and ignore # comment lines
     s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+")); 
+    Map<String, Keyframes> batches = new LinkedHashMap<String, Keyframes>();
     while (s.hasNext()) {
       String word = s.next();
       switch (word) {
@@ -44,15 +59,21 @@ public class AnimationReader {
           readCanvas(s, builder);
           break;
         case "shape":
-          readShape(s, builder);
+          readShape(s, builder, batches);
           break;
         case "motion":
-          readMotion(s, builder);
+          readMotion(s, batches);
+          break;
+        case "ease":
+          readEasing(s, builder);
           break;
         default:
           throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
       }
     }
+    for (Map.Entry<String, Keyframes> batch : batches.entrySet()) {
+      batch.getValue().flush(batch.getKey(), builder);
+    }
     return builder.build();
   }
 
@@ -65,7 +86,8 @@ public class AnimationReader {
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder) {
+  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder,
+                                      Map<String, Keyframes> batches) {
     String name;
     String type;
     if (s.hasNext()) {
@@ -78,10 +100,14 @@ public class AnimationReader {
     } else {
       throw new IllegalStateException("Shape: Expected a type, but no more input available");
     }
+    Keyframes batch = batches.remove(name);
+    if (batch != null) {
+      batch.flush(name, builder);
+    }
     builder.declareShape(name, type);
   }
 
-  private static <Doc> void readMotion(Scanner s, AnimationBuilder<Doc> builder) {
+  private static void readMotion(Scanner s, Map<String, Keyframes> batches) {
     String[] fieldNames = new String[]{
       "initial time",
       "initial x-coordinate", "initial y-coordinate",
@@ -102,11 +128,26 @@ public class AnimationReader {
     for (int i = 0; i < 16; i++) {
       vals[i] = getInt(s, "Motion", fieldNames[i]);
     }
-    builder.addMotion(name,
-            vals[0], vals[1], vals[2 ], vals[3 ], vals[4 ], vals[5 ], vals[6 ], vals[7 ],
-            vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
+    batches.computeIfAbsent(name, k -> new Keyframes()).add(vals);
   }
   
+  private static <Doc> void readEasing(Scanner s, AnimationBuilder<Doc> builder) {
+    String name;
+    String easing;
+    if (s.hasNext()) {
+      name = s.next();
+    } else {
+      throw new IllegalStateException("Ease: Expected a shape name, but no more input available");
+    }
+    int time = getInt(s, "Ease", "time");
+    if (s.hasNext()) {
+      easing = s.next();
+    } else {
+      throw new IllegalStateException("Ease: Expected an easing, but no more input available");
+    }
+    builder.setEasing(name, time, easing);
+  }
+
   private static int getInt(Scanner s, String label, String fieldName) {
     if (s.hasNextInt()) {
       return s.nextInt();
@@ -120,4 +161,26 @@ public class AnimationReader {
     }
   }
 
+  /**
+   * The keyframes read for one shape that haven't been handed to the builder yet, packed eight
+   * numbers to a keyframe.
+   */
+  private static final class Keyframes {
+    private int[] values = new int[16 * 8];
+    private int count = 0;
+
+    // adds both ends of a motion.
+    private void add(int[] motion) {
+      if (this.values.length < (this.count + 2) * 8) {
+        this.values = Arrays.copyOf(this.values, this.values.length * 2);
+      }
+      System.arraycopy(motion, 0, this.values, this.count * 8, 16);
+      this.count += 2;
+    }
+
+    // hands the keyframes to the builder.
+    private <Doc> void flush(String name, AnimationBuilder<Doc> builder) {
+      builder.addKeyframes(name, this.values, this.count);
+    }
+  }
 }
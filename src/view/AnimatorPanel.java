@@ -3,16 +3,14 @@ package view;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import javax.swing.JPanel;
 
 import model.IAnimatorModelView;
-import model.IMotion;
-import model.Motion;
 
 /**
  * A class to extend JPanel in order to draw the Shapes and Motions at the tick specified so the
@@ -20,7 +18,12 @@ import model.Motion;
  */
 public class AnimatorPanel extends JPanel {
   private final IAnimatorModelView model;
-  private Map<String, IMotion> currentFrames;
+  private final FrameBuffer frame;
+  private final FrameBuffer next;
+  private Color[] colors;
+  private final ShapeGrid grid;
+  private final FrameEvaluator evaluator;
+  private final FrameCache cache;
   private int tick;
 
   /**
@@ -32,6 +35,31 @@ public class AnimatorPanel extends JPanel {
    * @throws IllegalArgumentException if model is null or tps is not positive
    */
   public AnimatorPanel(IAnimatorModelView model, int tick) {
+    this(model, tick, 0);
+  }
+
+  /**
+   * A constructor for AnimatorPanel that also keeps the frames it draws in a cache, so that playing
+   * the same ticks again, as a looping or scrubbed animation does, doesn't evaluate them again.
+   *
+   * @param model      the AnimatorModel for the AnimatorPanel to draw
+   * @param tick       the tick that the panel is using to draw the frames from the model
+   * @param cacheBytes the memory budget of the frame cache in bytes, or 0 for no cache
+   * @throws IllegalArgumentException if model is null, tick is negative or cacheBytes is negative
+   */
+  public AnimatorPanel(IAnimatorModelView model, int tick, long cacheBytes) {
+    this(model, tick, cache(model, tick, cacheBytes));
+  }
+
+  /**
+   * A constructor for AnimatorPanel that keeps the frames it draws in the given cache.
+   *
+   * @param model the AnimatorModel for the AnimatorPanel to draw
+   * @param tick  the tick that the panel is using to draw the frames from the model
+   * @param cache the cache of the model's frames, or null for no cache
+   * @throws IllegalArgumentException if model is null or tick is negative
+   */
+  AnimatorPanel(IAnimatorModelView model, int tick, FrameCache cache) {
     super();
     if (model == null) {
       throw new IllegalArgumentException("model is a null");
@@ -40,36 +68,52 @@ public class AnimatorPanel extends JPanel {
       throw new IllegalArgumentException("Tick is negative!");
     }
     this.model = model;
-    this.currentFrames = new LinkedHashMap<String, IMotion>();
+    this.frame = new FrameBuffer();
+    this.next = new FrameBuffer();
+    this.colors = new Color[16];
+    this.grid = new ShapeGrid(64);
+    this.evaluator = new FrameEvaluator(model);
+    this.cache = cache;
     this.setBackground(Color.WHITE);
     this.interpolateByTick();
     this.tick = tick;
   }
 
+  // Checks the arguments of the public constructor and creates the cache it asks for, if any.
+  private static FrameCache cache(IAnimatorModelView model, int tick, long cacheBytes) {
+    if (model == null) {
+      throw new IllegalArgumentException("model is a null");
+    }
+    if (tick < 0) {
+      throw new IllegalArgumentException("Tick is negative!");
+    }
+    if (cacheBytes < 0) {
+      throw new IllegalArgumentException("Cache budget is negative!");
+    }
+    return cacheBytes == 0 ? null : new FrameCache(model, cacheBytes);
+  }
+
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
 
     Graphics2D g2d = (Graphics2D) g;
 
-    Set<String> names = this.currentFrames.keySet();
-    for (String s : names) {
-      IMotion frame = this.currentFrames.get(s);
-      switch (model.getShapeType(s)) {
+    for (int i = 0; i < this.frame.size(); i++) {
+      int x = this.frame.getX(i) - model.getXBound();
+      int y = this.frame.getY(i) - model.getYBound();
+      switch (this.frame.getType(i)) {
         case RECTANGLE:
-          g2d.setColor(new Color(frame.getRed(), frame.getGreen(), frame.getBlue()));
-          g2d.fillRect(frame.getX() - model.getXBound(),
-                  frame.getY() - model.getYBound(), frame.getWidth(), frame.getHeight());
+          g2d.setColor(this.color(i));
+          g2d.fillRect(x, y, this.frame.getWidth(i), this.frame.getHeight(i));
           break;
         case ELLIPSE:
-          g2d.setColor(new Color(frame.getRed(), frame.getGreen(), frame.getBlue()));
-          g2d.fillOval(frame.getX() - model.getXBound(),
-                  frame.getY() - model.getYBound(), frame.getWidth(), frame.getHeight());
+          g2d.setColor(this.color(i));
+          g2d.fillOval(x, y, this.frame.getWidth(i), this.frame.getHeight(i));
           break;
         case CIRCLE:
-          g2d.setColor(new Color(frame.getRed(), frame.getGreen(), frame.getBlue()));
-          g2d.fillOval(frame.getX() - model.getXBound(),
-                  frame.getY() - model.getYBound(), frame.getWidth(), frame.getWidth());
+          g2d.setColor(this.color(i));
+          g2d.fillOval(x, y, this.frame.getWidth(i), this.frame.getWidth(i));
           break;
         default:
           break;
@@ -77,75 +121,50 @@ public class AnimatorPanel extends JPanel {
     }
   }
 
-  // Populates currentFrames with the correct motions based on the tick the view is on.
+  // Gets the color of the i-th shape of the frame, reusing the color the shape was last drawn in
+  // if it hasn't changed, so that drawing a frame doesn't create a color per shape.
+  private Color color(int i) {
+    int id = this.frame.getId(i);
+    if (id >= this.colors.length) {
+      this.colors = Arrays.copyOf(this.colors, Math.max(id + 1, this.colors.length * 2));
+    }
+    Color color = this.colors[id];
+    if (color == null || color.getRGB() != this.frame.getColor(i)) {
+      color = new Color(this.frame.getColor(i));
+      this.colors[id] = color;
+    }
+    return color;
+  }
+
+  // Fills the frame buffer with each shape on screen at the tick the view is on, from the cache if
+  // the frame was baked before, and moves the shapes in the grid to where they are drawn.
   private void interpolateByTick() {
-    currentFrames.clear();
-    for (String key : model.getKeys()) {
-      List<IMotion> motions = model.getMotions(key);
-      if (motions.size() > 1) {
-        for (int j = 1; j < motions.size(); j++) {
-          IMotion thisFrame = motions.get(j);
-          IMotion lastFrame = motions.get(j - 1);
-          if (thisFrame.getTick() == tick) {
-            currentFrames.put(key, thisFrame);
-            break;
-          } else if (lastFrame.getTick() == tick) {
-            currentFrames.put(key, lastFrame);
-            break;
-          } else if (thisFrame.getTick() > tick && lastFrame.getTick() < tick) {
-            IMotion frame = change(thisFrame, lastFrame);
-            currentFrames.put(key, frame);
-            break;
-          }
-        }
-      } else if (motions.size() == 1) {
-        if (motions.get(0).getTick() == tick) {
-          currentFrames.put(key, motions.get(0));
-        }
-      }
+    if (cache == null) {
+      evaluator.evaluate(tick, frame);
+    } else {
+      bake(tick, frame);
     }
+    fillGrid();
   }
 
-  // interpolates the last motion based on the next motion and the current tick.
-  private IMotion change(IMotion motion, IMotion lastMotion) {
-    int x = lastMotion.getX();
-    int y = lastMotion.getY();
-    int w = lastMotion.getWidth();
-    int h = lastMotion.getHeight();
-    int r = lastMotion.getRed();
-    int g = lastMotion.getGreen();
-    int b = lastMotion.getBlue();
-    if (motion.move(lastMotion)) {
-      x = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getX(), motion.getX());
-      y = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getY(), motion.getY());
-    }
-    if (motion.changeSize(lastMotion)) {
-      w = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getWidth(), motion.getWidth());
-      h = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getHeight(), motion.getHeight());
-    }
-    if (motion.changeColor(lastMotion)) {
-      r = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getRed(), motion.getRed());
-      g = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getGreen(), motion.getGreen());
-      b = (int) this.interpolate(lastMotion.getTick(), motion.getTick(),
-              lastMotion.getBlue(), motion.getBlue());
-    }
-    return new Motion(this.tick, x, y, w, h, r, g, b);
+  // Fills the given buffer with the frame at the tick from the cache, evaluating and caching it if
+  // it wasn't baked before.
+  private void bake(int tick, FrameBuffer into) {
+    if (!cache.get(tick, into)) {
+      int edits = cache.getEdits();
+      evaluator.evaluate(tick, into);
+      cache.put(tick, into, edits);
+    }
   }
 
-  // the method containing the interpolation formula, briefly
-  // casting the int variables to doubles.
-  private double interpolate(int tai, int tbi, int ai, int bi) {
-    double ta = tai;
-    double tb = tbi;
-    double a = ai;
-    double b = bi;
-    return (a * ((tb - this.tick) / (tb - ta))) + (b * ((this.tick - ta) / (tb - ta)));
+  // Moves the shapes in the grid to where they are drawn in the frame buffer.
+  private void fillGrid() {
+    grid.begin();
+    for (int i = 0; i < frame.size(); i++) {
+      grid.put(frame.getId(i), frame.getType(i), frame.getX(i), frame.getY(i),
+              frame.getWidth(i), frame.getHeight(i));
+    }
+    grid.end();
   }
 
   /**
@@ -161,4 +180,79 @@ public class AnimatorPanel extends JPanel {
     this.tick = tick;
     interpolateByTick();
   }
+
+  /**
+   * Sets the panel to the given time, which may fall between two ticks, and repopulates the frame
+   * with the shapes blended at that time. A whole time draws the same frame as {@link #setFrames}.
+   * Frames between two ticks are never cached themselves; with a cache, they're blended from the
+   * cached frames of the ticks on either side, so a loop played at any frame rate evaluates each
+   * tick once. Blending whole ticks follows an eased motion in a straight line from one tick to the
+   * next, which is at most a pixel or so off the curve the motion eases along.
+   *
+   * @param time the time the panel is being changed to, in ticks
+   * @throws IllegalArgumentException if time is negative, infinite or not a number
+   */
+  public void setTime(double time) {
+    if (!(time >= 0) || Double.isInfinite(time)) {
+      throw new IllegalArgumentException("time negative or not finite");
+    }
+    if (time == Math.floor(time) && time <= Integer.MAX_VALUE) {
+      setFrames((int) time);
+      return;
+    }
+    this.tick = (int) Math.min(Math.floor(time), Integer.MAX_VALUE);
+    if (cache == null || tick == Integer.MAX_VALUE) {
+      evaluator.evaluate(time, frame);
+    } else {
+      bake(tick, frame);
+      bake(tick + 1, next);
+      frame.blendToward(next, time - tick);
+    }
+    fillGrid();
+  }
+
+  /**
+   * Stops the panel listening to its model, for when the panel is thrown away while the model lives
+   * on. The panel shouldn't be drawn again afterwards.
+   */
+  public void close() {
+    evaluator.close();
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  /**
+   * Gets the name of the shape drawn on top at the given point of the panel in the current frame.
+   *
+   * @param x the x position of the point on the panel
+   * @param y the y position of the point on the panel
+   * @return the name of the topmost shape at that point, or null if no shape is drawn there
+   */
+  public String getShapeAt(int x, int y) {
+    int id = grid.shapeAt(x + model.getXBound(), y + model.getYBound());
+    return id < 0 ? null : model.getShapeName(id);
+  }
+
+  /**
+   * Gets the names of the shapes drawn over any part of the given region of the panel in the
+   * current frame.
+   *
+   * @param x      the x position of the region on the panel
+   * @param y      the y position of the region on the panel
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @return the names of the shapes drawn in the region, from bottom to top
+   */
+  public List<String> getShapesIn(int x, int y, int width, int height) {
+    int[] ids = grid.shapesIn(x + model.getXBound(), y + model.getYBound(), width, height);
+    if (ids.length == 0) {
+      return Collections.emptyList();
+    }
+    List<String> shapes = new ArrayList<String>(ids.length);
+    for (int id : ids) {
+      shapes.add(model.getShapeName(id));
+    }
+    return shapes;
+  }
 }
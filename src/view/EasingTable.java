@@ -0,0 +1,72 @@
+package view;
+
+import model.Easing;
+
+/**
+ * An easing sampled at evenly spaced points of a motion, so that easing a shape every frame costs a
+ * lookup and a blend between two samples instead of solving the easing's curve. The samples are
+ * taken once when the table is made, and between them the curve is followed in straight lines,
+ * which stays within a hundred-thousandth or so of the curve for the named easings. A curve so
+ * steep somewhere that the straight lines stray further than {@link #TOLERANCE} from it is solved
+ * exactly every time instead.
+ */
+final class EasingTable {
+
+  /**
+   * The number of steps the motion is split into, with a sample at either end of each.
+   */
+  static final int STEPS = 256;
+
+  /**
+   * How far from the curve the straight lines between samples may stray, as a fraction of the
+   * motion, before the curve is solved exactly instead.
+   */
+  static final double TOLERANCE = 1e-4;
+
+  private final double[] samples;
+  private final Easing exact;
+
+  /**
+   * Constructs the table of the given easing.
+   *
+   * @param easing the easing to sample
+   * @throws IllegalArgumentException if easing is null
+   */
+  EasingTable(Easing easing) throws IllegalArgumentException {
+    if (easing == null) {
+      throw new IllegalArgumentException("easing is a null");
+    }
+    this.samples = new double[STEPS + 1];
+    for (int i = 0; i <= STEPS; i++) {
+      this.samples[i] = easing.ease(i / (double) STEPS);
+    }
+    boolean close = true;
+    for (int i = 0; i < STEPS && close; i++) {
+      double middle = (this.samples[i] + this.samples[i + 1]) / 2;
+      close = Math.abs(easing.ease((i + 0.5) / STEPS) - middle) <= TOLERANCE;
+    }
+    this.exact = close ? null : easing;
+  }
+
+  /**
+   * Works out how far through a motion a shape is when the given fraction of the motion's time has
+   * passed.
+   *
+   * @param progress the fraction of the motion's time that has passed, clamped to [0, 1]
+   * @return the fraction of the way from the first keyframe to the second the shape is at
+   */
+  double ease(double progress) {
+    if (this.exact != null) {
+      return this.exact.ease(progress);
+    }
+    if (!(progress > 0)) {
+      return this.samples[0];
+    }
+    double at = progress * STEPS;
+    int i = (int) at;
+    if (i >= STEPS) {
+      return this.samples[STEPS];
+    }
+    return this.samples[i] + (this.samples[i + 1] - this.samples[i]) * (at - i);
+  }
+}
@@ -5,6 +5,8 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 import javax.swing.JFrame;
 import javax.swing.Timer;
@@ -18,22 +20,26 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
 import model.IAnimatorModelView;
+import model.IModelListener;
 
 /**
  * A class to represent a visual view form of the animator model. Add functionality to start, stop,
  * and restart the animation. It also allows the user to type in commands that edit the existing
  * animation. These editing abilities include adding and removing shapes and motions and changing an
  * existing motion.
+ *
+ * <p>The animation is drawn at the refresh rate of the display, blending shapes between ticks, and
+ * the ticks per second only set how fast the animation's time moves.</p>
  */
 public class EditView extends JFrame implements IView {
 
   private AnimatorPanel panel;
   private final IAnimatorModelView model;
-  private int tick;
-  private int ticksPerSecond;
-  private Timer time;
+  private final IModelListener listener;
+  private PlaybackTimer time;
   private boolean loop;
   private boolean started;
+  private boolean playing;
   private JButton pause;
   private JButton start;
   private JButton resume;
@@ -54,6 +60,22 @@ public class EditView extends JFrame implements IView {
    * @throws IllegalArgumentException if the model is a null or the speed is not positive
    */
   public EditView(IAnimatorModelView model, int ticksPerSecond) throws IllegalArgumentException {
+    this(model, ticksPerSecond, 0);
+  }
+
+  /**
+   * Constructs an edit view that keeps the frames it plays in a cache of the given size, so that a
+   * looping or restarted animation draws frames it has already played without evaluating them
+   * again.
+   *
+   * @param model          the instance of the model it takes in and is able to modify
+   * @param ticksPerSecond the speed at which the animation moves
+   * @param cacheBytes     the memory budget of the frame cache in bytes, or 0 for no cache
+   * @throws IllegalArgumentException if the model is a null, the speed is not positive or the
+   *                                  budget is negative
+   */
+  public EditView(IAnimatorModelView model, int ticksPerSecond, long cacheBytes)
+          throws IllegalArgumentException {
     super();
     if (model == null) {
       throw new IllegalArgumentException("model is a null!");
@@ -61,19 +83,21 @@ public class EditView extends JFrame implements IView {
     if (ticksPerSecond <= 0) {
       throw new IllegalArgumentException("rate must be positive");
     }
+    if (cacheBytes < 0) {
+      throw new IllegalArgumentException("cache budget is negative");
+    }
 
     this.model = model;
-    this.ticksPerSecond = ticksPerSecond;
     this.loop = false;
     this.started = false;
-    this.tick = 0;
+    this.playing = false;
 
     this.setLayout(new BorderLayout());
     this.setTitle("Animation");
     this.setSize(model.getWidth(), model.getHeight());
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-    panel = new AnimatorPanel(model, tick);
+    panel = new AnimatorPanel(model, 0, cacheBytes);
     panel.setPreferredSize(new Dimension(model.getWidth(), model.getHeight()));
 
     JScrollPane scrollBars = new JScrollPane(panel);
@@ -126,15 +150,73 @@ public class EditView extends JFrame implements IView {
     buttonPanel.add(increaseSpeed);
     buttonPanel.add(decreaseSpeed);
 
+    panel.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        selectShape(e.getX(), e.getY());
+      }
+    });
+
     slider.addChangeListener(new ChangeListener() {
       @Override
       public void stateChanged(ChangeEvent e) {
-        setTick(slider.getValue());
+        if (!playing) {
+          setTick(slider.getValue());
+        }
       }
     });
 
+    this.listener = new IModelListener() {
+      @Override
+      public void shapeAdded(String shape) {
+        modelChanged(0, Integer.MAX_VALUE);
+      }
+
+      @Override
+      public void shapeRemoved(String shape) {
+        modelChanged(0, Integer.MAX_VALUE);
+      }
+
+      @Override
+      public void keyframeAdded(String shape, int fromTick, int toTick) {
+        modelChanged(fromTick, toTick);
+      }
+
+      @Override
+      public void keyframeRemoved(String shape, int fromTick, int toTick) {
+        modelChanged(fromTick, toTick);
+      }
+
+      @Override
+      public void keyframesChanged(String shape, int fromTick, int toTick) {
+        modelChanged(fromTick, toTick);
+      }
+    };
+    model.addListener(this.listener);
+
     pack();
-    initializeTimer();
+    initializeTimer(ticksPerSecond);
+  }
+
+  // Stretches the slider to the new end of the animation after an edit, and redraws the current
+  // frame if the edit changed it, including the ticks on either side of a time between two ticks.
+  private void modelChanged(int fromTick, int toTick) {
+    slider.setMaximum(model.getLastMotionTick());
+    double now = time.getTime();
+    if (now <= toTick && Math.ceil(now) >= fromTick) {
+      panel.setTime(now);
+      panel.repaint();
+    }
+  }
+
+  // Types the name of the shape clicked on into the command box where the cursor is, so a shape can
+  // be picked for a command by clicking it instead of typing its name.
+  private void selectShape(int x, int y) {
+    String shape = panel.getShapeAt(x, y);
+    if (shape != null) {
+      input.replaceSelection(shape);
+      input.requestFocusInWindow();
+    }
   }
 
   @Override
@@ -142,23 +224,39 @@ public class EditView extends JFrame implements IView {
     this.setVisible(true);
   }
 
-  // Initializes the time field to a Timer object that, at every tick, tells the panel what to draw,
-  // draws it, and then increases the tick by one. Also allows for looping the animation.
-  private void initializeTimer() {
+  /**
+   * Stops the animation and stops listening to the model before releasing the window, so that a
+   * view thrown away while its model lives on can be collected.
+   */
+  @Override
+  public void dispose() {
+    time.stop();
+    model.removeListener(listener);
+    panel.close();
+    super.dispose();
+  }
+
+  // Initializes the time field to a timer that, at every refresh of the display, tells the panel to
+  // draw the animation at the time the timer has moved to, and moves the slider along. Also allows
+  // for looping the animation, wrapping the time back past the start once it plays past the end.
+  private void initializeTimer(int ticksPerSecond) {
     ActionListener animate = new ActionListener() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        panel.setFrames(tick);
-        panel.repaint();
-        tick++;
-        slider.setValue(tick);
-        if ((model.getLastMotionTick() + 1 <= tick) && loop) {
-          time.restart();
-          tick = 0;
+        double now = time.getTime();
+        int end = model.getLastMotionTick() + 1;
+        if (loop && end > 0 && now >= end) {
+          now %= end;
+          time.setTime(now);
         }
+        panel.setTime(now);
+        panel.repaint();
+        playing = true;
+        slider.setValue((int) now);
+        playing = false;
       }
     };
-    this.time = new Timer(1000 / ticksPerSecond, animate);
+    this.time = new PlaybackTimer(ticksPerSecond, animate);
   }
 
   @Override
@@ -188,7 +286,7 @@ public class EditView extends JFrame implements IView {
 
   @Override
   public int getTicksPerSecond() {
-    return this.ticksPerSecond;
+    return this.time.getTicksPerSecond();
   }
 
   @Override
@@ -196,8 +294,7 @@ public class EditView extends JFrame implements IView {
     if (tps <= 0) {
       throw new IllegalArgumentException("Ticks per second is not positive!");
     }
-    this.ticksPerSecond = tps;
-    this.time.setDelay(1000 / tps);
+    this.time.setTicksPerSecond(tps);
   }
 
   @Override
@@ -205,7 +302,7 @@ public class EditView extends JFrame implements IView {
     if (tick < 0) {
       throw new IllegalArgumentException("Tick is negative!");
     }
-    this.tick = tick;
+    this.time.setTime(tick);
   }
 
   @Override
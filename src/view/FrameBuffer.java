@@ -0,0 +1,308 @@
+package view;
+
+import java.util.Arrays;
+
+import model.ShapeType;
+
+/**
+ * The shapes drawn in one frame of an animation, kept as parallel arrays of primitives rather than
+ * as a motion per shape. A view fills the same buffer every frame, so once the arrays are large
+ * enough for the busiest frame, playing the animation creates no objects at all. Shapes are kept
+ * in the order they are drawn.
+ */
+final class FrameBuffer {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int size;
+  private int[] ids;
+  private ShapeType[] types;
+  private int[] xs;
+  private int[] ys;
+  private int[] widths;
+  private int[] heights;
+  private int[] colors;
+
+  /**
+   * Constructs an empty buffer.
+   */
+  FrameBuffer() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty buffer with room for the given number of shapes.
+   *
+   * @param capacity the number of shapes the buffer holds before growing
+   * @throws IllegalArgumentException if capacity is negative
+   */
+  FrameBuffer(int capacity) throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity is negative");
+    }
+    this.size = 0;
+    this.ids = new int[capacity];
+    this.types = new ShapeType[capacity];
+    this.xs = new int[capacity];
+    this.ys = new int[capacity];
+    this.widths = new int[capacity];
+    this.heights = new int[capacity];
+    this.colors = new int[capacity];
+  }
+
+  /**
+   * Empties the buffer for a new frame, keeping its arrays.
+   */
+  void clear() {
+    this.size = 0;
+  }
+
+  /**
+   * Adds a shape to the frame, on top of the shapes already in it.
+   *
+   * @param id     the id of the shape
+   * @param type   the type of the shape
+   * @param x      the x position of the shape
+   * @param y      the y position of the shape
+   * @param width  the width of the shape
+   * @param height the height of the shape
+   * @param red    the red value of the shape's color
+   * @param green  the green value of the shape's color
+   * @param blue   the blue value of the shape's color
+   */
+  void add(int id, ShapeType type, int x, int y, int width, int height, int red, int green,
+           int blue) {
+    if (this.size == this.ids.length) {
+      this.grow();
+    }
+    this.set(this.size, id, type, x, y, width, height, red, green, blue);
+    this.size++;
+  }
+
+  /**
+   * Sets the number of shapes in the frame, growing the buffer if needed, so that the shapes can be
+   * filled in with {@link #set} in any order. This lets several threads fill different slots of the
+   * same frame at once without locking.
+   *
+   * @param size the number of shapes in the frame
+   */
+  void resize(int size) {
+    while (size > this.ids.length) {
+      this.grow();
+    }
+    this.size = size;
+  }
+
+  /**
+   * Sets the shape in the given slot of the frame, or leaves the slot empty if type is null. Empty
+   * slots are dropped by {@link #compact}.
+   *
+   * @param i      the slot of the shape, below the size of the frame
+   * @param id     the id of the shape
+   * @param type   the type of the shape, or null to leave the slot empty
+   * @param x      the x position of the shape
+   * @param y      the y position of the shape
+   * @param width  the width of the shape
+   * @param height the height of the shape
+   * @param red    the red value of the shape's color
+   * @param green  the green value of the shape's color
+   * @param blue   the blue value of the shape's color
+   */
+  void set(int i, int id, ShapeType type, int x, int y, int width, int height, int red, int green,
+           int blue) {
+    this.ids[i] = id;
+    this.types[i] = type;
+    this.xs[i] = x;
+    this.ys[i] = y;
+    this.widths[i] = width;
+    this.heights[i] = height;
+    this.colors[i] = 0xFF000000 | (red << 16) | (green << 8) | blue;
+  }
+
+  /**
+   * Drops the empty slots of the frame, keeping the other shapes in order.
+   */
+  void compact() {
+    int kept = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (this.types[i] != null) {
+        this.ids[kept] = this.ids[i];
+        this.types[kept] = this.types[i];
+        this.xs[kept] = this.xs[i];
+        this.ys[kept] = this.ys[i];
+        this.widths[kept] = this.widths[i];
+        this.heights[kept] = this.heights[i];
+        this.colors[kept] = this.colors[i];
+        kept++;
+      }
+    }
+    this.size = kept;
+  }
+
+  /**
+   * Replaces the contents of the buffer with the shapes of another frame, growing the buffer only
+   * if the other frame holds more shapes than fit.
+   *
+   * @param other the frame to copy
+   */
+  void copyFrom(FrameBuffer other) {
+    if (other.size > this.ids.length) {
+      this.ids = new int[other.size];
+      this.types = new ShapeType[other.size];
+      this.xs = new int[other.size];
+      this.ys = new int[other.size];
+      this.widths = new int[other.size];
+      this.heights = new int[other.size];
+      this.colors = new int[other.size];
+    }
+    this.size = other.size;
+    System.arraycopy(other.ids, 0, this.ids, 0, other.size);
+    System.arraycopy(other.types, 0, this.types, 0, other.size);
+    System.arraycopy(other.xs, 0, this.xs, 0, other.size);
+    System.arraycopy(other.ys, 0, this.ys, 0, other.size);
+    System.arraycopy(other.widths, 0, this.widths, 0, other.size);
+    System.arraycopy(other.heights, 0, this.heights, 0, other.size);
+    System.arraycopy(other.colors, 0, this.colors, 0, other.size);
+  }
+
+  /**
+   * Blends this frame, at a whole tick, toward the frame at the next tick, leaving the shapes as
+   * they are at the given fraction of the way between the two. Only the shapes in both frames are
+   * on screen between the ticks, so the others are dropped. Each value is blended in a straight
+   * line and truncated, the way shapes between two keyframes are. Both frames must hold their
+   * shapes in increasing order of id, as evaluated frames do.
+   *
+   * @param next     the frame at the next tick
+   * @param fraction how far the time is from this frame to the next, in [0, 1)
+   */
+  void blendToward(FrameBuffer next, double fraction) {
+    double stay = 1 - fraction;
+    int kept = 0;
+    int j = 0;
+    for (int i = 0; i < this.size; i++) {
+      int id = this.ids[i];
+      while (j < next.size && next.ids[j] < id) {
+        j++;
+      }
+      if (j == next.size || next.ids[j] != id) {
+        continue;
+      }
+      int color = this.colors[i];
+      int nextColor = next.colors[j];
+      this.ids[kept] = id;
+      this.types[kept] = this.types[i];
+      this.xs[kept] = (int) (this.xs[i] * stay + next.xs[j] * fraction);
+      this.ys[kept] = (int) (this.ys[i] * stay + next.ys[j] * fraction);
+      this.widths[kept] = (int) (this.widths[i] * stay + next.widths[j] * fraction);
+      this.heights[kept] = (int) (this.heights[i] * stay + next.heights[j] * fraction);
+      this.colors[kept] = 0xFF000000
+              | (int) (((color >> 16) & 0xFF) * stay + ((nextColor >> 16) & 0xFF) * fraction) << 16
+              | (int) (((color >> 8) & 0xFF) * stay + ((nextColor >> 8) & 0xFF) * fraction) << 8
+              | (int) ((color & 0xFF) * stay + (nextColor & 0xFF) * fraction);
+      kept++;
+    }
+    this.size = kept;
+  }
+
+  /**
+   * Estimates the heap memory taken by the buffer and its arrays, assuming a 64-bit JVM with
+   * compressed references.
+   *
+   * @return the estimated size of the buffer in bytes
+   */
+  long footprint() {
+    long array = (16 + 4L * this.ids.length + 7) & ~7L;
+    return 48 + 7 * array;
+  }
+
+  /**
+   * Gets the number of shapes in the frame.
+   *
+   * @return the number of shapes
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Gets the id of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the id of the shape
+   */
+  int getId(int i) {
+    return this.ids[i];
+  }
+
+  /**
+   * Gets the type of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the type of the shape
+   */
+  ShapeType getType(int i) {
+    return this.types[i];
+  }
+
+  /**
+   * Gets the x position of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the x position of the shape
+   */
+  int getX(int i) {
+    return this.xs[i];
+  }
+
+  /**
+   * Gets the y position of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the y position of the shape
+   */
+  int getY(int i) {
+    return this.ys[i];
+  }
+
+  /**
+   * Gets the width of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the width of the shape
+   */
+  int getWidth(int i) {
+    return this.widths[i];
+  }
+
+  /**
+   * Gets the height of the i-th shape drawn.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the height of the shape
+   */
+  int getHeight(int i) {
+    return this.heights[i];
+  }
+
+  /**
+   * Gets the color of the i-th shape drawn, packed as opaque ARGB.
+   *
+   * @param i the position of the shape in drawing order
+   * @return the color of the shape
+   */
+  int getColor(int i) {
+    return this.colors[i];
+  }
+
+  // doubles the capacity of every array.
+  private void grow() {
+    int capacity = Math.max(INITIAL_CAPACITY, this.ids.length * 2);
+    this.ids = Arrays.copyOf(this.ids, capacity);
+    this.types = Arrays.copyOf(this.types, capacity);
+    this.xs = Arrays.copyOf(this.xs, capacity);
+    this.ys = Arrays.copyOf(this.ys, capacity);
+    this.widths = Arrays.copyOf(this.widths, capacity);
+    this.heights = Arrays.copyOf(this.heights, capacity);
+    this.colors = Arrays.copyOf(this.colors, capacity);
+  }
+}
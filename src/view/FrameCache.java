@@ -0,0 +1,205 @@
+package view;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import model.IAnimatorModelView;
+import model.IModelListener;
+
+/**
+ * A cache of baked frames, the evaluated shapes of an animation at a tick, for views that play the
+ * same ticks over and over, such as a looping or scrubbed animation. The cache keeps as many frames
+ * as fit in a memory budget and, when it's full, drops the frame used least recently. It listens to
+ * its model, and an edit drops the frames in the range of ticks the edit may have changed; adding
+ * or removing a shape drops every frame, since shape ids can change.
+ *
+ * <p>Frames are copied into and out of the cache, so the buffers a view draws from are never shared
+ * with it. Edits may be reported from other threads, so every method is synchronized, and a frame
+ * evaluated while an edit was being made is not kept.</p>
+ */
+final class FrameCache {
+
+  // the bytes of a linked hash map entry: a header, its hash, its key, value and next references
+  // and its links to the entries before and after it, padded to 8 bytes.
+  private static final long LINKED_ENTRY_BYTES = 40;
+
+  // the bytes of the boxed Integer tick an entry is kept under: a header and the int, padded.
+  private static final long BOXED_TICK_BYTES = 16;
+
+  // the estimated bytes the map spends on each cached frame, besides the frame itself.
+  private static final long ENTRY_BYTES = LINKED_ENTRY_BYTES + BOXED_TICK_BYTES;
+
+  private final IAnimatorModelView model;
+  private final IModelListener listener;
+  private final long budget;
+  private final LinkedHashMap<Integer, FrameBuffer> frames;
+  private long bytes;
+  private int edits;
+  private int hits;
+
+  /**
+   * Constructs an empty cache for the given model with the given memory budget.
+   *
+   * @param model  the model whose frames are cached
+   * @param budget the most bytes the cached frames may take
+   * @throws IllegalArgumentException if model is null or budget is not positive
+   */
+  FrameCache(IAnimatorModelView model, long budget) throws IllegalArgumentException {
+    if (model == null) {
+      throw new IllegalArgumentException("model is a null");
+    }
+    if (budget <= 0) {
+      throw new IllegalArgumentException("budget must be positive");
+    }
+    this.model = model;
+    this.budget = budget;
+    this.frames = new LinkedHashMap<Integer, FrameBuffer>(16, 0.75f, true);
+    this.bytes = 0;
+    this.edits = 0;
+    this.hits = 0;
+    this.listener = new IModelListener() {
+      @Override
+      public void shapeAdded(String shape) {
+        clear();
+      }
+
+      @Override
+      public void shapeRemoved(String shape) {
+        clear();
+      }
+
+      @Override
+      public void keyframeAdded(String shape, int fromTick, int toTick) {
+        invalidate(fromTick, toTick);
+      }
+
+      @Override
+      public void keyframeRemoved(String shape, int fromTick, int toTick) {
+        invalidate(fromTick, toTick);
+      }
+
+      @Override
+      public void keyframesChanged(String shape, int fromTick, int toTick) {
+        invalidate(fromTick, toTick);
+      }
+    };
+    model.addListener(this.listener);
+  }
+
+  /**
+   * Stops listening to the model and drops every cached frame, so that a cache that is no longer
+   * used isn't kept alive by the model. A closed cache no longer notices edits and shouldn't be
+   * used again.
+   */
+  void close() {
+    this.model.removeListener(this.listener);
+    this.clear();
+  }
+
+  /**
+   * Gets the number of edits the cache has heard of. A view reads this before evaluating a frame
+   * and hands it to {@link #put}, so that a frame evaluated during an edit isn't kept.
+   *
+   * @return the number of edits so far
+   */
+  synchronized int getEdits() {
+    return this.edits;
+  }
+
+  /**
+   * Copies the cached frame at the given tick into the buffer, marking it as the most recently
+   * used.
+   *
+   * @param tick  the tick of the frame
+   * @param frame the buffer to copy the frame into
+   * @return true if the frame was cached, or false if the buffer was left alone
+   */
+  synchronized boolean get(int tick, FrameBuffer frame) {
+    FrameBuffer baked = this.frames.get(tick);
+    if (baked == null) {
+      return false;
+    }
+    frame.copyFrom(baked);
+    this.hits++;
+    return true;
+  }
+
+  /**
+   * Gets the number of times a frame asked for was in the cache.
+   *
+   * @return the number of cache hits so far
+   */
+  synchronized int getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Keeps a copy of the frame at the given tick, dropping the least recently used frames until it
+   * fits in the budget. Nothing is kept if the model was edited since the given count of edits was
+   * read, or if the frame alone is larger than the budget.
+   *
+   * @param tick  the tick of the frame
+   * @param frame the frame to keep
+   * @param edits the count of edits read before the frame was evaluated
+   */
+  synchronized void put(int tick, FrameBuffer frame, int edits) {
+    if (edits != this.edits) {
+      return;
+    }
+    FrameBuffer baked = new FrameBuffer(frame.size());
+    baked.copyFrom(frame);
+    long size = baked.footprint() + ENTRY_BYTES;
+    if (size > this.budget) {
+      return;
+    }
+    FrameBuffer old = this.frames.put(tick, baked);
+    if (old != null) {
+      this.bytes -= old.footprint() + ENTRY_BYTES;
+    }
+    this.bytes += size;
+    Iterator<FrameBuffer> eldest = this.frames.values().iterator();
+    while (this.bytes > this.budget) {
+      this.bytes -= eldest.next().footprint() + ENTRY_BYTES;
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Gets the number of frames in the cache.
+   *
+   * @return the number of cached frames
+   */
+  synchronized int size() {
+    return this.frames.size();
+  }
+
+  /**
+   * Gets the estimated bytes taken by the cached frames, which never exceeds the budget.
+   *
+   * @return the bytes taken by the cache
+   */
+  synchronized long getBytes() {
+    return this.bytes;
+  }
+
+  // drops the cached frames in the given range of ticks.
+  private synchronized void invalidate(int fromTick, int toTick) {
+    this.edits++;
+    Iterator<Map.Entry<Integer, FrameBuffer>> it = this.frames.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Integer, FrameBuffer> entry = it.next();
+      if (entry.getKey() >= fromTick && entry.getKey() <= toTick) {
+        this.bytes -= entry.getValue().footprint() + ENTRY_BYTES;
+        it.remove();
+      }
+    }
+  }
+
+  // drops every cached frame.
+  private synchronized void clear() {
+    this.edits++;
+    this.frames.clear();
+    this.bytes = 0;
+  }
+}
@@ -0,0 +1,575 @@
+package view;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.Easing;
+import model.IAnimatorModelView;
+import model.IKeyframeCursor;
+import model.IKeyframeTrack;
+import model.IModelListener;
+import model.IMotion;
+import model.Motion;
+
+/**
+ * Works out what each shape looks like at a tick, for views that play an animation frame by frame.
+ * The evaluator remembers, for every shape, the segment between two keyframes it last drew from,
+ * along with a cursor on the shape's track. While the tick moves forward, finding the new segment
+ * only means stepping the cursor past the keyframes the tick has passed, which costs nothing for
+ * most frames; when the tick jumps backwards or far ahead, the segment is found again by binary
+ * search. Any edit to the model drops every remembered segment.
+ *
+ * <p>A whole frame can be evaluated into a {@link FrameBuffer}. Segments and their cursors are kept
+ * per shape and moved rather than replaced when the tick jumps, so once every shape has been drawn
+ * this creates no objects until the model is edited, even while the animation loops.</p>
+ *
+ * <p>A frame with more than {@value #PARALLEL_THRESHOLD} shapes on screen is split into runs of
+ * shapes evaluated on a fork-join pool. Every shape has its own segment and its own slot in the
+ * buffer, so the runs never touch the same memory and need no locking. Splitting a frame creates a
+ * few tasks, which is small next to evaluating that many shapes.</p>
+ *
+ * <p>Segments short enough and with small enough values are interpolated in {@link FixedPoint},
+ * with slopes worked out once per segment, unless the system property {@code animator.fixed} is
+ * set to false. The shapes left between two keyframes are gathered into columns and blended
+ * together by the fastest {@link InterpolationKernel} the JVM can run. Either way the frames are
+ * the same to the bit as blending each shape with the double formula.</p>
+ *
+ * <p>Segments with an easing are eased one by one through an {@link EasingTable}, made the first
+ * time the easing is met and shared by every segment with the same easing, so that easing a shape
+ * costs little more than blending it. An eased shape's size is kept positive and its color within
+ * range, as an easing may overshoot its keyframes.</p>
+ *
+ * <p>A frame can also be evaluated at a time between two ticks, for views that draw more often than
+ * the animation ticks. The segments are found at the tick before the time, and every shape between
+ * two keyframes is blended by the kernel at the exact time, never in fixed point. A shape is on
+ * screen between two ticks only if it is on screen at both, so shapes appear and disappear on whole
+ * ticks. At a whole time the frame is the same as at that tick.</p>
+ */
+final class FrameEvaluator {
+
+  private static final int MAX_STEPS = 4;
+  private static final int PARALLEL_THRESHOLD = 4096;
+  private static final int RUN = 1024;
+
+  private final IAnimatorModelView model;
+  private final ForkJoinPool pool;
+  private final InterpolationKernel kernel;
+  private final boolean fixed;
+  private final Lanes lanes;
+  private final ConcurrentHashMap<Easing, EasingTable> tables;
+  private final AtomicInteger edits;
+  private final IModelListener listener;
+  private int seenEdits;
+  private Segment[] segments;
+  private int[] active;
+  private final int[] keyframe;
+
+  /**
+   * Constructs an evaluator for the given model, listening to it for edits until it's
+   * {@link #close closed}.
+   *
+   * @param model the model to evaluate
+   * @throws IllegalArgumentException if model is null
+   */
+  FrameEvaluator(IAnimatorModelView model) throws IllegalArgumentException {
+    this(model, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an evaluator for the given model that evaluates large frames on the given pool.
+   *
+   * @param model the model to evaluate
+   * @param pool  the pool to split large frames across
+   * @throws IllegalArgumentException if model or pool is null
+   */
+  FrameEvaluator(IAnimatorModelView model, ForkJoinPool pool) throws IllegalArgumentException {
+    this(model, pool, InterpolationKernel.best(),
+            Boolean.parseBoolean(System.getProperty("animator.fixed", "true")));
+  }
+
+  /**
+   * Constructs an evaluator for the given model that evaluates large frames on the given pool and
+   * blends shapes with the given kernel, or in fixed point where it can if fixed is true.
+   *
+   * @param model  the model to evaluate
+   * @param pool   the pool to split large frames across
+   * @param kernel the kernel to blend shapes with
+   * @param fixed  whether to interpolate segments that fit in fixed point
+   * @throws IllegalArgumentException if any argument is null
+   */
+  FrameEvaluator(IAnimatorModelView model, ForkJoinPool pool, InterpolationKernel kernel,
+                 boolean fixed) throws IllegalArgumentException {
+    if (model == null || pool == null || kernel == null) {
+      throw new IllegalArgumentException("model, pool or kernel is a null");
+    }
+    this.model = model;
+    this.pool = pool;
+    this.kernel = kernel;
+    this.fixed = fixed;
+    this.lanes = new Lanes(16);
+    this.tables = new ConcurrentHashMap<Easing, EasingTable>();
+    this.edits = new AtomicInteger();
+    this.seenEdits = 0;
+    this.segments = new Segment[model.getShapeCount()];
+    this.active = new int[16];
+    this.keyframe = new int[8];
+    this.listener = new IModelListener() {
+      @Override
+      public void shapeAdded(String shape) {
+        edits.incrementAndGet();
+      }
+
+      @Override
+      public void shapeRemoved(String shape) {
+        edits.incrementAndGet();
+      }
+
+      @Override
+      public void keyframeAdded(String shape, int fromTick, int toTick) {
+        edits.incrementAndGet();
+      }
+
+      @Override
+      public void keyframeRemoved(String shape, int fromTick, int toTick) {
+        edits.incrementAndGet();
+      }
+
+      @Override
+      public void keyframesChanged(String shape, int fromTick, int toTick) {
+        edits.incrementAndGet();
+      }
+    };
+    model.addListener(this.listener);
+  }
+
+  /**
+   * Stops listening to the model, so that an evaluator that is no longer used isn't kept alive and
+   * told of every edit by the model it evaluated. A closed evaluator no longer notices edits and
+   * shouldn't be used again.
+   */
+  void close() {
+    this.model.removeListener(this.listener);
+  }
+
+  /**
+   * Works out what the shape with the given id looks like at the given tick, either its keyframe at
+   * that tick or a blend of the keyframes on either side of it.
+   *
+   * @param id   the id of the shape
+   * @param tick the tick to evaluate the shape at
+   * @return the shape's frame at that tick, or null if the shape isn't on screen then
+   * @throws IllegalArgumentException if there's no shape with that id
+   */
+  IMotion evaluate(int id, int tick) throws IllegalArgumentException {
+    if (id < 0) {
+      throw new IllegalArgumentException("no shape with that id");
+    }
+    this.sync(id);
+    if (!this.frame(id, tick, this.keyframe)) {
+      return null;
+    }
+    int[] k = this.keyframe;
+    return new Motion(k[0], k[1], k[2], k[3], k[4], k[5], k[6], k[7]);
+  }
+
+  /**
+   * Works out every shape on screen at the given tick, replacing the contents of the buffer with
+   * them in drawing order.
+   *
+   * @param tick  the tick to evaluate the animation at
+   * @param frame the buffer to fill
+   */
+  void evaluate(int tick, FrameBuffer frame) {
+    this.evaluate(tick, tick, frame);
+  }
+
+  /**
+   * Works out every shape on screen at the given time, which may fall between two ticks, replacing
+   * the contents of the buffer with them in drawing order.
+   *
+   * @param time  the time to evaluate the animation at, in ticks
+   * @param frame the buffer to fill
+   * @throws IllegalArgumentException if time is not a number or is infinite
+   */
+  void evaluate(double time, FrameBuffer frame) throws IllegalArgumentException {
+    if (Double.isNaN(time) || Double.isInfinite(time)) {
+      throw new IllegalArgumentException("time is not a finite number");
+    }
+    double floor = Math.floor(time);
+    if (floor < Integer.MIN_VALUE || floor > Integer.MAX_VALUE) {
+      frame.clear();
+      return;
+    }
+    this.evaluate((int) floor, time, frame);
+  }
+
+  // Works out every shape on screen at the time, which falls in [tick, tick + 1).
+  private void evaluate(int tick, double time, FrameBuffer frame) {
+    int count = this.model.getActiveShapeIds(tick, this.active);
+    if (count > this.active.length) {
+      this.active = new int[Math.max(count, this.active.length * 2)];
+      count = this.model.getActiveShapeIds(tick, this.active);
+    }
+    this.sync(count == 0 ? 0 : this.active[count - 1]);
+    frame.resize(count);
+    if (count > PARALLEL_THRESHOLD) {
+      if (this.pool.invoke(new Run(tick, time, frame, 0, count)) > 0) {
+        frame.compact();
+      }
+    } else if (this.fill(tick, time, frame, 0, count, this.lanes) > 0) {
+      frame.compact();
+    }
+  }
+
+  // Drops every segment if the model was edited, and makes room for a segment of the given shape.
+  private void sync(int id) {
+    int edits = this.edits.get();
+    if (edits != this.seenEdits || id >= this.segments.length) {
+      this.seenEdits = edits;
+      this.segments = new Segment[Math.max(id + 1, this.model.getShapeCount())];
+    }
+  }
+
+  // Works out the frames of the active shapes in [from, to) at the time, which falls in
+  // [tick, tick + 1), into the same slots of the buffer. Shapes on a keyframe are copied straight
+  // away, shapes on eased or fixed-point segments are interpolated one by one, and the other shapes
+  // between keyframes are gathered into the lanes and blended together. Returns the number of slots
+  // left empty.
+  private int fill(int tick, double time, FrameBuffer frame, int from, int to, Lanes lanes) {
+    boolean whole = time == tick;
+    int empty = 0;
+    lanes.count = 0;
+    for (int i = from; i < to; i++) {
+      int id = this.active[i];
+      Segment segment = this.segment(id, tick);
+      int[] a = segment.start;
+      if (whole && segment.hasStart && a[0] == tick) {
+        frame.set(i, id, this.model.getShapeType(id), a[1], a[2], a[3], a[4], a[5], a[6], a[7]);
+      } else if (segment.hasStart && segment.hasEnd && segment.easing != null) {
+        int[] k = lanes.keyframe;
+        segment.ease(time, k);
+        frame.set(i, id, this.model.getShapeType(id), k[1], k[2], k[3], k[4], k[5], k[6], k[7]);
+      } else if (whole && segment.hasStart && segment.hasEnd && segment.fixed) {
+        int[] k = lanes.keyframe;
+        segment.frame(tick, k);
+        frame.set(i, id, this.model.getShapeType(id), k[1], k[2], k[3], k[4], k[5], k[6], k[7]);
+      } else if (segment.hasStart && segment.hasEnd) {
+        lanes.add(i, a, segment.end);
+      } else {
+        frame.set(i, id, null, 0, 0, 0, 0, 0, 0, 0);
+        empty++;
+      }
+    }
+    this.kernel.interpolate(time, lanes.count, lanes.ta, lanes.tb, lanes.a, lanes.b, lanes.out);
+    double[][] out = lanes.out;
+    for (int j = 0; j < lanes.count; j++) {
+      int i = lanes.slots[j];
+      int id = this.active[i];
+      frame.set(i, id, this.model.getShapeType(id), (int) out[0][j], (int) out[1][j],
+              (int) out[2][j], (int) out[3][j], (int) out[4][j], (int) out[5][j], (int) out[6][j]);
+    }
+    return empty;
+  }
+
+  // Works out the shape's frame at the tick into the given array, returning false if the shape
+  // isn't on screen then. The shape must have room for a segment.
+  private boolean frame(int id, int tick, int[] out) {
+    return this.segment(id, tick).frame(tick, out);
+  }
+
+  // Gets the shape's segment, moved to the given tick. The shape must have room for a segment.
+  private Segment segment(int id, int tick) {
+    Segment segment = this.segments[id];
+    if (segment == null) {
+      segment = new Segment(id);
+      this.segments[id] = segment;
+    }
+    if (!segment.advance(tick)) {
+      segment.seek(tick);
+    }
+    return segment;
+  }
+
+  /**
+   * A run of the active shapes of a frame, split in half until it's short enough to evaluate on
+   * one thread. Returns the number of slots it left empty.
+   */
+  private final class Run extends RecursiveTask<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    private final int tick;
+    private final double time;
+    private final FrameBuffer frame;
+    private final int from;
+    private final int to;
+
+    // Constructs a run of the active shapes in [from, to) at the time, in [tick, tick + 1).
+    private Run(int tick, double time, FrameBuffer frame, int from, int to) {
+      this.tick = tick;
+      this.time = time;
+      this.frame = frame;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (this.to - this.from <= RUN) {
+        return fill(this.tick, this.time, this.frame, this.from, this.to,
+                new Lanes(this.to - this.from));
+      }
+      int mid = (this.from + this.to) >>> 1;
+      Run left = new Run(this.tick, this.time, this.frame, this.from, mid);
+      left.fork();
+      int empty = new Run(this.tick, this.time, this.frame, mid, this.to).compute();
+      return empty + left.join();
+    }
+  }
+
+  // Gets the table of the given easing, making it if no segment has used the easing yet.
+  private EasingTable table(Easing easing) {
+    EasingTable table = this.tables.get(easing);
+    if (table == null) {
+      table = new EasingTable(easing);
+      EasingTable raced = this.tables.putIfAbsent(easing, table);
+      table = raced == null ? table : raced;
+    }
+    return table;
+  }
+
+  // copies the keyframe the cursor is on into the given array.
+  private static void read(IKeyframeCursor cursor, int[] keyframe) {
+    keyframe[0] = cursor.getTick();
+    keyframe[1] = cursor.getX();
+    keyframe[2] = cursor.getY();
+    keyframe[3] = cursor.getWidth();
+    keyframe[4] = cursor.getHeight();
+    keyframe[5] = cursor.getRed();
+    keyframe[6] = cursor.getGreen();
+    keyframe[7] = cursor.getBlue();
+  }
+
+  /**
+   * The keyframes on either side of the last tick a shape was evaluated at, with a cursor on the
+   * later one, and the table of the segment's easing if it isn't linear.
+   */
+  private final class Segment {
+    private final int id;
+    private final IKeyframeTrack track;
+    private final IKeyframeCursor cursor;
+    private final int[] start;
+    private final int[] end;
+    private boolean hasStart;
+    private boolean hasEnd;
+    private final boolean allowFixed;
+    private boolean fixed;
+    private final long[] slopes;
+    private EasingTable easing;
+
+    // Constructs a segment of the track of the shape with the given id that holds no tick until
+    // it's first moved, and that interpolates in fixed point when allowed and the segment fits.
+    private Segment(int id) {
+      this.id = id;
+      this.track = model.getTrack(id);
+      this.cursor = this.track.cursor(0);
+      this.start = new int[8];
+      this.end = new int[8];
+      this.hasStart = false;
+      this.hasEnd = false;
+      this.allowFixed = FrameEvaluator.this.fixed;
+      this.fixed = false;
+      this.slopes = new long[8];
+      this.easing = null;
+    }
+
+    // Moves the segment to the one holding the given tick by binary search. The segment holds no
+    // tick if the track starts after the tick.
+    private void seek(int tick) {
+      int i = this.track.floor(tick);
+      this.hasStart = i >= 0;
+      this.hasEnd = false;
+      if (!this.hasStart) {
+        return;
+      }
+      this.cursor.seek(i);
+      this.cursor.next();
+      read(this.cursor, this.start);
+      this.hasEnd = this.cursor.next();
+      if (this.hasEnd) {
+        read(this.cursor, this.end);
+        this.prepare();
+      }
+    }
+
+    // Moves the segment forward to the given tick, stepping past a few keyframes at most. Returns
+    // false if the tick is before the segment or too far after it.
+    private boolean advance(int tick) {
+      if (!this.hasStart || tick < this.start[0]) {
+        return false;
+      }
+      for (int steps = 0; this.hasEnd && this.end[0] <= tick; steps++) {
+        if (steps == MAX_STEPS) {
+          return false;
+        }
+        System.arraycopy(this.end, 0, this.start, 0, 8);
+        this.hasEnd = this.cursor.next();
+        if (this.hasEnd) {
+          read(this.cursor, this.end);
+          this.prepare();
+        }
+      }
+      return true;
+    }
+
+    // Finds the easing of a new segment, and works out its slopes if it's to be interpolated in
+    // fixed point.
+    private void prepare() {
+      Easing curve = model.getEasing(this.id, this.start[0]);
+      this.easing = curve.isLinear() ? null : table(curve);
+      this.fixed = this.easing == null && this.allowFixed
+              && FixedPoint.fits(this.start[0], this.end[0], this.start, this.end, 1);
+      if (this.fixed) {
+        int span = this.end[0] - this.start[0];
+        for (int c = 1; c < 8; c++) {
+          this.slopes[c] = FixedPoint.slope(this.start[c], this.end[c], span);
+        }
+      }
+    }
+
+    // Interpolates a channel at a tick inside the segment.
+    private int channel(int tick, int c) {
+      if (this.fixed) {
+        return FixedPoint.interpolate(tick, this.start[0], this.end[0], this.start[c],
+                this.end[c], this.slopes[c]);
+      }
+      return (int) ScalarKernel.interpolate(tick, this.start[0], this.end[0], this.start[c],
+              this.end[c]);
+    }
+
+    // Works out the shape's frame at a tick inside the segment into the given array, returning
+    // false if the segment holds no tick or ends before the tick.
+    private boolean frame(int tick, int[] out) {
+      if (!this.hasStart) {
+        return false;
+      }
+      int[] a = this.start;
+      if (a[0] == tick) {
+        System.arraycopy(a, 0, out, 0, 8);
+        return true;
+      }
+      if (!this.hasEnd) {
+        return false;
+      }
+      if (this.easing != null) {
+        this.ease(tick, out);
+        return true;
+      }
+      int[] b = this.end;
+      int x = a[1];
+      int y = a[2];
+      int w = a[3];
+      int h = a[4];
+      int red = a[5];
+      int green = a[6];
+      int blue = a[7];
+      if (x != b[1] || y != b[2]) {
+        x = this.channel(tick, 1);
+        y = this.channel(tick, 2);
+      }
+      if (w != b[3] || h != b[4]) {
+        w = this.channel(tick, 3);
+        h = this.channel(tick, 4);
+      }
+      if (red != b[5] || green != b[6] || blue != b[7]) {
+        red = this.channel(tick, 5);
+        green = this.channel(tick, 6);
+        blue = this.channel(tick, 7);
+      }
+      out[0] = tick;
+      out[1] = x;
+      out[2] = y;
+      out[3] = w;
+      out[4] = h;
+      out[5] = red;
+      out[6] = green;
+      out[7] = blue;
+      return true;
+    }
+
+    // Works out the shape's frame at a time strictly inside an eased segment into the given array,
+    // keeping the size positive and the color in range.
+    private void ease(double time, int[] out) {
+      int[] a = this.start;
+      int[] b = this.end;
+      double e = this.easing.ease((time - a[0]) / ((double) b[0] - a[0]));
+      out[0] = (int) time;
+      for (int c = 1; c < 8; c++) {
+        out[c] = a[c] == b[c] ? a[c] : (int) (a[c] + (b[c] - (double) a[c]) * e);
+      }
+      out[3] = Math.max(1, out[3]);
+      out[4] = Math.max(1, out[4]);
+      for (int c = 5; c < 8; c++) {
+        out[c] = Math.min(255, Math.max(0, out[c]));
+      }
+    }
+  }
+
+  /**
+   * The shapes of a frame that sit between two keyframes, gathered into columns for a kernel,
+   * along with the slot of the buffer each one goes to. The values are ints widened to doubles as
+   * they're gathered. Lanes grow to fit and are reused, and also hold a keyframe to interpolate
+   * fixed-point segments into.
+   */
+  private static final class Lanes {
+    private int count;
+    private int[] slots;
+    private double[] ta;
+    private double[] tb;
+    private final double[][] a;
+    private final double[][] b;
+    private final double[][] out;
+    private final int[] keyframe;
+
+    // Constructs empty lanes with room for the given number of shapes.
+    private Lanes(int capacity) {
+      this.count = 0;
+      this.slots = new int[capacity];
+      this.ta = new double[capacity];
+      this.tb = new double[capacity];
+      this.a = new double[InterpolationKernel.CHANNELS][capacity];
+      this.b = new double[InterpolationKernel.CHANNELS][capacity];
+      this.out = new double[InterpolationKernel.CHANNELS][capacity];
+      this.keyframe = new int[8];
+    }
+
+    // adds the shape in the given slot, between the given keyframes.
+    private void add(int slot, int[] start, int[] end) {
+      if (this.count == this.slots.length) {
+        this.grow(Math.max(16, this.count * 2));
+      }
+      int j = this.count++;
+      this.slots[j] = slot;
+      this.ta[j] = start[0];
+      this.tb[j] = end[0];
+      for (int c = 0; c < InterpolationKernel.CHANNELS; c++) {
+        this.a[c][j] = start[c + 1];
+        this.b[c][j] = end[c + 1];
+      }
+    }
+
+    // grows every column to the given capacity.
+    private void grow(int capacity) {
+      this.slots = Arrays.copyOf(this.slots, capacity);
+      this.ta = Arrays.copyOf(this.ta, capacity);
+      this.tb = Arrays.copyOf(this.tb, capacity);
+      for (int c = 0; c < InterpolationKernel.CHANNELS; c++) {
+        this.a[c] = Arrays.copyOf(this.a[c], capacity);
+        this.b[c] = Arrays.copyOf(this.b[c], capacity);
+        this.out[c] = Arrays.copyOf(this.out[c], capacity);
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package view;
+
+/**
+ * This interface represents the arithmetic that blends the keyframes on either side of a time for
+ * many shapes at once. The time is in ticks and may fall between two ticks. The shapes are handed
+ * over as columns, one array per channel, so that a kernel can work on several shapes with each
+ * instruction. Channels come in three groups, position (x and y), size (width and height) and color
+ * (red, green and blue), and a group is only blended if one of its channels changes between the
+ * keyframes; otherwise it's copied from the first. Every kernel gives exactly the results of
+ * {@link ScalarKernel}.
+ *
+ * <p>The columns hold doubles, though every value in them is an int, since the blend is worked out
+ * in doubles and widening or narrowing whole vectors is much slower than doing it while gathering
+ * the columns. The caller truncates the results to ints.</p>
+ */
+interface InterpolationKernel {
+
+  /**
+   * The number of channels of a shape: x, y, width, height, red, green and blue.
+   */
+  public static final int CHANNELS = 7;
+
+  /**
+   * Blends the keyframes of the given number of shapes at a time between them.
+   *
+   * @param time  the time to blend at, in ticks
+   * @param count the number of shapes
+   * @param ta    the tick of each shape's first keyframe
+   * @param tb    the tick of each shape's second keyframe, after the first
+   * @param a     the channels of each shape's first keyframe, one array per channel
+   * @param b     the channels of each shape's second keyframe, one array per channel
+   * @param out   the arrays to write each shape's blended channels to, before truncating
+   */
+  public void interpolate(double time, int count, double[] ta, double[] tb, double[][] a,
+                          double[][] b, double[][] out);
+
+  /**
+   * Gets the fastest kernel this JVM can run. The vector kernel is compiled separately from
+   * src-vector and needs the incubating vector API, which has to be added with
+   * {@code --add-modules jdk.incubator.vector}; without either, or if the system property
+   * {@code animator.vector} is set to false, this is the scalar kernel.
+   *
+   * @return the kernel to use
+   */
+  public static InterpolationKernel best() {
+    if (!Boolean.parseBoolean(System.getProperty("animator.vector", "true"))) {
+      return new ScalarKernel();
+    }
+    try {
+      return (InterpolationKernel) Class.forName("view.VectorKernel")
+              .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return new ScalarKernel();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package view;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.Timer;
+
+/**
+ * A timer that fires at the refresh rate of the display rather than once per tick, and keeps the
+ * time of the animation in ticks. Every time it fires, the time moves forward by the real time
+ * since it last fired times the ticks per second, so the time usually falls between two ticks and
+ * the animation plays at the same speed however often frames are drawn. Changing the ticks per
+ * second only changes how fast the time moves. Time stands still while the timer is stopped.
+ */
+final class PlaybackTimer extends Timer {
+
+  private static final long serialVersionUID = 1L;
+  private static final int DEFAULT_REFRESH_RATE = 60;
+
+  private int ticksPerSecond;
+  private double time;
+  private long last;
+
+  /**
+   * Constructs a stopped timer at time 0 that tells the given listener to draw a frame each time it
+   * fires, after moving the time forward.
+   *
+   * @param ticksPerSecond the speed of the animation
+   * @param listener       the listener that draws a frame at the timer's time
+   * @throws IllegalArgumentException if ticksPerSecond is not positive
+   */
+  PlaybackTimer(int ticksPerSecond, ActionListener listener) throws IllegalArgumentException {
+    super(Math.max(1, 1000 / refreshRate()), listener);
+    if (ticksPerSecond <= 0) {
+      throw new IllegalArgumentException("rate must be positive");
+    }
+    this.ticksPerSecond = ticksPerSecond;
+    this.time = 0;
+    this.mark(System.nanoTime());
+  }
+
+  @Override
+  public void start() {
+    this.mark(System.nanoTime());
+    super.start();
+  }
+
+  @Override
+  public void restart() {
+    this.mark(System.nanoTime());
+    super.restart();
+  }
+
+  @Override
+  protected void fireActionPerformed(ActionEvent e) {
+    this.advance(System.nanoTime());
+    super.fireActionPerformed(e);
+  }
+
+  /**
+   * Gets the time of the animation.
+   *
+   * @return the time in ticks, which may fall between two ticks
+   */
+  double getTime() {
+    return this.time;
+  }
+
+  /**
+   * Moves the animation to the given time, such as back to 0 for a restart or a loop.
+   *
+   * @param time the time in ticks
+   * @throws IllegalArgumentException if time is negative or not a number
+   */
+  void setTime(double time) throws IllegalArgumentException {
+    if (!(time >= 0)) {
+      throw new IllegalArgumentException("time is negative");
+    }
+    this.time = time;
+  }
+
+  /**
+   * Gets the ticks per second the time moves at.
+   *
+   * @return the ticks per second
+   */
+  int getTicksPerSecond() {
+    return this.ticksPerSecond;
+  }
+
+  /**
+   * Sets the ticks per second the time moves at from now on. The time already played is kept.
+   *
+   * @param ticksPerSecond the new ticks per second
+   * @throws IllegalArgumentException if ticksPerSecond is not positive
+   */
+  void setTicksPerSecond(int ticksPerSecond) throws IllegalArgumentException {
+    if (ticksPerSecond <= 0) {
+      throw new IllegalArgumentException("Ticks per second is not positive!");
+    }
+    if (this.isRunning()) {
+      this.advance(System.nanoTime());
+    }
+    this.ticksPerSecond = ticksPerSecond;
+  }
+
+  /**
+   * Remembers the given instant as the last one the time moved at, so that time spent stopped is
+   * not played.
+   *
+   * @param now the instant in nanoseconds, as given by {@link System#nanoTime}
+   */
+  void mark(long now) {
+    this.last = now;
+  }
+
+  /**
+   * Moves the time forward by the real time since the last instant it moved at.
+   *
+   * @param now the instant in nanoseconds, as given by {@link System#nanoTime}
+   * @return the new time in ticks
+   */
+  double advance(long now) {
+    this.time += (now - this.last) * (double) this.ticksPerSecond / 1e9;
+    this.last = now;
+    return this.time;
+  }
+
+  // Gets the refresh rate of the main display, or 60 Hz if it's unknown or there's no display.
+  private static int refreshRate() {
+    if (GraphicsEnvironment.isHeadless()) {
+      return DEFAULT_REFRESH_RATE;
+    }
+    try {
+      DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment()
+              .getDefaultScreenDevice().getDisplayMode();
+      int rate = mode.getRefreshRate();
+      return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : rate;
+    } catch (HeadlessException e) {
+      return DEFAULT_REFRESH_RATE;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package view;
+
+/**
+ * The kernel that blends one shape at a time. It runs on every JVM and defines the results every
+ * other kernel has to match.
+ */
+final class ScalarKernel implements InterpolationKernel {
+
+  @Override
+  public void interpolate(double time, int count, double[] ta, double[] tb, double[][] a,
+                          double[][] b, double[][] out) {
+    for (int i = 0; i < count; i++) {
+      blend(time, i, ta, tb, a, b, out);
+    }
+  }
+
+  /**
+   * Blends the keyframes of the i-th shape of the columns at a time between them.
+   *
+   * @param time the time to blend at, in ticks
+   * @param i    the position of the shape in the columns
+   * @param ta   the tick of each shape's first keyframe
+   * @param tb   the tick of each shape's second keyframe
+   * @param a    the channels of each shape's first keyframe
+   * @param b    the channels of each shape's second keyframe
+   * @param out  the arrays to write each shape's blended channels to
+   */
+  static void blend(double time, int i, double[] ta, double[] tb, double[][] a, double[][] b,
+                    double[][] out) {
+    blend(time, ta[i], tb[i], a, b, out, i, 0, 2);
+    blend(time, ta[i], tb[i], a, b, out, i, 2, 4);
+    blend(time, ta[i], tb[i], a, b, out, i, 4, 7);
+  }
+
+  // Blends the channels in [from, to) of the i-th shape if any of them changes, or copies them.
+  private static void blend(double time, double ta, double tb, double[][] a, double[][] b,
+                            double[][] out, int i, int from, int to) {
+    boolean changes = false;
+    for (int c = from; c < to; c++) {
+      changes |= a[c][i] != b[c][i];
+    }
+    for (int c = from; c < to; c++) {
+      out[c][i] = changes ? interpolate(time, ta, tb, a[c][i], b[c][i]) : a[c][i];
+    }
+  }
+
+  /**
+   * The interpolation formula, briefly casting the int values to doubles.
+   *
+   * @param tick the tick to blend at
+   * @param tai  the tick of the first keyframe
+   * @param tbi  the tick of the second keyframe
+   * @param ai   the value at the first keyframe
+   * @param bi   the value at the second keyframe
+   * @return the blended value
+   */
+  static double interpolate(int tick, int tai, int tbi, int ai, int bi) {
+    return interpolate((double) tick, (double) tai, (double) tbi, (double) ai, (double) bi);
+  }
+
+  // the interpolation formula itself, at a time in ticks that may fall between two ticks.
+  private static double interpolate(double time, double ta, double tb, double a, double b) {
+    return (a * ((tb - time) / (tb - ta))) + (b * ((time - ta) / (tb - ta)));
+  }
+}
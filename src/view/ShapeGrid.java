@@ -0,0 +1,372 @@
+package view;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import model.ShapeType;
+
+/**
+ * A uniform grid over the bounds of the shapes drawn in a frame, used to find the shapes under a
+ * point or inside a region without testing every shape. Each shape is filed under the square cells
+ * its bounding box touches, and a query only tests the shapes filed under the cells it touches,
+ * against the exact geometry {@link AnimatorPanel} draws: a filled rectangle, an oval inside the
+ * bounds, or a circle as wide and tall as the shape's width. Shapes too big to file cell by cell
+ * are kept aside and tested by every query.
+ *
+ * <p>The grid is updated one frame at a time. Between {@link #begin} and {@link #end}, each shape
+ * drawn in the new frame is {@link #put} into the grid; a shape whose bounds didn't change since
+ * the last frame stays where it is, and shapes that weren't put are dropped at the end. Shapes are
+ * known by their ids, and a higher id is drawn on top.</p>
+ *
+ * <p>Frames only record where each shape is; the shapes that moved are filed again when the grid is
+ * next queried. Playing an animation that nobody clicks on therefore never touches the cells, and
+ * once the grid's arrays are large enough, updating it creates no objects.</p>
+ */
+final class ShapeGrid {
+
+  private static final int MAX_CELLS = 64;
+
+  private final int cellSize;
+  private final Map<Long, Cell> cells;
+  private final Cell large;
+  private int[] present;
+  private int presentCount;
+  private int[] stamps;
+  private int[] dirty;
+  private int dirtyCount;
+  private boolean[] isDirty;
+  private boolean[] filed;
+  private int[] filedXs;
+  private int[] filedYs;
+  private int[] filedWidths;
+  private int[] filedHeights;
+  private ShapeType[] types;
+  private int[] xs;
+  private int[] ys;
+  private int[] widths;
+  private int[] heights;
+  private int frame;
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param cellSize the width and height of each cell
+   * @throws IllegalArgumentException if the cell size is not positive
+   */
+  ShapeGrid(int cellSize) throws IllegalArgumentException {
+    if (cellSize < 1) {
+      throw new IllegalArgumentException("cell size is not positive");
+    }
+    this.cellSize = cellSize;
+    this.cells = new HashMap<Long, Cell>();
+    this.large = new Cell();
+    this.present = new int[16];
+    this.presentCount = 0;
+    this.stamps = new int[16];
+    this.dirty = new int[16];
+    this.dirtyCount = 0;
+    this.isDirty = new boolean[16];
+    this.filed = new boolean[16];
+    this.filedXs = new int[16];
+    this.filedYs = new int[16];
+    this.filedWidths = new int[16];
+    this.filedHeights = new int[16];
+    this.types = new ShapeType[16];
+    this.xs = new int[16];
+    this.ys = new int[16];
+    this.widths = new int[16];
+    this.heights = new int[16];
+    this.frame = 0;
+  }
+
+  /**
+   * Starts a new frame. Every shape in the new frame should be {@link #put} before {@link #end} is
+   * called.
+   */
+  void begin() {
+    this.frame++;
+  }
+
+  /**
+   * Puts a shape into the grid for the current frame, moving it if its bounds changed.
+   *
+   * @param id     the id of the shape
+   * @param type   the type of the shape
+   * @param x      the x position of the shape's bounds
+   * @param y      the y position of the shape's bounds
+   * @param width  the width of the shape's bounds
+   * @param height the height of the shape's bounds
+   * @throws IllegalArgumentException if the id is negative or the type is null
+   */
+  void put(int id, ShapeType type, int x, int y, int width, int height)
+          throws IllegalArgumentException {
+    if (id < 0 || type == null) {
+      throw new IllegalArgumentException("bad shape");
+    }
+    if (type == ShapeType.CIRCLE) {
+      height = width;
+    }
+    if (id >= this.stamps.length) {
+      this.grow(Math.max(id + 1, this.stamps.length * 2));
+    }
+    if (this.stamps[id] != 0) {
+      if (this.xs[id] == x && this.ys[id] == y && this.widths[id] == width
+              && this.heights[id] == height) {
+        this.stamps[id] = this.frame;
+        this.types[id] = type;
+        return;
+      }
+    } else {
+      if (this.presentCount == this.present.length) {
+        this.present = Arrays.copyOf(this.present, this.presentCount * 2);
+      }
+      this.present[this.presentCount++] = id;
+    }
+    this.stamps[id] = this.frame;
+    this.types[id] = type;
+    this.xs[id] = x;
+    this.ys[id] = y;
+    this.widths[id] = width;
+    this.heights[id] = height;
+    this.markDirty(id);
+  }
+
+  /**
+   * Ends the current frame, dropping every shape that wasn't put into it.
+   */
+  void end() {
+    int kept = 0;
+    for (int i = 0; i < this.presentCount; i++) {
+      int id = this.present[i];
+      if (this.stamps[id] == this.frame) {
+        this.present[kept++] = id;
+      } else {
+        this.stamps[id] = 0;
+        this.markDirty(id);
+      }
+    }
+    this.presentCount = kept;
+  }
+
+  /**
+   * Finds the topmost shape covering the given pixel.
+   *
+   * @param x the x position of the pixel
+   * @param y the y position of the pixel
+   * @return the id of the topmost shape covering the pixel, or -1 if there is none
+   */
+  int shapeAt(int x, int y) {
+    this.sync();
+    int top = -1;
+    Cell cell = this.cells.get(key(Math.floorDiv(x, this.cellSize),
+            Math.floorDiv(y, this.cellSize)));
+    if (cell != null) {
+      for (int i = 0; i < cell.count; i++) {
+        if (cell.ids[i] > top && this.covers(cell.ids[i], x, y, 1, 1)) {
+          top = cell.ids[i];
+        }
+      }
+    }
+    for (int i = 0; i < this.large.count; i++) {
+      if (this.large.ids[i] > top && this.covers(this.large.ids[i], x, y, 1, 1)) {
+        top = this.large.ids[i];
+      }
+    }
+    return top;
+  }
+
+  /**
+   * Finds the shapes covering any pixel of the given region.
+   *
+   * @param x      the x position of the region
+   * @param y      the y position of the region
+   * @param width  the width of the region
+   * @param height the height of the region
+   * @return the ids of the shapes covering part of the region, in drawing order
+   */
+  int[] shapesIn(int x, int y, int width, int height) {
+    if (width < 1 || height < 1) {
+      return new int[0];
+    }
+    this.sync();
+    Cell hits = new Cell();
+    int fromX = Math.floorDiv(x, this.cellSize);
+    int toX = Math.floorDiv(x + width - 1, this.cellSize);
+    int fromY = Math.floorDiv(y, this.cellSize);
+    int toY = Math.floorDiv(y + height - 1, this.cellSize);
+    if ((long) (toX - fromX + 1) * (toY - fromY + 1) > this.presentCount) {
+      for (int i = 0; i < this.presentCount; i++) {
+        hits.add(this.present[i]);
+      }
+    } else {
+      for (int cx = fromX; cx <= toX; cx++) {
+        for (int cy = fromY; cy <= toY; cy++) {
+          Cell cell = this.cells.get(key(cx, cy));
+          if (cell != null) {
+            for (int i = 0; i < cell.count; i++) {
+              hits.add(cell.ids[i]);
+            }
+          }
+        }
+      }
+      for (int i = 0; i < this.large.count; i++) {
+        hits.add(this.large.ids[i]);
+      }
+    }
+    int[] ids = Arrays.copyOf(hits.ids, hits.count);
+    Arrays.sort(ids);
+    int found = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if ((i == 0 || ids[i] != ids[i - 1]) && this.covers(ids[i], x, y, width, height)) {
+        ids[found++] = ids[i];
+      }
+    }
+    return Arrays.copyOf(ids, found);
+  }
+
+  // Checks whether the shape covers the center of any pixel in the given region. An oval covers a
+  // region if the point of the region nearest its center lies inside it.
+  private boolean covers(int id, int x, int y, int width, int height) {
+    int sx = this.xs[id];
+    int sy = this.ys[id];
+    int sw = this.widths[id];
+    int sh = this.heights[id];
+    if ((long) sx + sw <= x || (long) x + width <= sx || (long) sy + sh <= y
+            || (long) y + height <= sy) {
+      return false;
+    }
+    if (this.types[id] == ShapeType.RECTANGLE) {
+      return true;
+    }
+    double rx = sw / 2.0;
+    double ry = sh / 2.0;
+    double cx = sx + rx;
+    double cy = sy + ry;
+    double dx = (Math.max(x + 0.5, Math.min(cx, x + width - 0.5)) - cx) / rx;
+    double dy = (Math.max(y + 0.5, Math.min(cy, y + height - 0.5)) - cy) / ry;
+    return dx * dx + dy * dy <= 1;
+  }
+
+  // remembers that the shape has to be filed again before the next query.
+  private void markDirty(int id) {
+    if (!this.isDirty[id]) {
+      if (this.dirtyCount == this.dirty.length) {
+        this.dirty = Arrays.copyOf(this.dirty, this.dirtyCount * 2);
+      }
+      this.dirty[this.dirtyCount++] = id;
+      this.isDirty[id] = true;
+    }
+  }
+
+  // Files every shape that moved, appeared or disappeared since the last query.
+  private void sync() {
+    for (int i = 0; i < this.dirtyCount; i++) {
+      int id = this.dirty[i];
+      this.isDirty[id] = false;
+      this.unfile(id);
+      if (this.stamps[id] != 0) {
+        this.file(id);
+      }
+    }
+    this.dirtyCount = 0;
+  }
+
+  // Files the shape under each cell its bounds touch, or aside if it touches too many.
+  private void file(int id) {
+    if (this.widths[id] < 1 || this.heights[id] < 1) {
+      return;
+    }
+    this.filed[id] = true;
+    this.filedXs[id] = this.xs[id];
+    this.filedYs[id] = this.ys[id];
+    this.filedWidths[id] = this.widths[id];
+    this.filedHeights[id] = this.heights[id];
+    int fromX = Math.floorDiv(this.xs[id], this.cellSize);
+    int toX = Math.floorDiv(this.xs[id] + this.widths[id] - 1, this.cellSize);
+    int fromY = Math.floorDiv(this.ys[id], this.cellSize);
+    int toY = Math.floorDiv(this.ys[id] + this.heights[id] - 1, this.cellSize);
+    if ((long) (toX - fromX + 1) * (toY - fromY + 1) > MAX_CELLS) {
+      this.large.add(id);
+      return;
+    }
+    for (int cx = fromX; cx <= toX; cx++) {
+      for (int cy = fromY; cy <= toY; cy++) {
+        this.cells.computeIfAbsent(key(cx, cy), k -> new Cell()).add(id);
+      }
+    }
+  }
+
+  // Takes the shape out of every cell it was last filed under.
+  private void unfile(int id) {
+    if (!this.filed[id]) {
+      return;
+    }
+    this.filed[id] = false;
+    int fromX = Math.floorDiv(this.filedXs[id], this.cellSize);
+    int toX = Math.floorDiv(this.filedXs[id] + this.filedWidths[id] - 1, this.cellSize);
+    int fromY = Math.floorDiv(this.filedYs[id], this.cellSize);
+    int toY = Math.floorDiv(this.filedYs[id] + this.filedHeights[id] - 1, this.cellSize);
+    if ((long) (toX - fromX + 1) * (toY - fromY + 1) > MAX_CELLS) {
+      this.large.remove(id);
+      return;
+    }
+    for (int cx = fromX; cx <= toX; cx++) {
+      for (int cy = fromY; cy <= toY; cy++) {
+        Long key = key(cx, cy);
+        Cell cell = this.cells.get(key);
+        cell.remove(id);
+        if (cell.count == 0) {
+          this.cells.remove(key);
+        }
+      }
+    }
+  }
+
+  // grows the per-shape arrays to hold the given number of ids.
+  private void grow(int size) {
+    this.stamps = Arrays.copyOf(this.stamps, size);
+    this.isDirty = Arrays.copyOf(this.isDirty, size);
+    this.filed = Arrays.copyOf(this.filed, size);
+    this.filedXs = Arrays.copyOf(this.filedXs, size);
+    this.filedYs = Arrays.copyOf(this.filedYs, size);
+    this.filedWidths = Arrays.copyOf(this.filedWidths, size);
+    this.filedHeights = Arrays.copyOf(this.filedHeights, size);
+    this.types = Arrays.copyOf(this.types, size);
+    this.xs = Arrays.copyOf(this.xs, size);
+    this.ys = Arrays.copyOf(this.ys, size);
+    this.widths = Arrays.copyOf(this.widths, size);
+    this.heights = Arrays.copyOf(this.heights, size);
+  }
+
+  // packs the column and row of a cell into a single key.
+  private static long key(int cx, int cy) {
+    return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+  }
+
+  /**
+   * The ids of the shapes filed under one cell, in no particular order.
+   */
+  private static final class Cell {
+    private int[] ids = new int[4];
+    private int count = 0;
+
+    // adds a shape to the cell.
+    private void add(int id) {
+      if (this.count == this.ids.length) {
+        this.ids = Arrays.copyOf(this.ids, this.count * 2);
+      }
+      this.ids[this.count++] = id;
+    }
+
+    // removes a shape from the cell by moving the last shape into its place.
+    private void remove(int id) {
+      for (int i = 0; i < this.count; i++) {
+        if (this.ids[i] == id) {
+          this.ids[i] = this.ids[--this.count];
+          return;
+        }
+      }
+    }
+  }
+}
@@ -1,23 +1,28 @@
 package view;
 
+import model.Easing;
 import model.IAnimatorModelView;
+import model.IKeyframeCursor;
+import model.IKeyframeTrack;
 import model.IMotion;
 import model.ShapeType;
 
 import java.awt.event.ActionListener;
 import java.io.IOException;
-import java.util.List;
-import java.util.Set;
 
 import javax.swing.Timer;
 
 /**
- * A class to represent an SVG view form of the animator model.
+ * A class to represent an SVG view form of the animator model. Motions with an easing are animated
+ * with spline interpolation, using the easing's control points as their key splines. SVG only takes
+ * key splines within 0 and 1, so a motion whose easing overshoots its keyframes is animated through
+ * {@value #SAMPLES} evenly timed steps of the eased values instead.
  */
 public class SvgView implements IView {
 
+  private static final int SAMPLES = 16;
+
   private final IAnimatorModelView model;
-  private final Set<String> keys;
   private final int ticksPerSec;
   private final Appendable output;
 
@@ -42,7 +47,6 @@ public class SvgView implements IView {
       throw new IllegalArgumentException("rate must be positive");
     }
     this.model = model;
-    this.keys = model.getKeys();
     this.ticksPerSec = ticksPerSec;
     this.output = output;
   }
@@ -62,19 +66,25 @@ public class SvgView implements IView {
     svgWrite.append(String.format("<svg width=\"%d\" height=\"%d\" version=\"1.1\" " +
                     "xmlns=\"http://www.w3.org/2000/svg\">\n\n",
             model.getWidth(), model.getHeight()));
-    for (String key : keys) {
-      List<IMotion> motions = model.getMotions(key);
-      String tag = shapeTag(key);
-      if (motions.size() > 0) {
-        IMotion motion = motions.get(0);
+    for (int id = 0; id < model.getShapeCount(); id++) {
+      String key = model.getShapeName(id);
+      IKeyframeTrack motions = model.getTrack(id);
+      String tag = shapeTag(model.getShapeType(id));
+      IKeyframeCursor cursor = motions.cursor(0);
+      if (cursor.next()) {
+        IMotion motion = cursor.getMotion();
         svgWrite.append(String.format("<%s id=\"%s\" %s %s fill=%s visibility=\"visible\">\n",
                 tag, key, shapePos(tag, motion), shapeDim(tag, motion), rgb(motion)));
-        for (int j = 1; j < motions.size(); j++) {
-          svgWrite.append(checkMove(tag, motions, j));
-          svgWrite.append(checkColor(motions, j));
-          svgWrite.append(checkSize(tag, motions, j));
+        while (cursor.next()) {
+          IMotion lastMotion = motion;
+          motion = cursor.getMotion();
+          Easing easing = model.getEasing(id, lastMotion.getTick());
+          String timing = shapeTicks(lastMotion, motion) + keyTiming(easing);
+          svgWrite.append(checkMove(tag, timing, easing, lastMotion, motion));
+          svgWrite.append(checkColor(timing, easing, lastMotion, motion));
+          svgWrite.append(checkSize(tag, timing, easing, lastMotion, motion));
         }
-        svgWrite.append(String.format("%s\n", endTag(key)));
+        svgWrite.append(String.format("%s\n", endTag(tag)));
       }
     }
     svgWrite.append("</svg>");
@@ -88,12 +98,12 @@ public class SvgView implements IView {
   }
 
   // returns a tag for the drawn shape based on its shape type.
-  private String shapeTag(String key) {
-    if (model.getShapeType(key) == ShapeType.CIRCLE) {
+  private String shapeTag(ShapeType type) {
+    if (type == ShapeType.CIRCLE) {
       return "circle";
-    } else if (model.getShapeType(key) == ShapeType.ELLIPSE) {
+    } else if (type == ShapeType.ELLIPSE) {
       return "ellipse";
-    } else if (model.getShapeType(key) == ShapeType.RECTANGLE) {
+    } else if (type == ShapeType.RECTANGLE) {
       return "rect";
     } else {
       throw new IllegalArgumentException("Unsupported shape type");
@@ -101,8 +111,8 @@ public class SvgView implements IView {
   }
 
   // provides the end tag for a shape in SVG form.
-  private String endTag(String key) {
-    return String.format("</%s>\n", shapeTag(key));
+  private String endTag(String tag) {
+    return String.format("</%s>\n", tag);
   }
 
   // converts and formats a shape's position to SVG form.
@@ -128,95 +138,162 @@ public class SvgView implements IView {
     }
   }
 
-  // adds a move animation if a move has occurred between motions
-  private String checkMove(String tag, List<IMotion> motions, int i) {
-    IMotion lastMotion = motions.get(i - 1);
-    IMotion motion = motions.get(i);
+  // adds a move animation if a move has occurred between motions, timed by the given attributes
+  private String checkMove(String tag, String timing, Easing easing, IMotion lastMotion,
+                           IMotion motion) {
     StringBuilder ret = new StringBuilder();
     if (lastMotion.move(motion)) {
       if (lastMotion.getX() != motion.getX()) {
         if (tag.equalsIgnoreCase("rect")) {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"x\"" +
-                          " from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getX() - model.getXBound(),
-                  motion.getX() - model.getXBound()));
+                          " %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getX() - model.getXBound(),
+                          motion.getX() - model.getXBound(), Integer.MIN_VALUE)));
         } else {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"cx\"" +
-                          " from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getX() - model.getXBound(),
-                  motion.getX() - model.getXBound()));
+                          " %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getX() - model.getXBound(),
+                          motion.getX() - model.getXBound(), Integer.MIN_VALUE)));
         }
       }
       if (lastMotion.getY() != motion.getY()) {
         if (tag.equalsIgnoreCase("rect")) {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"y\"" +
-                          " from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getY() - model.getYBound(),
-                  motion.getY() - model.getYBound()));
+                          " %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getY() - model.getYBound(),
+                          motion.getY() - model.getYBound(), Integer.MIN_VALUE)));
         } else {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"cy\"" +
-                          " from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getY() - model.getYBound(),
-                  motion.getY() - model.getYBound()));
+                          " %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getY() - model.getYBound(),
+                          motion.getY() - model.getYBound(), Integer.MIN_VALUE)));
         }
       }
     }
     return ret.toString();
   }
 
-  // adds a RGB color animation if a color change has occurred between motions
-  private String checkColor(List<IMotion> motions, int i) {
-    IMotion lastMotion = motions.get(i - 1);
-    IMotion motion = motions.get(i);
+  // adds a RGB color animation if a color change has occurred between motions, timed by the given
+  // attributes
+  private String checkColor(String timing, Easing easing, IMotion lastMotion, IMotion motion) {
     StringBuilder ret = new StringBuilder();
     if (lastMotion.changeColor(motion)) {
       ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"fill\" " +
-                      "from=%s to=%s fill=\"freeze\" />\n",
-              shapeTicks(motions, i), rgb(lastMotion), rgb(motion)));
+                      "%s fill=\"freeze\" />\n",
+              timing, colorValues(easing, lastMotion, motion)));
     }
     return ret.toString();
   }
 
-  // adds a grow/shrink animation if a size change has occurred between motions
-  private String checkSize(String tag, List<IMotion> motions, int i) {
-    IMotion lastMotion = motions.get(i - 1);
-    IMotion motion = motions.get(i);
+  // adds a grow/shrink animation if a size change has occurred between motions, timed by the given
+  // attributes
+  private String checkSize(String tag, String timing, Easing easing, IMotion lastMotion,
+                           IMotion motion) {
     StringBuilder ret = new StringBuilder();
     if (lastMotion.changeSize(motion)) {
       if (lastMotion.getWidth() != motion.getWidth()) {
         if (tag.equalsIgnoreCase("rect")) {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"width\" " +
-                          "from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getWidth(), motion.getWidth()));
+                          "%s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getWidth(), motion.getWidth(), 1)));
         } else if (tag.equalsIgnoreCase("ellipse")) {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"rx\" " +
-                          "from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getWidth(), motion.getWidth()));
+                          "%s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getWidth(), motion.getWidth(), 1)));
         } else {
           ret.append(String.format("<animate attributeType=\"xml\" %s attributeName=\"r\" " +
-                          "from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getWidth(), motion.getWidth()));
+                          "%s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getWidth(), motion.getWidth(), 1)));
         }
       }
       if (lastMotion.getHeight() != motion.getHeight()) {
         if (tag.equalsIgnoreCase("rect")) {
           ret.append(String.format("<animate attributeType=\"xml\" %s " +
-                          "attributeName=\"height\" from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getWidth(), motion.getWidth()));
+                          "attributeName=\"height\" %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getWidth(), motion.getWidth(), 1)));
         } else {
           ret.append(String.format("<animate attributeType=\"xml\" %s " +
-                          "attributeName=\"ry\" from=\"%d\" to=\"%d\" fill=\"freeze\" />\n",
-                  shapeTicks(motions, i), lastMotion.getWidth(), motion.getWidth()));
+                          "attributeName=\"ry\" %s fill=\"freeze\" />\n",
+                  timing, values(easing, lastMotion.getWidth(), motion.getWidth(), 1)));
         }
       }
     }
     return ret.toString();
   }
 
+  // converts and formats the easing of a motion to the timing attributes of its animations: nothing
+  // if the motion is linear, a key spline if the easing stays within its keyframes, or evenly
+  // spaced key times for the sampled values of an easing that overshoots them
+  private String keyTiming(Easing easing) {
+    if (easing.isLinear()) {
+      return "";
+    }
+    if (!overshoots(easing)) {
+      return String.format(" calcMode=\"spline\" keyTimes=\"0;1\" keySplines=\"%s %s %s %s\"",
+              number(easing.getX1()), number(easing.getY1()), number(easing.getX2()),
+              number(easing.getY2()));
+    }
+    StringBuilder keyTimes = new StringBuilder();
+    for (int i = 0; i <= SAMPLES; i++) {
+      keyTimes.append(i == 0 ? "" : ";").append(number(i / (double) SAMPLES));
+    }
+    return String.format(" calcMode=\"linear\" keyTimes=\"%s\"", keyTimes);
+  }
+
+  // checks if an easing takes a shape past either of its keyframes, which key splines can't show
+  private static boolean overshoots(Easing easing) {
+    return easing.getY1() < 0 || easing.getY1() > 1 || easing.getY2() < 0 || easing.getY2() > 1;
+  }
+
+  // formats the values an animated attribute moves through, which are its two ends unless the
+  // easing overshoots, in which case they're the eased value at each key time, kept at or above min
+  private String values(Easing easing, int from, int to, int min) {
+    if (!overshoots(easing)) {
+      return String.format("from=\"%d\" to=\"%d\"", from, to);
+    }
+    StringBuilder values = new StringBuilder("values=\"");
+    for (int i = 0; i <= SAMPLES; i++) {
+      values.append(i == 0 ? "" : ";").append(Math.max(min, eased(easing, i, from, to)));
+    }
+    return values.append("\"").toString();
+  }
+
+  // formats the colors a fill moves through, the same way as values, keeping each part in range
+  private String colorValues(Easing easing, IMotion lastMotion, IMotion motion) {
+    if (!overshoots(easing)) {
+      return String.format("from=%s to=%s", rgb(lastMotion), rgb(motion));
+    }
+    StringBuilder values = new StringBuilder("values=\"");
+    for (int i = 0; i <= SAMPLES; i++) {
+      values.append(String.format("%srgb(%d,%d,%d)", i == 0 ? "" : ";",
+              color(eased(easing, i, lastMotion.getRed(), motion.getRed())),
+              color(eased(easing, i, lastMotion.getGreen(), motion.getGreen())),
+              color(eased(easing, i, lastMotion.getBlue(), motion.getBlue()))));
+    }
+    return values.append("\"").toString();
+  }
+
+  // gets the value between two ends at the i-th key time, blended the same way the visual views
+  // blend an eased shape
+  private static int eased(Easing easing, int i, int from, int to) {
+    if (from == to) {
+      return from;
+    }
+    return (int) (from + (to - (double) from) * easing.ease(i / (double) SAMPLES));
+  }
+
+  // keeps a color part between 0 and 255.
+  private static int color(int value) {
+    return Math.min(255, Math.max(0, value));
+  }
+
+  // formats a number without a trailing zero fraction.
+  private static String number(double value) {
+    return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+  }
+
   // converts and formats the ticks of the shape to SVG form
-  private String shapeTicks(List<IMotion> motions, int i) {
-    IMotion lastMotion = motions.get(i - 1);
-    IMotion motion = motions.get(i);
+  private String shapeTicks(IMotion lastMotion, IMotion motion) {
     return (String.format("begin=\"%dms\" dur=\"%dms\"",
             (lastMotion.getTick() * (1000 / this.ticksPerSec)),
             ((motion.getTick() - lastMotion.getTick()) * (1000 / this.ticksPerSec))));
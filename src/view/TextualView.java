@@ -2,13 +2,13 @@ package view;
 
 import java.awt.event.ActionListener;
 import java.io.IOException;
-import java.util.List;
-import java.util.Set;
 
 import javax.swing.Timer;
 
+import model.Easing;
 import model.IAnimatorModelView;
-import model.IMotion;
+import model.IKeyframeCursor;
+import model.IKeyframeTrack;
 
 /**
  * A class to represent a text-based view form of the animator model.
@@ -48,29 +48,38 @@ public class TextualView implements IView {
   // Makes up the body of what's put in the file.
   private String fileText() {
     StringBuilder motionsString = new StringBuilder();
-    Set<String> keys = this.model.getKeys();
     motionsString.append(String.format("Canvas %d %d %d %d\n", this.model.getXBound(),
             this.model.getYBound(), this.model.getWidth(), this.model.getHeight()));
-    for (String key : keys) {
-      List<IMotion> motions = model.getMotions(key);
-      motionsString.append(String.format("Shape %s %s\n", key, model.getShapeType(key)));
-      if (motions.size() == 1) {
-        motionsString.append(String.format("motion %s\t%s\n",
-                key, motionToString(motions.get(0))));
-      }
-      for (int j = 0; j < motions.size() - 1; j++) {
-        motionsString.append(String.format("motion %s\t%s\t\t%s\n", key,
-                motionToString(motions.get(j)), motionToString(motions.get(j + 1))));
+    for (int id = 0; id < this.model.getShapeCount(); id++) {
+      String key = this.model.getShapeName(id);
+      IKeyframeTrack motions = this.model.getTrack(id);
+      motionsString.append(String.format("Shape %s %s\n", key, this.model.getShapeType(id)));
+      IKeyframeCursor cursor = motions.cursor(0);
+      StringBuilder easings = new StringBuilder();
+      if (cursor.next()) {
+        String last = motionToString(cursor);
+        int lastTick = cursor.getTick();
+        if (motions.size() == 1) {
+          motionsString.append(String.format("motion %s\t%s\n", key, last));
+        }
+        while (cursor.next()) {
+          String next = motionToString(cursor);
+          motionsString.append(String.format("motion %s\t%s\t\t%s\n", key, last, next));
+          Easing easing = this.model.getEasing(id, lastTick);
+          if (!easing.isLinear()) {
+            easings.append(String.format("ease %s\t%d\t%s\n", key, lastTick, easing));
+          }
+          last = next;
+          lastTick = cursor.getTick();
+        }
       }
+      motionsString.append(easings);
     }
     return motionsString.toString();
   }
 
-  // converts and formats a motion into a string. Throws an IllegalArgumentException if motion null.
-  private String motionToString(IMotion m) throws IllegalArgumentException {
-    if (m == null) {
-      throw new IllegalArgumentException("null motion");
-    }
+  // converts and formats the keyframe a cursor is on into a string.
+  private String motionToString(IKeyframeCursor m) {
     return String.format("%d\t%d\t%d\t%d\t%d\t%d\t%d\t%d", m.getTick(), m.getX(), m.getY(),
             m.getWidth(), m.getHeight(), m.getRed(), m.getGreen(), m.getBlue());
   }
@@ -13,14 +13,13 @@ import model.IAnimatorModelView;
 
 /**
  * A class to represent a visual view form of the animator model. Draws the motions specified in the
- * model.
+ * model at the refresh rate of the display, blending shapes between ticks, so the ticks per second
+ * only set how fast the animation plays.
  */
 public class VisualView extends JFrame implements IView {
 
   private AnimatorPanel panel;
-  private int tick;
-  private int ticksPerSecond;
-  private Timer time;
+  private PlaybackTimer time;
 
 
   /**
@@ -40,15 +39,12 @@ public class VisualView extends JFrame implements IView {
       throw new IllegalArgumentException("rate must be positive");
     }
 
-    this.tick = 0;
-    this.ticksPerSecond = ticksPerSecond;
-
     this.setLayout(new BorderLayout());
     this.setTitle("Animation");
     this.setSize(model.getWidth(), model.getHeight());
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-    panel = new AnimatorPanel(model, this.tick);
+    panel = new AnimatorPanel(model, 0);
     panel.setPreferredSize(new Dimension(model.getWidth(), model.getHeight()));
 
 
@@ -59,7 +55,7 @@ public class VisualView extends JFrame implements IView {
 
     pack();
 
-    initializeTimer();
+    initializeTimer(ticksPerSecond);
   }
 
   @Override
@@ -68,18 +64,28 @@ public class VisualView extends JFrame implements IView {
     this.setVisible(true);
   }
 
-  // Initializes the time field to a Timer object that, at every tick, tells the panel what to draw,
-  // draws it, and then increases the tick by one.
-  private void initializeTimer() {
+  /**
+   * Stops the animation and stops the panel listening to the model before releasing the window, so
+   * that a view thrown away while its model lives on can be collected.
+   */
+  @Override
+  public void dispose() {
+    time.stop();
+    panel.close();
+    super.dispose();
+  }
+
+  // Initializes the time field to a timer that, at every refresh of the display, tells the panel to
+  // draw the animation at the time the timer has moved to.
+  private void initializeTimer(int ticksPerSecond) {
     ActionListener animate = new ActionListener() {
       @Override
       public void actionPerformed(ActionEvent e) {
-        panel.setFrames(tick);
+        panel.setTime(time.getTime());
         panel.repaint();
-        tick++;
       }
     };
-    time = new Timer(1000 / ticksPerSecond, animate);
+    time = new PlaybackTimer(ticksPerSecond, animate);
   }
 
   @Override
@@ -0,0 +1,44 @@
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+
+import model.AnimatorModelImpl;
+import model.IAnimatorModel;
+import util.AnimationReader;
+
+/**
+ * A benchmark that times how long it takes to load each of the sample animation files into the
+ * model. It is run by hand from the project directory rather than as part of the test suite.
+ */
+public class LoadBenchmark {
+
+  private static final String[] FILES = {"buildings.txt", "hanoi.txt",
+      "big-bang-big-crunch.txt"};
+  private static final int WARMUP = 3;
+  private static final int RUNS = 5;
+
+  /**
+   * Loads every sample file a few times to warm up the JVM and then prints the average time it
+   * takes to load each one.
+   *
+   * @param args unused
+   * @throws FileNotFoundException if a sample file can't be found in the working directory
+   */
+  public static void main(String[] args) throws FileNotFoundException {
+    for (String file : FILES) {
+      for (int i = 0; i < WARMUP; i++) {
+        load(file);
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < RUNS; i++) {
+        load(file);
+      }
+      long average = (System.nanoTime() - start) / RUNS;
+      System.out.println(String.format("%-25s %10.2f ms", file, average / 1000000.0));
+    }
+  }
+
+  // reads the given file into a new model.
+  private static IAnimatorModel load(String file) throws FileNotFoundException {
+    return AnimationReader.parseFile(new FileReader(file), AnimatorModelImpl.builder());
+  }
+}
@@ -0,0 +1,51 @@
+package controller.commands;
+
+import org.junit.Test;
+
+import controller.ShapeCommand;
+import model.AnimatorModelImpl;
+import model.Easing;
+import model.IAnimatorModel;
+import model.Motion;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the Set Easing Command that ensures the constructor and execution of
+ * the command work as intended.
+ */
+public class SetEasingTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommandNullString() {
+    ShapeCommand cmd = new SetEasing(null, 0, "ease-in");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommandNullEasing() {
+    ShapeCommand cmd = new SetEasing("Tset", 0, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommandUnknownEasing() {
+    ShapeCommand cmd = new SetEasing("Tset", 0, "wobble");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCommandNullModel() {
+    ShapeCommand cmd = new SetEasing("Tset", 1, "ease-in");
+    cmd.execute(null);
+  }
+
+  @Test
+  public void testControllerStart() {
+    IAnimatorModel model = AnimatorModelImpl.builder().declareShape("Tset",
+            "ellipse").build();
+    model.addMotion("Tset", new Motion(1, 200, 200, 200, 20, 20, 20, 20));
+    model.addMotion("Tset", new Motion(9, 100, 200, 200, 20, 20, 20, 20));
+    assertEquals(Easing.LINEAR, model.getEasing("Tset", 1));
+    ShapeCommand cmd = new SetEasing("Tset", 1, "ease-out");
+    cmd.execute(model);
+    assertEquals(Easing.EASE_OUT, model.getEasing("Tset", 1));
+  }
+}
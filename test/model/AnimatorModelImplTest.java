@@ -4,7 +4,9 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 
@@ -113,6 +115,38 @@ public class AnimatorModelImplTest {
     model.addMotion("poopy", m2);
   }
 
+  @Test
+  public void testOverlapLeavesMotionsUnchanged() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    IMotion m = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 10, 20, 20, 100, 0, 0, 255);
+    model.addShape("poopy rectangle");
+    model.addMotion("poopy", m);
+    model.addMotion("poopy", m2);
+    boolean thrown = false;
+    try {
+      model.addMotion("poopy", new Motion(5, 1, 20, 20, 100, 0, 0, 255));
+    } catch (IllegalArgumentException e) {
+      thrown = true;
+    }
+    assertEquals(true, thrown);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m, m2)), model.getMotions("poopy"));
+  }
+
+  @Test
+  public void testAddMotionDifferentTicksNoOverlap() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    IMotion m = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(2, 300, 40, 5, 6, 255, 0, 0);
+    IMotion m3 = new Motion(3, 10, 20, 20, 100, 0, 0, 255);
+    model.addShape("poopy rectangle");
+    model.addMotion("poopy", m3);
+    model.addMotion("poopy", m);
+    model.addMotion("poopy", m2);
+    model.addMotion("poopy", m2);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m, m2, m3)), model.getMotions("poopy"));
+  }
+
   // Add shape tests.
   @Test(expected = IllegalArgumentException.class)
   public void testInvalidAddShape() {
@@ -161,6 +195,432 @@ public class AnimatorModelImplTest {
     assertEquals(new ArrayList<IMotion>(), model.getMotions(""));
   }
 
+  @Test
+  public void testGetTrack() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    IMotion m = new Motion(1, 10, 20, 30, 40, 50, 60, 70);
+    IMotion m2 = new Motion(17, 11, 21, 31, 41, 51, 61, 71);
+    model.addShape("poopy rectangle");
+    model.addMotion("poopy", m2);
+    model.addMotion("poopy", m);
+    IKeyframeTrack track = model.getTrack("poopy");
+    assertEquals(2, track.size());
+    assertEquals(1, track.getTick(0));
+    assertEquals(10, track.getX(0));
+    assertEquals(20, track.getY(0));
+    assertEquals(30, track.getWidth(0));
+    assertEquals(40, track.getHeight(0));
+    assertEquals(50, track.getRed(0));
+    assertEquals(60, track.getGreen(0));
+    assertEquals(70, track.getBlue(0));
+    assertEquals(m2, track.getMotion(1));
+  }
+
+  @Test
+  public void testGetTrackSeesLaterChanges() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("poopy rectangle");
+    IKeyframeTrack track = model.getTrack("poopy");
+    assertEquals(0, track.size());
+    model.addMotion("poopy", new Motion(1, 10, 20, 30, 40, 50, 60, 70));
+    assertEquals(1, track.size());
+  }
+
+  @Test
+  public void testGetTrackNone() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    assertEquals(0, model.getTrack("").size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetTrackNull() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getTrack(null);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetKeysReadOnly() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getKeys().add("poopy");
+  }
+
+  @Test
+  public void testTimeline() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    assertEquals(0, model.getFirstMotionTick());
+    assertEquals(0, model.getLastMotionTick());
+    model.addShape("test rectangle");
+    model.addShape("another ellipse");
+    IMotion m1 = new Motion(5, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    IMotion m3 = new Motion(3, 20, 30, 50, 80, 100, 0, 255);
+    IMotion m4 = new Motion(8, 20, 30, 50, 80, 100, 0, 255);
+    model.addMotion("test", m1);
+    model.addMotion("test", m2);
+    model.addMotion("another", m3);
+    model.addMotion("another", m4);
+    assertEquals(3, model.getFirstMotionTick());
+    assertEquals(10, model.getLastMotionTick());
+    assertEquals(5, model.getStartTick("test"));
+    assertEquals(10, model.getEndTick("test"));
+    assertEquals(3, model.getStartTick("another"));
+    assertEquals(8, model.getEndTick("another"));
+    model.removeMotion("test", m2);
+    assertEquals(8, model.getLastMotionTick());
+    assertEquals(5, model.getEndTick("test"));
+    model.removeShape("another");
+    assertEquals(5, model.getFirstMotionTick());
+    assertEquals(5, model.getLastMotionTick());
+    model.removeMotion("test", m1);
+    assertEquals(0, model.getFirstMotionTick());
+    assertEquals(0, model.getLastMotionTick());
+  }
+
+  @Test
+  public void testTimelineRedeclaredShape() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("test rectangle");
+    model.addMotion("test", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("test", new Motion(50, 20, 30, 20, 30, 0, 0, 255));
+    model.addShape("test ellipse");
+    assertEquals(0, model.getLastMotionTick());
+  }
+
+  @Test
+  public void testActiveShapes() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("late rectangle");
+    model.addShape("early ellipse");
+    model.addShape("empty circle");
+    model.addShape("once circle");
+    model.addMotion("late", new Motion(10, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("late", new Motion(20, 40, 60, 20, 30, 0, 0, 255));
+    model.addMotion("early", new Motion(1, 20, 30, 50, 80, 100, 0, 255));
+    model.addMotion("early", new Motion(15, 20, 30, 50, 80, 100, 0, 255));
+    model.addMotion("once", new Motion(12, 20, 30, 50, 80, 100, 0, 255));
+    assertEquals(Arrays.asList(), model.getActiveShapes(0));
+    assertEquals(Arrays.asList("early"), model.getActiveShapes(1));
+    assertEquals(Arrays.asList("late", "early"), model.getActiveShapes(10));
+    assertEquals(Arrays.asList("late", "early", "once"), model.getActiveShapes(12));
+    assertEquals(Arrays.asList("late"), model.getActiveShapes(16));
+    assertEquals(Arrays.asList(), model.getActiveShapes(21));
+    assertEquals(Arrays.asList("late", "early", "once"), model.getActiveShapes(12, 30));
+    assertEquals(Arrays.asList("late"), model.getActiveShapes(16, 30));
+    assertEquals(Arrays.asList("late", "early", "once"), model.getActiveShapes(-5, 50));
+  }
+
+  @Test
+  public void testActiveShapesAfterEdits() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("test rectangle");
+    model.addShape("other ellipse");
+    IMotion m1 = new Motion(5, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    model.addMotion("test", m1);
+    model.addMotion("other", m2);
+    assertEquals(Arrays.asList("test"), model.getActiveShapes(5));
+    model.addMotion("test", m2);
+    assertEquals(Arrays.asList("test", "other"), model.getActiveShapes(10));
+    model.removeMotion("test", m2);
+    assertEquals(Arrays.asList("other"), model.getActiveShapes(10));
+    model.addMotion("other", m1);
+    assertEquals(Arrays.asList("other"), model.getActiveShapes(7));
+    assertEquals(Arrays.asList("test", "other"), model.getActiveShapes(5));
+    model.removeShape("test");
+    assertEquals(Arrays.asList("other"), model.getActiveShapes(5));
+    model.addShape("other rectangle");
+    assertEquals(Arrays.asList(), model.getActiveShapes(5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testActiveShapesBackwardsRange() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getActiveShapes(10, 5);
+  }
+
+  @Test
+  public void testShapeIds() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addShape("b ellipse");
+    model.addShape("c circle");
+    IMotion m = new Motion(5, 20, 30, 20, 30, 0, 0, 255);
+    model.addMotion("c", m);
+    assertEquals(3, model.getShapeCount());
+    assertEquals(1, model.getShapeId("b"));
+    assertEquals(-1, model.getShapeId("d"));
+    assertEquals("c", model.getShapeName(2));
+    assertEquals(ShapeType.ELLIPSE, model.getShapeType(1));
+    assertEquals(model.getTrack("c"), model.getTrack(2));
+    assertEquals(5, model.getStartTick(2));
+    assertEquals(5, model.getEndTick(2));
+    assertEquals("[2]", Arrays.toString(model.getActiveShapeIds(5)));
+    model.addShape("b rectangle");
+    assertEquals(1, model.getShapeId("b"));
+    assertEquals(ShapeType.RECTANGLE, model.getShapeType(1));
+    model.removeShape("a");
+    assertEquals(2, model.getShapeCount());
+    assertEquals(0, model.getShapeId("b"));
+    assertEquals(1, model.getShapeId("c"));
+    assertEquals(m, model.getTrack(1).getMotion(0));
+    assertEquals("[1]", Arrays.toString(model.getActiveShapeIds(0, 10)));
+    model.addShape("a circle");
+    assertEquals(2, model.getShapeId("a"));
+    assertEquals(Arrays.asList("b", "c", "a"), new ArrayList<String>(model.getKeys()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShapeNameBadId() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.getShapeName(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTrackNegativeId() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getTrack(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStartTickIdNoMotions() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.getStartTick(0);
+  }
+
+  @Test
+  public void testSnapshot() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addShape("b ellipse");
+    IMotion m1 = new Motion(5, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    model.addMotion("a", m1);
+    model.addMotion("b", m1);
+    IAnimatorModelView snapshot = model.snapshot();
+    model.addMotion("a", m2);
+    model.removeMotion("b", m1);
+    model.addShape("c circle");
+    model.removeShape("a");
+    model.setWidth(20);
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(snapshot.getKeys()));
+    assertEquals(Arrays.asList(m1), snapshot.getMotions("a"));
+    assertEquals(Arrays.asList(m1), snapshot.getMotions("b"));
+    assertEquals(5, snapshot.getLastMotionTick());
+    assertEquals(Arrays.asList("a", "b"), snapshot.getActiveShapes(5));
+    assertEquals(500, snapshot.getWidth());
+    assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(model.getKeys()));
+    assertEquals(0, model.getTrack("b").size());
+    assertEquals(0, model.getLastMotionTick());
+  }
+
+  @Test
+  public void testSnapshotSharesUnchangedShapes() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addShape("b ellipse");
+    model.addMotion("a", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("b", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    IAnimatorModelView first = model.snapshot();
+    model.addMotion("a", new Motion(10, 40, 60, 20, 30, 0, 0, 255));
+    IAnimatorModelView second = model.snapshot();
+    assertEquals(true, first.getTrack("b") == second.getTrack("b"));
+    assertEquals(false, first.getTrack("a") == second.getTrack("a"));
+    assertEquals(1, first.getTrack("a").size());
+    assertEquals(2, second.getTrack("a").size());
+  }
+
+  @Test
+  public void testSnapshotIds() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addShape("b ellipse");
+    model.addMotion("b", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("b", new Motion(9, 20, 30, 20, 30, 0, 0, 255));
+    IAnimatorModelView snapshot = model.snapshot();
+    model.removeShape("a");
+    model.addMotion("b", new Motion(20, 20, 30, 20, 30, 0, 0, 255));
+    assertEquals(2, snapshot.getShapeCount());
+    assertEquals(1, snapshot.getShapeId("b"));
+    assertEquals("b", snapshot.getShapeName(1));
+    assertEquals(ShapeType.ELLIPSE, snapshot.getShapeType(1));
+    assertEquals(9, snapshot.getEndTick(1));
+    assertEquals("[1]", Arrays.toString(snapshot.getActiveShapeIds(7)));
+    assertEquals(0, snapshot.getActiveShapeIds(15).length);
+    assertEquals(true, model.getFootprint("b").getKeyframeBytes() > 0);
+    assertEquals(true, snapshot.getFootprint().getKeyframeBytes() > 0);
+  }
+
+  @Test
+  public void testSnapshotKeepsCanvas() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    IAnimatorModelView snapshot = model.snapshot();
+    model.setX(10);
+    model.setHeight(40);
+    assertEquals(0, snapshot.getXBound());
+    assertEquals(500, snapshot.getHeight());
+    assertEquals(10, model.getXBound());
+    assertEquals(40, model.getHeight());
+  }
+
+  @Test
+  public void testSnapshotReadOnly() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    assertEquals(false, model.snapshot() instanceof IAnimatorModel);
+  }
+
+  @Test
+  public void testSnapshotWhileEditing() throws InterruptedException {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    Thread writer = new Thread(() -> {
+      for (int t = 0; t < 20000; t++) {
+        model.addMotion("a", new Motion(t, t, t, 10, 10, 0, 0, 0));
+      }
+    });
+    writer.start();
+    int last = 0;
+    while (writer.isAlive()) {
+      IAnimatorModelView snapshot = model.snapshot();
+      IKeyframeTrack track = snapshot.getTrack("a");
+      assertEquals(track.size() == 0 ? 0 : track.size() - 1, snapshot.getLastMotionTick());
+      for (int i = 0; i < track.size(); i++) {
+        assertEquals(i, track.getTick(i));
+      }
+      assertEquals(true, track.size() >= last);
+      last = track.size();
+    }
+    writer.join();
+    assertEquals(20000, model.snapshot().getTrack("a").size());
+  }
+
+  @Test
+  public void testParallelLoaders() throws InterruptedException {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    Thread[] loaders = new Thread[8];
+    for (int n = 0; n < loaders.length; n++) {
+      model.addShape("s" + n + " rectangle");
+    }
+    for (int n = 0; n < loaders.length; n++) {
+      String name = "s" + n;
+      int offset = n;
+      loaders[n] = new Thread(() -> {
+        for (int t = 0; t < 5000; t++) {
+          model.addMotion(name, new Motion(t + offset, t, t, 10, 10, 0, 0, 0));
+        }
+      });
+      loaders[n].start();
+    }
+    for (Thread loader : loaders) {
+      loader.join();
+    }
+    for (int n = 0; n < loaders.length; n++) {
+      assertEquals(n, model.getShapeId("s" + n));
+      assertEquals(5000, model.getTrack("s" + n).size());
+      assertEquals(n, model.getStartTick("s" + n));
+    }
+    assertEquals(0, model.getFirstMotionTick());
+    assertEquals(4999 + loaders.length - 1, model.getLastMotionTick());
+  }
+
+  @Test
+  public void testParallelLoadersOneShape() throws InterruptedException {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    Thread[] loaders = new Thread[4];
+    for (int n = 0; n < loaders.length; n++) {
+      int offset = n;
+      loaders[n] = new Thread(() -> {
+        for (int t = offset; t < 8000; t += loaders.length) {
+          model.addMotion("a", new Motion(t, t, t, 10, 10, 0, 0, 0));
+        }
+      });
+    }
+    for (Thread loader : loaders) {
+      loader.start();
+    }
+    for (Thread loader : loaders) {
+      loader.join();
+    }
+    IKeyframeTrack track = model.getTrack("a");
+    assertEquals(8000, track.size());
+    for (int i = 0; i < track.size(); i++) {
+      assertEquals(i, track.getTick(i));
+    }
+  }
+
+  @Test
+  public void testKeyframeQueries() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    IMotion m10 = new Motion(10, 0, 0, 10, 10, 0, 0, 0);
+    IMotion m20 = new Motion(20, 5, 0, 10, 10, 0, 0, 0);
+    IMotion m30 = new Motion(30, 9, 0, 10, 10, 0, 0, 0);
+    model.addMotion("a", m30);
+    model.addMotion("a", m10);
+    model.addMotion("a", m20);
+    assertEquals(Arrays.asList(m10, m20), model.getKeyframes("a", 5, 25));
+    assertEquals(Arrays.asList(m20), model.getKeyframes("a", 20, 20));
+    assertEquals(new ArrayList<IMotion>(), model.getKeyframes("a", 21, 29));
+    assertEquals(new ArrayList<IMotion>(), model.getKeyframes("b", 0, 100));
+    assertEquals(m20, model.getKeyframeBefore("a", 29));
+    assertEquals(m20, model.getKeyframeBefore("a", 20));
+    assertEquals(null, model.getKeyframeBefore("a", 9));
+    assertEquals(m30, model.getKeyframeAfter("a", 21));
+    assertEquals(null, model.getKeyframeAfter("a", 31));
+    assertEquals(-1, model.getSegment("a", 9));
+    assertEquals(0, model.getSegment("a", 10));
+    assertEquals(1, model.getSegment("a", 29));
+    assertEquals(2, model.getSegment("a", 30));
+    assertEquals(-1, model.getSegment("a", 31));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyframesBackwards() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.getKeyframes("a", 10, 5);
+  }
+
+  @Test
+  public void testActiveShapeIdsIntoArray() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    for (int s = 0; s < 5; s++) {
+      model.addShape("s" + s + " rectangle");
+      model.addMotion("s" + s, new Motion(s, 0, 0, 10, 10, 0, 0, 0));
+      model.addMotion("s" + s, new Motion(10 - s, 0, 0, 10, 10, 0, 0, 0));
+    }
+    int[] ids = new int[8];
+    assertEquals(4, model.getActiveShapeIds(7, ids));
+    assertEquals("[0, 1, 2, 3]", Arrays.toString(Arrays.copyOf(ids, 4)));
+    assertEquals(0, model.getActiveShapeIds(11, ids));
+    int[] small = new int[2];
+    assertEquals(5, model.getActiveShapeIds(5, small));
+    ids = new int[5];
+    assertEquals(5, model.getActiveShapeIds(5, ids));
+    assertEquals("[0, 1, 2, 3, 4]", Arrays.toString(ids));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testActiveShapeIdsNullArray() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getActiveShapeIds(0, (int[]) null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStartTickNoMotions() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("test rectangle");
+    model.getStartTick("test");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEndTickNoShape() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.getEndTick("test");
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testGetShapeTypeNull() {
     IAnimatorModel model = AnimatorModelImpl.builder().build();
@@ -310,4 +770,88 @@ public class AnimatorModelImplTest {
     assertEquals(ShapeType.CIRCLE, model.getShapeType("leralt"));
     assertEquals(ShapeType.CIRCLE, model.getShapeType("d"));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testEasing() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("a", new Motion(10, 40, 60, 20, 30, 0, 0, 255));
+    assertEquals(Easing.LINEAR, model.getEasing("a", 5));
+    assertEquals(Easing.LINEAR, model.getEasing("b", 5));
+    model.setEasing("a", 5, Easing.EASE_IN);
+    assertEquals(Easing.EASE_IN, model.getEasing("a", 5));
+    assertEquals(Easing.EASE_IN, model.getEasing(0, 5));
+    assertEquals(Easing.LINEAR, model.getEasing("a", 10));
+    model.setEasing("a", 5, Easing.LINEAR);
+    assertEquals(Easing.LINEAR, model.getEasing("a", 5));
+  }
+
+  @Test
+  public void testEasingDroppedWithKeyframe() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    IMotion m1 = new Motion(5, 20, 30, 20, 30, 0, 0, 255);
+    model.addMotion("a", m1);
+    model.addMotion("a", new Motion(10, 40, 60, 20, 30, 0, 0, 255));
+    model.setEasing("a", 5, Easing.EASE_OUT);
+    model.removeMotion("a", m1);
+    model.addMotion("a", m1);
+    assertEquals(Easing.LINEAR, model.getEasing("a", 5));
+    model.setEasing("a", 5, Easing.EASE_OUT);
+    model.removeShape("a");
+    model.addShape("a ellipse");
+    assertEquals(Easing.LINEAR, model.getEasing("a", 5));
+  }
+
+  @Test
+  public void testSnapshotKeepsEasing() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(5, 20, 30, 20, 30, 0, 0, 255));
+    model.addMotion("a", new Motion(10, 40, 60, 20, 30, 0, 0, 255));
+    model.setEasing("a", 5, Easing.EASE_IN);
+    IAnimatorModelView snapshot = model.snapshot();
+    model.setEasing("a", 5, Easing.EASE_OUT);
+    assertEquals(Easing.EASE_IN, snapshot.getEasing("a", 5));
+    assertEquals(Easing.EASE_OUT, model.getEasing("a", 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEasingNull() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.setEasing("a", 5, null);
+  }
+
+  @Test
+  public void testKeysAreLive() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    Set<String> keys = model.getKeys();
+    model.addShape("a rectangle");
+    model.addShape("b ellipse");
+    assertEquals(new LinkedHashSet<String>(Arrays.asList("a", "b")), keys);
+    IAnimatorModelView snapshot = model.snapshot();
+    model.removeShape("a");
+    assertEquals(new LinkedHashSet<String>(Arrays.asList("b")), keys);
+    assertEquals(true, keys.contains("b"));
+    assertEquals(false, keys.contains("a"));
+    assertEquals(new LinkedHashSet<String>(Arrays.asList("a", "b")), snapshot.getKeys());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testKeysReadOnly() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.getKeys().remove("a");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testKeysIteratorReadOnly() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    Iterator<String> keys = model.getKeys().iterator();
+    keys.next();
+    keys.remove();
+  }
+}
@@ -193,4 +193,79 @@ public class BuilderTest {
     assertEquals(ShapeType.CIRCLE, model.getShapeType("leralt"));
     assertEquals(ShapeType.CIRCLE, model.getShapeType("d"));
   }
+
+  @Test
+  public void testAddKeyframes() {
+    AnimationBuilder<IAnimatorModel> build = AnimatorModelImpl.builder();
+    build.declareShape("loony", "rectangle");
+    build.declareShape("franky", "ellipse");
+    build.addKeyframe("loony", 5, 10, 20, 20, 100, 10, 0, 255);
+    int[] keyframes = {
+      9, 1, 1, 1, 1, 1, 1, 1,
+      1, 2, 2, 2, 2, 2, 2, 2,
+      5, 10, 20, 20, 100, 10, 0, 255,
+      9, 1, 1, 1, 1, 1, 1, 1,
+      7, 0, 0, 0, 0, 0, 0, 0};
+    build.addKeyframes("loony", keyframes, 4);
+    build.addKeyframes("franky", keyframes, 2);
+    IAnimatorModel model = build.build();
+    assertEquals(model, build.build());
+    assertEquals(Arrays.asList(new Motion(1, 2, 2, 2, 2, 2, 2, 2),
+            new Motion(5, 10, 20, 20, 100, 10, 0, 255), new Motion(9, 1, 1, 1, 1, 1, 1, 1)),
+            model.getMotions("loony"));
+    assertEquals(Arrays.asList(new Motion(1, 2, 2, 2, 2, 2, 2, 2),
+            new Motion(9, 1, 1, 1, 1, 1, 1, 1)), model.getMotions("franky"));
+    assertEquals(1, model.getFirstMotionTick());
+    assertEquals(9, model.getLastMotionTick());
+    assertEquals(Arrays.asList("loony", "franky"), model.getActiveShapes(5));
+  }
+
+  @Test
+  public void testAddKeyframesBeforeDeclare() {
+    AnimationBuilder<IAnimatorModel> build = AnimatorModelImpl.builder();
+    int[] keyframes = {1, 2, 2, 2, 2, 2, 2, 2};
+    build.addKeyframes("loony", keyframes, 1);
+    build.declareShape("loony", "rectangle");
+    build.declareShape("franky", "ellipse");
+    build.addKeyframes("franky", keyframes, 1);
+    build.declareShape("franky", "circle");
+    IAnimatorModel model = build.build();
+    assertEquals(0, model.getMotions("loony").size());
+    assertEquals(0, model.getMotions("franky").size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddKeyframesOverlap() {
+    AnimationBuilder<IAnimatorModel> build = AnimatorModelImpl.builder();
+    build.declareShape("loony", "rectangle");
+    int[] keyframes = {1, 2, 2, 2, 2, 2, 2, 2, 1, 2, 2, 2, 2, 2, 2, 3};
+    build.addKeyframes("loony", keyframes, 2);
+    build.build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddKeyframesOverlapExisting() {
+    AnimationBuilder<IAnimatorModel> build = AnimatorModelImpl.builder();
+    build.declareShape("loony", "rectangle");
+    build.addKeyframe("loony", 1, 2, 2, 2, 2, 2, 2, 3);
+    int[] keyframes = {1, 2, 2, 2, 2, 2, 2, 2};
+    build.addKeyframes("loony", keyframes, 1);
+    build.build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddKeyframesInvalidKeyframe() {
+    AnimationBuilder<IAnimatorModel> build = ColumnarAnimatorModel.builder();
+    build.declareShape("loony", "rectangle");
+    int[] keyframes = {1, 2, 2, 0, 2, 2, 2, 2};
+    build.addKeyframes("loony", keyframes, 1);
+    build.build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddKeyframesShortBatch() {
+    AnimationBuilder<IAnimatorModel> build = AnimatorModelImpl.builder();
+    build.declareShape("loony", "rectangle");
+    build.addKeyframes("loony", new int[12], 2);
+  }
 }
@@ -0,0 +1,126 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the columnar animator model that ensures it behaves the same as the
+ * list-backed model.
+ */
+public class ColumnarAnimatorModelTest {
+
+  @Test
+  public void testBuilderDefaults() {
+    IAnimatorModel m = ColumnarAnimatorModel.builder().build();
+    assertEquals(new LinkedHashSet<String>(), m.getKeys());
+    assertEquals(new ArrayList<IMotion>(), m.getMotions(""));
+    assertEquals(500, m.getWidth());
+    assertEquals(500, m.getHeight());
+  }
+
+  @Test
+  public void testAddMotionOrder() {
+    IAnimatorModel model = ColumnarAnimatorModel.builder().build();
+    IMotion m = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(17, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m3 = new Motion(138, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m4 = new Motion(16, 10, 20, 20, 100, 0, 0, 255);
+    model.addShape("poopy rectangle");
+    model.addMotion("poopy", m);
+    model.addMotion("poopy", m2);
+    model.addMotion("poopy", m3);
+    model.addMotion("poopy", m4);
+    model.addMotion("poopy", m4);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m, m4, m2, m3)), model.getMotions("poopy"));
+    assertEquals(ShapeType.RECTANGLE, model.getShapeType("poopy"));
+    assertEquals(138, model.getLastMotionTick());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddMotionOverlap() {
+    IAnimatorModel model = ColumnarAnimatorModel.builder().build();
+    model.addShape("poopy rectangle");
+    model.addMotion("poopy", new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    model.addMotion("poopy", new Motion(1, 10, 20, 20, 100, 0, 1, 255));
+  }
+
+  @Test
+  public void testSnapshot() {
+    IAnimatorModel model = ColumnarAnimatorModel.builder().build();
+    model.addShape("test rectangle");
+    IMotion m1 = new Motion(1, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    IMotion m3 = new Motion(5, 40, 60, 20, 30, 0, 0, 255);
+    model.addMotion("test", m1);
+    model.addMotion("test", m2);
+    IAnimatorModelView snapshot = model.snapshot();
+    model.addMotion("test", m3);
+    model.removeMotion("test", m2);
+    assertEquals(Arrays.asList(m1, m2), snapshot.getMotions("test"));
+    assertEquals(Arrays.asList(m1, m3), model.getMotions("test"));
+    assertEquals(10, snapshot.getEndTick("test"));
+    assertEquals(5, model.getEndTick("test"));
+  }
+
+  @Test
+  public void testRemoveMotion() {
+    IAnimatorModel model = ColumnarAnimatorModel.builder().build();
+    model.addShape("test rectangle");
+    IMotion m1 = new Motion(1, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    model.addMotion("test", m1);
+    model.addMotion("test", m2);
+    model.removeMotion("test", new Motion(1, 20, 30, 20, 30, 0, 0, 255));
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m2)), model.getMotions("test"));
+    model.removeShape("test");
+    assertEquals(new LinkedHashSet<String>(), model.getKeys());
+  }
+
+  @Test
+  public void testSameAsListModel() {
+    AnimationBuilder<IAnimatorModel> list = AnimatorModelImpl.builder();
+    AnimationBuilder<IAnimatorModel> columns = ColumnarAnimatorModel.builder();
+    list.setBounds(-20, 10, 300, 400);
+    columns.setBounds(-20, 10, 300, 400);
+    Random random = new Random(42);
+    for (int s = 0; s < 5; s++) {
+      list.declareShape("s" + s, "ellipse");
+      columns.declareShape("s" + s, "ellipse");
+      for (int k = 0; k < 200; k++) {
+        int t = random.nextInt(1000);
+        int x = random.nextInt(100) - 50;
+        // a random keyframe can land on a tick that's already taken, which both must reject
+        boolean listThrew = false;
+        boolean columnsThrew = false;
+        try {
+          list.addKeyframe("s" + s, t, x, x, 5, 5, t % 256, 0, 255);
+        } catch (IllegalArgumentException e) {
+          listThrew = true;
+        }
+        try {
+          columns.addKeyframe("s" + s, t, x, x, 5, 5, t % 256, 0, 255);
+        } catch (IllegalArgumentException e) {
+          columnsThrew = true;
+        }
+        assertEquals(listThrew, columnsThrew);
+      }
+    }
+    IAnimatorModel expected = list.build();
+    IAnimatorModel actual = columns.build();
+    assertEquals(expected.getKeys(), actual.getKeys());
+    for (String key : expected.getKeys()) {
+      assertEquals(expected.getMotions(key), actual.getMotions(key));
+    }
+    assertEquals(expected.getLastMotionTick(), actual.getLastMotionTick());
+    assertEquals(expected.getXBound(), actual.getXBound());
+    assertEquals(expected.getHeight(), actual.getHeight());
+  }
+}
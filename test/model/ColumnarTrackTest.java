@@ -0,0 +1,64 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the columnar keyframe track. Runs every test of the list-backed track
+ * against it, along with tests for its own storage.
+ */
+public class ColumnarTrackTest extends KeyframeTrackTest {
+
+  @Override
+  KeyframeTrack track() {
+    return new ColumnarTrack();
+  }
+
+  @Test
+  public void testGrowPastCapacity() {
+    KeyframeTrack track = track();
+    ArrayList<IMotion> expected = new ArrayList<IMotion>();
+    for (int i = 0; i < 100; i++) {
+      IMotion m = new Motion(i, i, -i, i + 1, 2 * i + 1, i % 256, 255 - i, 7);
+      expected.add(m);
+      track.add(m);
+    }
+    assertEquals(100, track.size());
+    assertEquals(expected, track.copy());
+  }
+
+  @Test
+  public void testColorsRoundTrip() {
+    KeyframeTrack track = track();
+    IMotion m = new Motion(3, -10, 20, 20, 100, 255, 128, 0);
+    track.add(m);
+    assertEquals(m, track.getMotion(0));
+    assertEquals(true, track.matches(0, m));
+    assertEquals(false, track.matches(0, new Motion(3, -10, 20, 20, 100, 255, 128, 1)));
+  }
+
+  @Test
+  public void testInsertAndDeleteMiddle() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 11, 20, 20, 100, 0, 0, 255);
+    IMotion m3 = new Motion(9, 12, 20, 20, 100, 0, 0, 255);
+    track.add(m1);
+    track.add(m3);
+    track.add(m2);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m1, m2, m3)), track.copy());
+    track.delete(1);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m1, m3)), track.copy());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    KeyframeTrack track = track();
+    track.add(new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    track.getMotion(1);
+  }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the compressed animator model that ensures it behaves the same as the
+ * list-backed model.
+ */
+public class CompressedAnimatorModelTest {
+
+  @Test
+  public void testSnapshot() {
+    IAnimatorModel model = CompressedAnimatorModel.builder().build();
+    model.addShape("test rectangle");
+    IMotion m1 = new Motion(1, 20, 30, 20, 30, 0, 0, 255);
+    IMotion m2 = new Motion(10, 40, 60, 20, 30, 0, 0, 255);
+    IMotion m3 = new Motion(5, 40, 60, 20, 30, 0, 0, 255);
+    model.addMotion("test", m1);
+    model.addMotion("test", m2);
+    IAnimatorModelView snapshot = model.snapshot();
+    model.addMotion("test", m3);
+    model.removeMotion("test", m2);
+    assertEquals(Arrays.asList(m1, m2), snapshot.getMotions("test"));
+    assertEquals(Arrays.asList(m1, m3), model.getMotions("test"));
+  }
+
+  @Test
+  public void testSameAsListModel() {
+    AnimationBuilder<IAnimatorModel> list = AnimatorModelImpl.builder();
+    AnimationBuilder<IAnimatorModel> compressed = CompressedAnimatorModel.builder();
+    Random random = new Random(17);
+    for (int s = 0; s < 5; s++) {
+      list.declareShape("s" + s, "rectangle");
+      compressed.declareShape("s" + s, "rectangle");
+      for (int k = 0; k < 300; k++) {
+        int t = random.nextInt(5000);
+        int x = t % 100 - 50;
+        list.addKeyframe("s" + s, t, x, t, 5, 5 + t % 3, t % 256, 0, 255);
+        compressed.addKeyframe("s" + s, t, x, t, 5, 5 + t % 3, t % 256, 0, 255);
+      }
+    }
+    IAnimatorModel expected = list.build();
+    IAnimatorModel actual = compressed.build();
+    for (String key : expected.getKeys()) {
+      assertEquals(expected.getMotions(key), actual.getMotions(key));
+      for (int t = 0; t < 5000; t += 97) {
+        assertEquals(expected.getKeyframeBefore(key, t), actual.getKeyframeBefore(key, t));
+      }
+    }
+    assertEquals(expected.getLastMotionTick(), actual.getLastMotionTick());
+  }
+}
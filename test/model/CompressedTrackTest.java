@@ -0,0 +1,133 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the compressed keyframe track. Runs every test of the list-backed
+ * track against it, along with tests for its blocks, its cursor and how small it is.
+ */
+public class CompressedTrackTest extends KeyframeTrackTest {
+
+  @Override
+  KeyframeTrack track() {
+    return new CompressedTrack();
+  }
+
+  @Test
+  public void testRoundTripExtremes() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(0, Integer.MIN_VALUE, Integer.MAX_VALUE, 1, 1, 255, 255, 255);
+    IMotion m2 = new Motion(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            Integer.MAX_VALUE, 1, 0, 0, 0);
+    track.add(m1);
+    track.add(m2);
+    assertEquals(m1, track.getMotion(0));
+    assertEquals(m2, track.getMotion(1));
+    assertEquals(true, track.matches(1, m2));
+  }
+
+  @Test
+  public void testRandomEditsAgainstList() {
+    Random random = new Random(17);
+    KeyframeTrack list = new ListTrack();
+    KeyframeTrack compressed = track();
+    for (int n = 0; n < 3000; n++) {
+      if (list.size() > 0 && random.nextInt(3) == 0) {
+        IMotion m = list.getMotion(random.nextInt(list.size()));
+        list.remove(m);
+        compressed.remove(m);
+      } else {
+        IMotion m = new Motion(random.nextInt(2000), random.nextInt(50) - 25,
+                random.nextInt(500), random.nextInt(4) + 1, 10, random.nextInt(2) * 255, 0, 7);
+        list.add(m);
+        compressed.add(m);
+      }
+    }
+    assertEquals(list.copy(), compressed.copy());
+    for (int t = -1; t <= 2001; t += 7) {
+      assertEquals(list.floor(t), compressed.floor(t));
+      assertEquals(list.ceiling(t), compressed.ceiling(t));
+    }
+  }
+
+  @Test
+  public void testSearchesAgainstList() {
+    KeyframeTrack list = new ListTrack();
+    KeyframeTrack compressed = track();
+    for (int t = 0; t < 300; t += 3) {
+      IMotion m = new Motion(t, t % 7, t, 10, 10, 0, 0, Math.abs(t) % 255);
+      list.add(m);
+      compressed.add(m);
+    }
+    for (int t = 0; t <= 302; t++) {
+      IMotion m = new Motion(t, t % 7, t, 10, 10, 0, 0, t % 255);
+      IMotion other = new Motion(t, t % 7 + 1, t, 10, 10, 0, 0, t % 255);
+      assertEquals(list.indexOf(t), compressed.indexOf(t));
+      assertEquals(list.find(m), compressed.find(m));
+      assertEquals(-1, compressed.find(other));
+    }
+    assertEquals(-1, compressed.indexOf(-1));
+    assertEquals(-1, compressed.indexOf(Integer.MIN_VALUE));
+    assertEquals(-101, compressed.indexOf(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testCursor() {
+    KeyframeTrack track = track();
+    ArrayList<IMotion> expected = new ArrayList<IMotion>();
+    for (int i = 0; i < 100; i++) {
+      IMotion m = new Motion(2 * i, i, -i, 10, 10, i % 3, 0, 0);
+      expected.add(m);
+      track.add(m);
+    }
+    IKeyframeCursor cursor = track.cursor(40);
+    for (int i = 40; i < 100; i++) {
+      assertEquals(true, cursor.next());
+      assertEquals(i, cursor.getPosition());
+      assertEquals(2 * i, cursor.getTick());
+      assertEquals(expected.get(i), cursor.getMotion());
+    }
+    assertEquals(false, cursor.next());
+    assertEquals(false, track.cursor(100).next());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCursorBeforeNext() {
+    KeyframeTrack track = track();
+    track.add(new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    track.cursor(0).getX();
+  }
+
+  @Test
+  public void testDuplicateIsIndependent() {
+    KeyframeTrack track = track();
+    for (int i = 0; i < 100; i++) {
+      track.add(new Motion(i, i, i, 10, 10, 0, 0, 0));
+    }
+    KeyframeTrack copy = track.duplicate();
+    copy.add(new Motion(50, 7, 7, 10, 10, 0, 0, 0));
+    copy.remove(new Motion(0, 0, 0, 10, 10, 0, 0, 0));
+    assertEquals(100, track.size());
+    assertEquals(0, track.getTick(0));
+    assertEquals(50, track.getX(50));
+    assertEquals(100, copy.size());
+    assertEquals(1, copy.getTick(0));
+  }
+
+  @Test
+  public void testSmallerThanColumns() {
+    KeyframeTrack columns = new ColumnarTrack();
+    KeyframeTrack compressed = track();
+    for (int i = 0; i < 10000; i++) {
+      IMotion m = new Motion(i, 100 + i % 200, 300, 40, 20, 255, 0, 0);
+      columns.add(m);
+      compressed.add(m);
+    }
+    assertEquals(true, compressed.footprint() * 4 < columns.footprint());
+  }
+}
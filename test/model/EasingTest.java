@@ -0,0 +1,93 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for Easing that ensures easings are read, named and followed as intended.
+ */
+public class EasingTest {
+
+  @Test
+  public void testParseNames() {
+    assertEquals(Easing.LINEAR, Easing.parse("linear"));
+    assertEquals(Easing.EASE_IN, Easing.parse("ease-in"));
+    assertEquals(Easing.EASE_OUT, Easing.parse(" Ease-Out "));
+    assertEquals(Easing.EASE_IN_OUT, Easing.parse("ease-in-out"));
+    assertEquals(Easing.EASE_IN, Easing.parse("cubic-bezier(0.42, 0, 1, 1)"));
+    assertEquals(Easing.cubicBezier(0.1, 0.7, 1, 0.1),
+            Easing.parse("cubic-bezier(0.1,0.7,1.0,0.1)"));
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("linear", Easing.LINEAR.toString());
+    assertEquals("ease-in-out", Easing.cubicBezier(0.42, 0, 0.58, 1).toString());
+    Easing easing = Easing.cubicBezier(0.1, -0.5, 0.9, 1.5);
+    assertEquals("cubic-bezier(0.1,-0.5,0.9,1.5)", easing.toString());
+    assertEquals(easing, Easing.parse(easing.toString()));
+  }
+
+  @Test
+  public void testIsLinear() {
+    assertEquals(true, Easing.LINEAR.isLinear());
+    assertEquals(true, Easing.cubicBezier(0.3, 0.3, 0.6, 0.6).isLinear());
+    assertEquals(false, Easing.EASE_IN.isLinear());
+  }
+
+  @Test
+  public void testEase() {
+    assertEquals(0.0, Easing.EASE_IN.ease(0), 0);
+    assertEquals(1.0, Easing.EASE_IN.ease(1), 0);
+    assertEquals(0.0, Easing.EASE_IN.ease(-2), 0);
+    assertEquals(1.0, Easing.EASE_IN.ease(3), 0);
+    assertEquals(0.25, Easing.LINEAR.ease(0.25), 0);
+    assertEquals(0.5, Easing.EASE_IN_OUT.ease(0.5), 1e-9);
+    assertEquals(0.3153, Easing.EASE_IN.ease(0.5), 1e-4);
+    assertEquals(0.6847, Easing.EASE_OUT.ease(0.5), 1e-4);
+    assertEquals(Easing.EASE_IN.ease(0.3), 1 - Easing.EASE_OUT.ease(0.7), 1e-9);
+  }
+
+  @Test
+  public void testEaseSteepCurve() {
+    Easing easing = Easing.cubicBezier(1, 0, 0, 1);
+    double last = 0;
+    for (int i = 0; i <= 100; i++) {
+      double e = easing.ease(i / 100.0);
+      assertEquals(true, e >= last - 1e-9);
+      last = e;
+    }
+    assertEquals(0.5, easing.ease(0.5), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testControlPointPastOne() {
+    Easing.cubicBezier(1.5, 0, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testControlPointNotANumber() {
+    Easing.cubicBezier(0.5, Double.NaN, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseNull() {
+    Easing.parse(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseUnknown() {
+    Easing.parse("bounce");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseTooFewNumbers() {
+    Easing.parse("cubic-bezier(0.1,0.2,0.3)");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseNotNumbers() {
+    Easing.parse("cubic-bezier(a,b,c,d)");
+  }
+}
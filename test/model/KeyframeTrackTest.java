@@ -0,0 +1,148 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the list-backed keyframe track that ensures keyframes are kept in
+ * tick order and can be found by tick.
+ */
+public class KeyframeTrackTest {
+
+  // creates the empty track under test.
+  KeyframeTrack track() {
+    return new ListTrack();
+  }
+
+  @Test
+  public void testEmptyTrack() {
+    KeyframeTrack track = track();
+    assertEquals(0, track.size());
+    assertEquals(-1, track.indexOf(5));
+    assertEquals(new ArrayList<IMotion>(), track.copy());
+  }
+
+  @Test
+  public void testAddInOrder() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m3 = new Motion(9, 10, 20, 20, 100, 0, 0, 255);
+    track.add(m1);
+    track.add(m2);
+    track.add(m3);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m1, m2, m3)), track.copy());
+  }
+
+  @Test
+  public void testAddOutOfOrder() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m3 = new Motion(9, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m4 = new Motion(0, 10, 20, 20, 100, 0, 0, 255);
+    track.add(m3);
+    track.add(m1);
+    track.add(m2);
+    track.add(m4);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m4, m1, m2, m3)), track.copy());
+  }
+
+  @Test
+  public void testIndexOf() {
+    KeyframeTrack track = track();
+    track.add(new Motion(2, 10, 20, 20, 100, 0, 0, 255));
+    track.add(new Motion(4, 10, 20, 20, 100, 0, 0, 255));
+    track.add(new Motion(8, 10, 20, 20, 100, 0, 0, 255));
+    assertEquals(0, track.indexOf(2));
+    assertEquals(1, track.indexOf(4));
+    assertEquals(2, track.indexOf(8));
+    assertEquals(-1, track.indexOf(1));
+    assertEquals(-3, track.indexOf(5));
+    assertEquals(-4, track.indexOf(9));
+  }
+
+  @Test
+  public void testRemove() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 10, 20, 20, 100, 0, 0, 255);
+    track.add(m1);
+    track.add(m2);
+    track.remove(new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m2)), track.copy());
+  }
+
+  @Test
+  public void testContains() {
+    KeyframeTrack track = track();
+    IMotion m1 = new Motion(1, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m2 = new Motion(5, 10, 20, 20, 100, 0, 0, 255);
+    IMotion m3 = new Motion(5, 10, 20, 20, 100, 0, 1, 255);
+    IMotion m4 = new Motion(9, 10, 20, 20, 100, 0, 0, 255);
+    track.add(m1);
+    track.add(m2);
+    track.add(m3);
+    assertEquals(true, track.contains(m1));
+    assertEquals(true, track.contains(m2));
+    assertEquals(true, track.contains(m3));
+    assertEquals(false, track.contains(m4));
+    assertEquals(false, track.contains(new Motion(1, 10, 20, 20, 100, 0, 0, 254)));
+    track.add(m4);
+    assertEquals(true, track.contains(m2));
+    assertEquals(true, track.contains(m3));
+    assertEquals(true, track.remove(m2));
+    assertEquals(false, track.contains(m2));
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(m1, m3, m4)), track.copy());
+  }
+
+  @Test
+  public void testFloorAndCeiling() {
+    KeyframeTrack track = track();
+    assertEquals(-1, track.floor(5));
+    assertEquals(0, track.ceiling(5));
+    for (int t = 10; t <= 50; t += 10) {
+      track.add(new Motion(t, 10, 20, 20, 100, 0, 0, 255));
+    }
+    assertEquals(-1, track.floor(9));
+    assertEquals(0, track.floor(10));
+    assertEquals(0, track.floor(19));
+    assertEquals(4, track.floor(50));
+    assertEquals(4, track.floor(99));
+    assertEquals(0, track.ceiling(9));
+    assertEquals(1, track.ceiling(11));
+    assertEquals(2, track.ceiling(30));
+    assertEquals(5, track.ceiling(51));
+  }
+
+  @Test
+  public void testCursorSeek() {
+    KeyframeTrack track = track();
+    for (int i = 0; i < 100; i++) {
+      track.add(new Motion(3 * i, i, 2 * i, 10, 10, 0, 0, 0));
+    }
+    IKeyframeCursor cursor = track.cursor(0);
+    for (int from : new int[]{70, 5, 5, 99, 0, 64, 100, 33}) {
+      cursor.seek(from);
+      for (int i = from; i < Math.min(from + 40, 100); i++) {
+        assertEquals(true, cursor.next());
+        assertEquals(i, cursor.getPosition());
+        assertEquals(3 * i, cursor.getTick());
+        assertEquals(2 * i, cursor.getY());
+      }
+    }
+    cursor.seek(100);
+    assertEquals(false, cursor.next());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testCursorSeekPastEnd() {
+    KeyframeTrack track = track();
+    track.add(new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    track.cursor(0).seek(2);
+  }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the interval tree over shape lifetimes, checking its queries against
+ * a scan of every lifetime.
+ */
+public class LifetimeIndexTest {
+
+  @Test
+  public void testEmpty() {
+    LifetimeIndex index = new LifetimeIndex(new int[0], new int[0], new int[0], 0);
+    assertEquals(0, index.query(0, 100).length);
+  }
+
+  @Test
+  public void testIdOrder() {
+    int[] shapes = {0, 2, 3};
+    int[] starts = {30, 10, 20};
+    int[] ends = {40, 35, 25};
+    LifetimeIndex index = new LifetimeIndex(shapes, starts, ends, 3);
+    assertEquals("[0, 2]", Arrays.toString(index.query(30, 30)));
+    assertEquals("[2, 3]", Arrays.toString(index.query(20, 25)));
+    assertEquals("[0, 2, 3]", Arrays.toString(index.query(0, 50)));
+    assertEquals("[]", Arrays.toString(index.query(41, 50)));
+  }
+
+  @Test
+  public void testSameAsScan() {
+    Random random = new Random(7);
+    int count = 500;
+    int[] shapes = new int[count];
+    int[] starts = new int[count];
+    int[] ends = new int[count];
+    for (int i = 0; i < count; i++) {
+      shapes[i] = 2 * i;
+      starts[i] = random.nextInt(1000);
+      ends[i] = starts[i] + random.nextInt(random.nextBoolean() ? 10 : 300);
+    }
+    LifetimeIndex index = new LifetimeIndex(shapes, starts, ends, count);
+    for (int q = 0; q < 200; q++) {
+      int from = random.nextInt(1400) - 100;
+      int to = from + random.nextInt(3) * random.nextInt(50);
+      StringBuilder expected = new StringBuilder();
+      for (int i = 0; i < count; i++) {
+        if (starts[i] <= to && ends[i] >= from) {
+          expected.append(expected.length() == 0 ? "" : ", ").append(shapes[i]);
+        }
+      }
+      assertEquals("[" + expected + "]", Arrays.toString(index.query(from, to)));
+    }
+  }
+}
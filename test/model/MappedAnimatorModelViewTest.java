@@ -0,0 +1,184 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the memory-mapped view that ensures what it writes to disk reads back
+ * the same as the in-memory model.
+ */
+public class MappedAnimatorModelViewTest {
+
+  // creates a temporary file to hold an animation.
+  private static File tempFile() throws IOException {
+    File file = File.createTempFile("mapped", ".anim");
+    file.deleteOnExit();
+    return file;
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    IAnimatorModelView view = MappedAnimatorModelView.builder(tempFile()).build();
+    assertEquals(new LinkedHashSet<String>(), view.getKeys());
+    assertEquals(new ArrayList<IMotion>(), view.getMotions(""));
+    assertEquals(0, view.getLastMotionTick());
+    assertEquals(500, view.getWidth());
+    assertEquals(500, view.getHeight());
+  }
+
+  @Test
+  public void testSameAsModel() throws IOException {
+    AnimationBuilder<IAnimatorModel> heap = AnimatorModelImpl.builder();
+    AnimationBuilder<IAnimatorModelView> mapped = MappedAnimatorModelView.builder(tempFile());
+    heap.setBounds(-10, 20, 300, 400);
+    mapped.setBounds(-10, 20, 300, 400);
+    heap.declareShape("R", "rectangle");
+    mapped.declareShape("R", "rectangle");
+    heap.declareShape("C", "ellipse");
+    mapped.declareShape("C", "ellipse");
+    heap.declareShape("E", "circle");
+    mapped.declareShape("E", "circle");
+    for (int t = 0; t < 50; t += 5) {
+      int u = t + 5;
+      heap.addMotion("R", t, t, 2 * t, 10, 10, 255, t, 0, u, u, 2 * u, 10, 10, 255, u, 0);
+      mapped.addMotion("R", t, t, 2 * t, 10, 10, 255, t, 0, u, u, 2 * u, 10, 10, 255, u, 0);
+    }
+    for (int t = 90; t >= 20; t -= 10) {
+      heap.addKeyframe("C", t, -t, t, 3, 4, 0, 0, t);
+      mapped.addKeyframe("C", t, -t, t, 3, 4, 0, 0, t);
+    }
+    heap.addKeyframe("missing", 1, 1, 1, 1, 1, 1, 1, 1);
+    mapped.addKeyframe("missing", 1, 1, 1, 1, 1, 1, 1, 1);
+    IAnimatorModelView expected = heap.build();
+    IAnimatorModelView actual = mapped.build();
+    assertEquals(expected.getKeys(), actual.getKeys());
+    for (String key : expected.getKeys()) {
+      assertEquals(expected.getMotions(key), actual.getMotions(key));
+      assertEquals(expected.getShapeType(key), actual.getShapeType(key));
+    }
+    assertEquals(expected.getLastMotionTick(), actual.getLastMotionTick());
+    assertEquals(expected.getFirstMotionTick(), actual.getFirstMotionTick());
+    assertEquals(expected.getStartTick("C"), actual.getStartTick("C"));
+    assertEquals(expected.getEndTick("C"), actual.getEndTick("C"));
+    assertEquals(expected.getShapeCount(), actual.getShapeCount());
+    for (int id = 0; id < expected.getShapeCount(); id++) {
+      assertEquals(expected.getShapeName(id), actual.getShapeName(id));
+      assertEquals(id, actual.getShapeId(actual.getShapeName(id)));
+      assertEquals(expected.getShapeType(id), actual.getShapeType(id));
+      assertEquals(expected.getTrack(id).size(), actual.getTrack(id).size());
+    }
+    for (int t = -5; t < 100; t += 5) {
+      assertEquals(expected.getActiveShapes(t), actual.getActiveShapes(t));
+      assertEquals(expected.getActiveShapes(t, t + 12), actual.getActiveShapes(t, t + 12));
+    }
+    assertEquals(expected.getXBound(), actual.getXBound());
+    assertEquals(expected.getYBound(), actual.getYBound());
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+  }
+
+  @Test
+  public void testReopen() throws IOException {
+    File file = tempFile();
+    AnimationBuilder<IAnimatorModelView> mapped = MappedAnimatorModelView.builder(file);
+    mapped.declareShape("R", "rectangle");
+    mapped.addKeyframe("R", 10, 1, 2, 3, 4, 5, 6, 7);
+    mapped.addKeyframe("R", 4, 1, 2, 3, 4, 5, 6, 7);
+    mapped.build();
+    IAnimatorModelView view = MappedAnimatorModelView.open(file);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(new Motion(4, 1, 2, 3, 4, 5, 6, 7),
+            new Motion(10, 1, 2, 3, 4, 5, 6, 7))), view.getMotions("R"));
+    assertEquals(10, view.getLastMotionTick());
+  }
+
+  @Test
+  public void testRedeclareTakesNoSpace() throws IOException {
+    File redeclared = tempFile();
+    AnimationBuilder<IAnimatorModelView> mapped = MappedAnimatorModelView.builder(redeclared);
+    mapped.declareShape("R", "rectangle");
+    mapped.declareShape("C", "ellipse");
+    for (int t = 0; t < 100; t++) {
+      mapped.addKeyframe("R", t, t, 2, 3, 4, 5, 6, 7);
+    }
+    mapped.addKeyframe("C", 3, 1, 2, 3, 4, 5, 6, 7);
+    mapped.declareShape("R", "ellipse");
+    mapped.addKeyframe("R", 4, 1, 2, 3, 4, 5, 6, 7);
+    mapped.build();
+
+    File declaredOnce = tempFile();
+    mapped = MappedAnimatorModelView.builder(declaredOnce);
+    mapped.declareShape("R", "ellipse");
+    mapped.declareShape("C", "ellipse");
+    mapped.addKeyframe("C", 3, 1, 2, 3, 4, 5, 6, 7);
+    mapped.addKeyframe("R", 4, 1, 2, 3, 4, 5, 6, 7);
+    mapped.build();
+
+    IAnimatorModelView view = MappedAnimatorModelView.open(redeclared);
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(new Motion(4, 1, 2, 3, 4, 5, 6, 7))),
+            view.getMotions("R"));
+    assertEquals(new ArrayList<IMotion>(Arrays.asList(new Motion(3, 1, 2, 3, 4, 5, 6, 7))),
+            view.getMotions("C"));
+    assertEquals(ShapeType.ELLIPSE, view.getShapeType("R"));
+    assertEquals(declaredOnce.length(), redeclared.length());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOverlapping() throws IOException {
+    AnimationBuilder<IAnimatorModelView> mapped = MappedAnimatorModelView.builder(tempFile());
+    mapped.declareShape("R", "rectangle");
+    mapped.addKeyframe("R", 10, 1, 2, 3, 4, 5, 6, 7);
+    mapped.addKeyframe("R", 10, 2, 2, 3, 4, 5, 6, 7);
+    mapped.build();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetShapeTypeNone() throws IOException {
+    MappedAnimatorModelView.builder(tempFile()).build().getShapeType("R");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullFile() {
+    MappedAnimatorModelView.builder(null);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenNotAnimation() throws IOException {
+    File file = tempFile();
+    FileWriter writer = new FileWriter(file);
+    writer.write("canvas 0 0 100 100");
+    writer.close();
+    MappedAnimatorModelView.open(file);
+  }
+
+  @Test
+  public void testReopenEasings() throws IOException {
+    File file = tempFile();
+    AnimationBuilder<IAnimatorModelView> mapped = MappedAnimatorModelView.builder(file);
+    mapped.declareShape("R", "rectangle");
+    mapped.declareShape("C", "ellipse");
+    for (int t = 0; t <= 30; t += 10) {
+      mapped.addKeyframe("R", t, t, 2, 3, 4, 5, 6, 7);
+      mapped.addKeyframe("C", t, t, 2, 3, 4, 5, 6, 7);
+    }
+    mapped.setEasing("R", 20, "ease-out");
+    mapped.setEasing("R", 0, "cubic-bezier(0.1,-0.5,0.9,1.5)");
+    mapped.setEasing("missing", 0, "ease-in");
+    mapped.build();
+    IAnimatorModelView view = MappedAnimatorModelView.open(file);
+    assertEquals(Easing.cubicBezier(0.1, -0.5, 0.9, 1.5), view.getEasing("R", 0));
+    assertEquals(Easing.LINEAR, view.getEasing("R", 10));
+    assertEquals(Easing.EASE_OUT, view.getEasing(view.getShapeId("R"), 20));
+    assertEquals(Easing.LINEAR, view.getEasing("C", 20));
+    assertEquals(Easing.LINEAR, view.getEasing("missing", 0));
+  }
+}
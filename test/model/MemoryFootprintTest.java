@@ -0,0 +1,88 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the memory estimates a model gives, ensuring the sizes follow the
+ * layout of the objects involved and that the estimate for a model adds up over its shapes.
+ */
+public class MemoryFootprintTest {
+
+  // creates a model of the given kind with two shapes holding the given number of keyframes each.
+  private static IAnimatorModel model(IAnimatorModel model, int keyframes) {
+    model.addShape("a rectangle");
+    model.addShape("a_much_longer ellipse");
+    for (int t = 0; t < keyframes; t++) {
+      model.addMotion("a", new Motion(t, t, t, 10, 10, 0, 0, 0));
+      model.addMotion("a_much_longer", new Motion(t, t, t, 10, 10, 0, 0, 0));
+    }
+    return model;
+  }
+
+  @Test
+  public void testLayout() {
+    assertEquals(16, MemoryFootprint.object(0, 0));
+    assertEquals(16, MemoryFootprint.object(1, 0));
+    assertEquals(48, MemoryFootprint.object(0, 32));
+    assertEquals(16, MemoryFootprint.array(4, 0));
+    assertEquals(24, MemoryFootprint.array(4, 1));
+    assertEquals(56, MemoryFootprint.array(4, 10));
+    assertEquals(24 + 24, MemoryFootprint.string("someone"));
+    assertEquals(80, MemoryFootprint.table(12));
+    assertEquals(144, MemoryFootprint.table(13));
+  }
+
+  @Test
+  public void testTotal() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder().build(), 10);
+    MemoryFootprint a = model.getFootprint("a");
+    MemoryFootprint longer = model.getFootprint("a_much_longer");
+    MemoryFootprint total = model.getFootprint();
+    assertEquals(a.getKeyframeBytes() + longer.getKeyframeBytes(), total.getKeyframeBytes());
+    assertEquals(true, total.getShapeBytes() > a.getShapeBytes() + longer.getShapeBytes());
+    assertEquals(total.getKeyframeBytes() + total.getShapeBytes() + total.getIndexBytes(),
+            total.getTotalBytes());
+    assertEquals(8, longer.getShapeBytes() - a.getShapeBytes());
+  }
+
+  @Test
+  public void testKeyframesGrow() {
+    IAnimatorModel small = model(AnimatorModelImpl.builder().build(), 10);
+    IAnimatorModel large = model(AnimatorModelImpl.builder().build(), 20);
+    assertEquals(10 * (48 + 4), large.getFootprint("a").getKeyframeBytes()
+            - small.getFootprint("a").getKeyframeBytes());
+    assertEquals(small.getFootprint("a").getShapeBytes(),
+            large.getFootprint("a").getShapeBytes());
+  }
+
+  @Test
+  public void testColumnarIsSmaller() {
+    IAnimatorModel list = model(AnimatorModelImpl.builder().build(), 1000);
+    IAnimatorModel columns = model(ColumnarAnimatorModel.builder().build(), 1000);
+    assertEquals(true, columns.getFootprint().getKeyframeBytes() * 2
+            < list.getFootprint().getKeyframeBytes());
+  }
+
+  @Test
+  public void testIndexBuiltLazily() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder().build(), 10);
+    model.addShape("empty circle");
+    assertEquals(0, model.getFootprint().getIndexBytes());
+    model.getActiveShapes(3);
+    assertEquals(16, model.getFootprint("a").getIndexBytes());
+    assertEquals(0, model.getFootprint("empty").getIndexBytes());
+    assertEquals(32 + 4 * 24, model.getFootprint().getIndexBytes());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownShape() {
+    AnimatorModelImpl.builder().build().getFootprint("a");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullShape() {
+    AnimatorModelImpl.builder().build().getFootprint(null);
+  }
+}
@@ -0,0 +1,154 @@
+package model;
+
+import org.junit.Test;
+
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the change events a model sends its listeners, ensuring each edit
+ * is reported with the shape and range of ticks it affects.
+ */
+public class ModelListenerTest {
+
+  /**
+   * A listener that writes down every event it hears about.
+   */
+  private static class Recorder implements IModelListener {
+    private final StringBuilder log = new StringBuilder();
+
+    @Override
+    public void shapeAdded(String shape) {
+      log.append(String.format("+%s ", shape));
+    }
+
+    @Override
+    public void shapeRemoved(String shape) {
+      log.append(String.format("-%s ", shape));
+    }
+
+    @Override
+    public void keyframeAdded(String shape, int fromTick, int toTick) {
+      log.append(String.format("+%s[%d,%d] ", shape, fromTick, toTick));
+    }
+
+    @Override
+    public void keyframeRemoved(String shape, int fromTick, int toTick) {
+      log.append(String.format("-%s[%d,%d] ", shape, fromTick, toTick));
+    }
+
+    @Override
+    public void keyframesChanged(String shape, int fromTick, int toTick) {
+      log.append(String.format("~%s[%d,%d] ", shape, fromTick, toTick));
+    }
+  }
+
+  // creates a keyframe at the given tick.
+  private static IMotion at(int tick) {
+    return new Motion(tick, tick, tick, 10, 10, 0, 0, 0);
+  }
+
+  @Test
+  public void testShapeEvents() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    Recorder recorder = new Recorder();
+    model.addListener(recorder);
+    model.addShape("a rectangle");
+    model.addShape("a ellipse");
+    model.removeShape("a");
+    model.removeShape("b");
+    assertEquals("+a -a +a -a ", recorder.log.toString());
+  }
+
+  @Test
+  public void testKeyframeRanges() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    Recorder recorder = new Recorder();
+    model.addListener(recorder);
+    model.addMotion("a", at(10));
+    model.addMotion("a", at(20));
+    model.addMotion("a", at(5));
+    model.addMotion("a", at(15));
+    model.addMotion("a", at(15));
+    model.removeMotion("a", at(15));
+    model.removeMotion("a", at(5));
+    model.removeMotion("a", at(7));
+    model.addMotion("b", at(7));
+    assertEquals("+a[10,10] +a[10,20] +a[5,10] +a[10,20] -a[10,20] -a[5,10] ",
+            recorder.log.toString());
+  }
+
+  @Test
+  public void testRemoveListener() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    Recorder recorder = new Recorder();
+    model.addListener(recorder);
+    model.addShape("a rectangle");
+    model.removeListener(recorder);
+    model.addMotion("a", at(10));
+    assertEquals("+a ", recorder.log.toString());
+  }
+
+  @Test
+  public void testSnapshotIsQuiet() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    IAnimatorModelView snapshot = model.snapshot();
+    Recorder recorder = new Recorder();
+    snapshot.addListener(recorder);
+    model.addShape("a rectangle");
+    assertEquals("", recorder.log.toString());
+  }
+
+  @Test
+  public void testBatchEvents() {
+    AnimationBuilder<IAnimatorModel> builder = ColumnarAnimatorModel.builder();
+    builder.declareShape("a", "rectangle");
+    builder.addKeyframe("a", 30, 1, 1, 1, 1, 1, 1, 1);
+    IAnimatorModel model = builder.build();
+    Recorder recorder = new Recorder();
+    model.addListener(recorder);
+    builder.addKeyframes("a", new int[]{12, 1, 1, 1, 1, 1, 1, 1, 4, 1, 1, 1, 1, 1, 1, 1}, 2);
+    builder.build();
+    assertEquals("~a[4,30] ", recorder.log.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddNullListener() {
+    AnimatorModelImpl.builder().build().addListener(null);
+  }
+
+  @Test
+  public void testEasingRange() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", at(10));
+    model.addMotion("a", at(20));
+    Recorder recorder = new Recorder();
+    model.addListener(recorder);
+    model.setEasing("a", 10, Easing.EASE_IN);
+    model.setEasing("a", 10, Easing.EASE_IN);
+    model.setEasing("b", 10, Easing.EASE_IN);
+    model.setEasing("a", 10, Easing.LINEAR);
+    assertEquals("~a[10,20] ~a[10,20] ", recorder.log.toString());
+  }
+
+  @Test
+  public void testListenerEditsModel() {
+    final IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addListener(new Recorder() {
+      @Override
+      public void keyframeAdded(String shape, int fromTick, int toTick) {
+        model.setWidth(toTick + 100);
+        if (toTick < 5) {
+          model.addMotion(shape, at(toTick + 5));
+        }
+      }
+    });
+    model.addMotion("a", at(1));
+    assertEquals(106, model.getWidth());
+    assertEquals(2, model.getTrack("a").size());
+  }
+}
@@ -2,6 +2,8 @@ package model;
 
 import org.junit.Test;
 
+import java.util.Objects;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -161,4 +163,11 @@ public class MotionTest {
     IMotion m = new Motion(1, 10, 2, 20, 100, 0, 0, 255);
     m.changeSize(null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testHashCode() {
+    Motion m = new Motion(3, -10, 20, 30, 40, 50, 60, 70);
+    assertEquals(Objects.hash(3, -10, 20, 30, 40, 50, 60, 70), m.hashCode());
+    assertEquals(m.hashCode(), m.copy().hashCode());
+  }
+}
@@ -0,0 +1,42 @@
+package view;
+
+import org.junit.Test;
+
+import model.Easing;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the easing table, ensuring its samples follow the curve of the easing
+ * closely enough to stand in for it.
+ */
+public class EasingTableTest {
+
+  @Test
+  public void testFollowsEasing() {
+    Easing[] easings = {Easing.LINEAR, Easing.EASE_IN, Easing.EASE_OUT, Easing.EASE_IN_OUT,
+        Easing.cubicBezier(0.1, -0.6, 0.2, 1.6), Easing.cubicBezier(1, 0, 0, 1)};
+    for (Easing easing : easings) {
+      EasingTable table = new EasingTable(easing);
+      for (int i = 0; i <= 1000; i++) {
+        double progress = i / 1000.0;
+        assertEquals(easing.ease(progress), table.ease(progress), 1e-4);
+      }
+    }
+  }
+
+  @Test
+  public void testEnds() {
+    EasingTable table = new EasingTable(Easing.EASE_IN);
+    assertEquals(0.0, table.ease(0), 0);
+    assertEquals(1.0, table.ease(1), 0);
+    assertEquals(0.0, table.ease(-1), 0);
+    assertEquals(1.0, table.ease(2), 0);
+    assertEquals(0.0, table.ease(Double.NaN), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullEasing() {
+    new EasingTable(null);
+  }
+}
@@ -0,0 +1,64 @@
+package view;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for fixed-point interpolation, ensuring it gives exactly the ints the
+ * double formula gives, including at ticks where the double formula rounds to a neighbour.
+ */
+public class FixedPointTest {
+
+  // checks every tick of a segment against the double formula.
+  private static void check(int ta, int tb, int a, int b) {
+    long slope = FixedPoint.slope(a, b, tb - ta);
+    for (int t = ta + 1; t <= tb; t++) {
+      assertEquals((int) ScalarKernel.interpolate(t, ta, tb, a, b),
+              FixedPoint.interpolate(t, ta, tb, a, b, slope));
+    }
+  }
+
+  @Test
+  public void testSmallSegments() {
+    for (int span = 1; span <= 12; span++) {
+      for (int a = -20; a <= 20; a++) {
+        for (int b = -20; b <= 20; b++) {
+          check(3, 3 + span, a, b);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnchangedChannels() {
+    for (int a = -300; a <= 300; a++) {
+      check(0, 97, a, a);
+      check(1000, 1003, a, a);
+    }
+  }
+
+  @Test
+  public void testRandomSegments() {
+    Random random = new Random(23);
+    for (int n = 0; n < 3000; n++) {
+      int range = random.nextBoolean() ? 1000 : FixedPoint.LIMIT - 1;
+      int ta = random.nextInt(1000);
+      int span = 1 + random.nextInt(random.nextBoolean() ? 200 : 2000);
+      check(ta, ta + span, random.nextInt(2 * range + 1) - range,
+              random.nextInt(2 * range + 1) - range);
+    }
+  }
+
+  @Test
+  public void testFits() {
+    int[] small = {0, 10, -10, 255};
+    int[] large = {0, FixedPoint.LIMIT, 0, 0};
+    assertEquals(true, FixedPoint.fits(0, 100, small, small, 1));
+    assertEquals(false, FixedPoint.fits(0, FixedPoint.LIMIT, small, small, 1));
+    assertEquals(false, FixedPoint.fits(0, 100, small, large, 1));
+    assertEquals(true, FixedPoint.fits(0, 100, large, small, 2));
+  }
+}
@@ -0,0 +1,153 @@
+package view;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import model.AnimatorModelImpl;
+import model.CompressedAnimatorModel;
+import model.IAnimatorModel;
+import model.IMotion;
+import model.ShapeType;
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the frame buffer, ensuring it holds the shapes of a frame as the
+ * evaluator works them out and that playing an animation into it doesn't allocate. A pass over the
+ * animation may allocate while the JIT compiles the code it runs, and the vector kernel allocates
+ * until it's compiled, so the allocation tests check that once warmed up, whole passes over the
+ * animation allocate nothing.
+ */
+public class FrameBufferTest {
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  // creates a model with shapes that come and go over 300 ticks.
+  private static IAnimatorModel model(AnimationBuilder<IAnimatorModel> builder) {
+    Random random = new Random(19);
+    for (int s = 0; s < 40; s++) {
+      builder.declareShape("s" + s, s % 3 == 0 ? "circle" : "rectangle");
+      int start = random.nextInt(200);
+      for (int t = start; t < start + 100; t += 1 + random.nextInt(9)) {
+        builder.addKeyframe("s" + s, t, t % 41, t % 17, 5 + t % 7, 8, t % 256, s, 255);
+      }
+    }
+    return builder.build();
+  }
+
+  // gets the bytes allocated by this thread so far.
+  private static long allocated() {
+    return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  @Test
+  public void testAddAndGrow() {
+    FrameBuffer frame = new FrameBuffer();
+    for (int i = 0; i < 100; i++) {
+      frame.add(i, ShapeType.ELLIPSE, i, -i, 2 * i, 3 * i, i, 0, 255);
+    }
+    assertEquals(100, frame.size());
+    assertEquals(70, frame.getId(70));
+    assertEquals(ShapeType.ELLIPSE, frame.getType(70));
+    assertEquals(-70, frame.getY(70));
+    assertEquals(140, frame.getWidth(70));
+    assertEquals(210, frame.getHeight(70));
+    assertEquals(0xFF4600FF, frame.getColor(70));
+    frame.clear();
+    assertEquals(0, frame.size());
+    frame.add(5, ShapeType.RECTANGLE, 1, 2, 3, 4, 255, 128, 0);
+    assertEquals(1, frame.size());
+    assertEquals(5, frame.getId(0));
+    assertEquals(0xFFFF8000, frame.getColor(0));
+  }
+
+  @Test
+  public void testMatchesShapeByShape() {
+    IAnimatorModel model = model(CompressedAnimatorModel.builder());
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    FrameEvaluator single = new FrameEvaluator(model);
+    FrameBuffer frame = new FrameBuffer();
+    for (int t = 0; t < 320; t++) {
+      evaluator.evaluate(t, frame);
+      int drawn = 0;
+      for (int id = 0; id < model.getShapeCount(); id++) {
+        IMotion m = single.evaluate(id, t);
+        if (m != null) {
+          assertEquals(id, frame.getId(drawn));
+          assertEquals(model.getShapeType(id), frame.getType(drawn));
+          assertEquals(m.getX(), frame.getX(drawn));
+          assertEquals(m.getY(), frame.getY(drawn));
+          assertEquals(m.getWidth(), frame.getWidth(drawn));
+          assertEquals(m.getHeight(), frame.getHeight(drawn));
+          assertEquals(0xFF000000 | m.getRed() << 16 | m.getGreen() << 8 | m.getBlue(),
+                  frame.getColor(drawn));
+          drawn++;
+        }
+      }
+      assertEquals(drawn, frame.size());
+    }
+  }
+
+  @Test
+  public void testBlendTowardMatchesEvaluator() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder());
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    FrameBuffer exact = new FrameBuffer();
+    FrameBuffer blended = new FrameBuffer();
+    FrameBuffer next = new FrameBuffer();
+    for (int t = 0; t < 300; t++) {
+      evaluator.evaluate(t + 1, next);
+      for (double fraction = 0.25; fraction < 1; fraction += 0.25) {
+        evaluator.evaluate(t + fraction, exact);
+        evaluator.evaluate(t, blended);
+        blended.blendToward(next, fraction);
+        assertEquals(exact.size(), blended.size());
+        for (int i = 0; i < exact.size(); i++) {
+          assertEquals(exact.getId(i), blended.getId(i));
+          assertEquals(exact.getType(i), blended.getType(i));
+          assertEquals(exact.getX(i), blended.getX(i), 1);
+          assertEquals(exact.getY(i), blended.getY(i), 1);
+          assertEquals(exact.getWidth(i), blended.getWidth(i), 1);
+          assertEquals(exact.getColor(i) >> 16 & 0xFF, blended.getColor(i) >> 16 & 0xFF, 1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPlaybackAllocatesNothing() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder());
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    FrameBuffer frame = new FrameBuffer();
+    long least = Long.MAX_VALUE;
+    for (int loop = 0; loop < 1000 && least > 0; loop++) {
+      long overhead = -allocated() + allocated();
+      long before = allocated();
+      for (int t = 0; t < 320; t++) {
+        evaluator.evaluate(t, frame);
+      }
+      least = Math.min(least, allocated() - before - overhead);
+    }
+    assertEquals(0, least);
+  }
+
+  @Test
+  public void testPanelPlaybackAllocatesNothing() {
+    IAnimatorModel model = model(CompressedAnimatorModel.builder());
+    AnimatorPanel panel = new AnimatorPanel(model, 0);
+    long least = Long.MAX_VALUE;
+    for (int loop = 0; loop < 1000 && least > 0; loop++) {
+      long overhead = -allocated() + allocated();
+      long before = allocated();
+      for (int t = 0; t < 320; t++) {
+        panel.setFrames(t);
+      }
+      least = Math.min(least, allocated() - before - overhead);
+    }
+    assertEquals(0, least);
+  }
+}
@@ -0,0 +1,164 @@
+package view;
+
+import org.junit.Test;
+
+import model.AnimatorModelImpl;
+import model.IAnimatorModel;
+import model.Motion;
+import model.ShapeType;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the baked frame cache, ensuring it hands back the frames it was
+ * given, stays within its budget by dropping the least recently used frames, and forgets frames an
+ * edit changed.
+ */
+public class FrameCacheTest {
+
+  // creates a model with a shape moving right over ticks 0 to 100.
+  private static IAnimatorModel model() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(0, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(100, 100, 0, 10, 10, 0, 0, 0));
+    return model;
+  }
+
+  // creates a frame holding the given number of shapes.
+  private static FrameBuffer frame(int shapes, int x) {
+    FrameBuffer frame = new FrameBuffer();
+    for (int i = 0; i < shapes; i++) {
+      frame.add(i, ShapeType.RECTANGLE, x, i, 10, 10, 0, 0, 0);
+    }
+    return frame;
+  }
+
+  // gets the bytes a cached frame with the given number of shapes is charged.
+  private static long cost(int shapes) {
+    return new FrameBuffer(shapes).footprint() + 56;
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    FrameCache cache = new FrameCache(model(), 1 << 20);
+    FrameBuffer frame = frame(3, 7);
+    assertEquals(false, cache.get(5, frame));
+    assertEquals(3, frame.size());
+    cache.put(5, frame, cache.getEdits());
+    FrameBuffer out = new FrameBuffer(0);
+    assertEquals(true, cache.get(5, out));
+    assertEquals(3, out.size());
+    assertEquals(7, out.getX(2));
+    assertEquals(2, out.getY(2));
+    frame.clear();
+    assertEquals(true, cache.get(5, out));
+    assertEquals(3, out.size());
+    assertEquals(cost(3), cache.getBytes());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    FrameCache cache = new FrameCache(model(), 3 * cost(4));
+    for (int t = 0; t < 3; t++) {
+      cache.put(t, frame(4, t), cache.getEdits());
+    }
+    FrameBuffer out = new FrameBuffer();
+    assertEquals(true, cache.get(0, out));
+    cache.put(3, frame(4, 3), cache.getEdits());
+    assertEquals(3, cache.size());
+    assertEquals(false, cache.get(1, out));
+    assertEquals(true, cache.get(0, out));
+    assertEquals(true, cache.get(2, out));
+    assertEquals(true, cache.get(3, out));
+    cache.put(4, frame(8, 4), cache.getEdits());
+    assertEquals(true, cache.getBytes() <= 3 * cost(4));
+    assertEquals(true, cache.get(4, out));
+    assertEquals(false, cache.get(0, out));
+    cache.put(5, frame(100, 5), cache.getEdits());
+    assertEquals(false, cache.get(5, out));
+  }
+
+  @Test
+  public void testEditsInvalidateRange() {
+    IAnimatorModel model = model();
+    model.addMotion("a", new Motion(200, 0, 0, 10, 10, 0, 0, 0));
+    FrameCache cache = new FrameCache(model, 1 << 20);
+    for (int t = 0; t <= 200; t += 10) {
+      cache.put(t, frame(1, t), cache.getEdits());
+    }
+    model.addMotion("a", new Motion(50, 0, 0, 10, 10, 0, 0, 0));
+    FrameBuffer out = new FrameBuffer();
+    for (int t = 0; t <= 200; t += 10) {
+      assertEquals(t > 100, cache.get(t, out));
+    }
+    cache.put(30, frame(1, 30), cache.getEdits());
+    model.addShape("b ellipse");
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getBytes());
+  }
+
+  @Test
+  public void testStaleFrameNotKept() {
+    IAnimatorModel model = model();
+    FrameCache cache = new FrameCache(model, 1 << 20);
+    int edits = cache.getEdits();
+    model.removeMotion("a", new Motion(100, 100, 0, 10, 10, 0, 0, 0));
+    cache.put(60, frame(1, 60), edits);
+    assertEquals(false, cache.get(60, new FrameBuffer()));
+  }
+
+  @Test
+  public void testPanelUsesCache() {
+    IAnimatorModel model = model();
+    AnimatorPanel panel = new AnimatorPanel(model, 0, 1 << 20);
+    for (int loop = 0; loop < 2; loop++) {
+      for (int t = 0; t <= 100; t++) {
+        panel.setFrames(t);
+        assertEquals("a", panel.getShapeAt(t + 5, 5));
+      }
+    }
+    model.addMotion("a", new Motion(50, 0, 0, 10, 10, 0, 0, 0));
+    panel.setFrames(50);
+    assertEquals("a", panel.getShapeAt(5, 5));
+    assertEquals(null, panel.getShapeAt(55, 5));
+  }
+
+  @Test
+  public void testPanelPlaysFractionalTimesFromCache() {
+    IAnimatorModel model = model();
+    FrameCache cache = new FrameCache(model, 1 << 20);
+    AnimatorPanel panel = new AnimatorPanel(model, 0, cache);
+    for (double t = 0; t < 100; t += 0.25) {
+      panel.setTime(t);
+      assertEquals("a", panel.getShapeAt((int) t + 5, 5));
+    }
+    assertEquals(101, cache.size());
+    int hits = cache.getHits();
+    for (double t = 0; t < 100; t += 0.25) {
+      panel.setTime(t);
+      assertEquals("a", panel.getShapeAt((int) t + 5, 5));
+    }
+    // each time between two ticks blends two cached frames, and each whole tick draws one.
+    assertEquals(hits + 2 * 300 + 100, cache.getHits());
+    assertEquals(101, cache.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadBudget() {
+    new FrameCache(model(), 0);
+  }
+
+  @Test
+  public void testCloseStopsListening() {
+    IAnimatorModel model = model();
+    FrameCache cache = new FrameCache(model, 1 << 20);
+    cache.put(30, frame(1, 30), cache.getEdits());
+    cache.close();
+    assertEquals(0, cache.size());
+    int edits = cache.getEdits();
+    model.addMotion("a", new Motion(50, 0, 0, 10, 10, 0, 0, 0));
+    model.addShape("b ellipse");
+    assertEquals(edits, cache.getEdits());
+  }
+}
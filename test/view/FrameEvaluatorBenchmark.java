@@ -0,0 +1,75 @@
+package view;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import model.CompressedAnimatorModel;
+import model.IAnimatorModel;
+import util.AnimationBuilder;
+
+/**
+ * A benchmark of evaluating frames of an animation of many independently moving shapes, run as a
+ * program rather than a test. It evaluates the same frames on pools of 1, 2, 4 and so on up to the
+ * number of cores, and prints the time per frame and the speedup over a single thread for each.
+ * The number of shapes can be given as the first argument, and defaults to 100000.
+ */
+final class FrameEvaluatorBenchmark {
+
+  private static final int TICKS = 200;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of shapes to animate, if given
+   */
+  public static void main(String[] args) {
+    int shapes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    IAnimatorModel model = model(shapes);
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.println(String.format("%d shapes, %d cores", shapes, cores));
+    double single = 0;
+    for (int threads = 1; threads <= cores; threads = threads < cores
+            ? Math.min(threads * 2, cores) : threads + 1) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      double nanos = time(new FrameEvaluator(model, pool));
+      pool.shutdown();
+      if (threads == 1) {
+        single = nanos;
+      }
+      System.out.println(String.format("%3d threads: %10.0f ns/frame, speedup %.2f", threads,
+              nanos, single / nanos));
+    }
+  }
+
+  // creates a model of shapes that each wander between a keyframe every ten ticks.
+  private static IAnimatorModel model(int shapes) {
+    AnimationBuilder<IAnimatorModel> builder = CompressedAnimatorModel.builder();
+    Random random = new Random(21);
+    for (int s = 0; s < shapes; s++) {
+      builder.declareShape("s" + s, "ellipse");
+      for (int t = 0; t <= TICKS; t += 10) {
+        builder.addKeyframe("s" + s, t, random.nextInt(800), random.nextInt(800),
+                5 + random.nextInt(20), 5 + random.nextInt(20), random.nextInt(256),
+                random.nextInt(256), random.nextInt(256));
+      }
+    }
+    return builder.build();
+  }
+
+  // plays the animation a few times to warm up, then gets the average time of a frame.
+  private static double time(FrameEvaluator evaluator) {
+    FrameBuffer frame = new FrameBuffer();
+    for (int pass = 0; pass < 3; pass++) {
+      for (int t = 0; t < TICKS; t++) {
+        evaluator.evaluate(t, frame);
+      }
+    }
+    long start = System.nanoTime();
+    for (int pass = 0; pass < 5; pass++) {
+      for (int t = 0; t < TICKS; t++) {
+        evaluator.evaluate(t, frame);
+      }
+    }
+    return (System.nanoTime() - start) / (5.0 * TICKS);
+  }
+}
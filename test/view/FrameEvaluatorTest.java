@@ -0,0 +1,261 @@
+package view;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import model.AnimatorModelImpl;
+import model.CompressedAnimatorModel;
+import model.Easing;
+import model.IAnimatorModel;
+import model.IMotion;
+import model.Motion;
+import util.AnimationBuilder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the frame evaluator, ensuring that walking forward, jumping around
+ * and editing the model give the same frames as evaluating each tick from scratch.
+ */
+public class FrameEvaluatorTest {
+
+  // creates a model with a few shapes whose keyframes are spread randomly over 500 ticks.
+  private static IAnimatorModel model(AnimationBuilder<IAnimatorModel> builder) {
+    Random random = new Random(18);
+    for (int s = 0; s < 6; s++) {
+      builder.declareShape("s" + s, s % 2 == 0 ? "rectangle" : "ellipse");
+      for (int k = 0; k < 40; k++) {
+        int t = random.nextInt(500);
+        builder.addKeyframe("s" + s, t, t % 37, t % 23, 10 + t % 5, 10, t % 256, 0, 255);
+      }
+    }
+    return builder.build();
+  }
+
+  // evaluates a shape at a tick with an evaluator that has never seen the model.
+  private static IMotion fresh(IAnimatorModel model, int id, int tick) {
+    return new FrameEvaluator(model).evaluate(id, tick);
+  }
+
+  @Test
+  public void testSequential() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder());
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    for (int t = 0; t < 520; t++) {
+      for (int id = 0; id < model.getShapeCount(); id++) {
+        assertEquals(fresh(model, id, t), evaluator.evaluate(id, t));
+      }
+    }
+  }
+
+  @Test
+  public void testSeeks() {
+    IAnimatorModel model = model(CompressedAnimatorModel.builder());
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    Random random = new Random(3);
+    for (int n = 0; n < 2000; n++) {
+      int t = random.nextInt(3) == 0 ? random.nextInt(520) : n % 520;
+      int id = random.nextInt(model.getShapeCount());
+      assertEquals(fresh(model, id, t), evaluator.evaluate(id, t));
+    }
+  }
+
+  @Test
+  public void testInterpolation() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(10, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(20, 100, 50, 10, 10, 0, 0, 0));
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    assertEquals(null, evaluator.evaluate(0, 9));
+    assertEquals(new Motion(10, 0, 0, 10, 10, 0, 0, 0), evaluator.evaluate(0, 10));
+    assertEquals(new Motion(13, 30, 15, 10, 10, 0, 0, 0), evaluator.evaluate(0, 13));
+    assertEquals(new Motion(20, 100, 50, 10, 10, 0, 0, 0), evaluator.evaluate(0, 20));
+    assertEquals(null, evaluator.evaluate(0, 21));
+  }
+
+  @Test
+  public void testEdits() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(0, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(100, 100, 0, 10, 10, 0, 0, 0));
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    assertEquals(50, evaluator.evaluate(0, 50).getX());
+    model.addMotion("a", new Motion(60, 0, 0, 10, 10, 0, 0, 0));
+    assertEquals(0, evaluator.evaluate(0, 50).getX());
+    model.addShape("b rectangle");
+    model.removeShape("a");
+    assertEquals(null, evaluator.evaluate(0, 50));
+  }
+
+  @Test
+  public void testParallelFrame() {
+    AnimationBuilder<IAnimatorModel> builder = CompressedAnimatorModel.builder();
+    for (int s = 0; s < 10000; s++) {
+      builder.declareShape("s" + s, "ellipse");
+      builder.addKeyframe("s" + s, s % 7, s % 100, s % 50, 10, 10, 0, 0, 0);
+      builder.addKeyframe("s" + s, 20 + s % 13, s % 90, s % 60, 20, 10, 255, s % 256, 0);
+    }
+    IAnimatorModel model = builder.build();
+    FrameEvaluator evaluator = new FrameEvaluator(model, new ForkJoinPool(4));
+    FrameEvaluator single = new FrameEvaluator(model);
+    FrameBuffer frame = new FrameBuffer();
+    for (int t = 0; t < 35; t++) {
+      evaluator.evaluate(t, frame);
+      int drawn = 0;
+      for (int id = 0; id < model.getShapeCount(); id++) {
+        IMotion m = single.evaluate(id, t);
+        if (m != null) {
+          assertEquals(id, frame.getId(drawn));
+          assertEquals(m.getX(), frame.getX(drawn));
+          assertEquals(m.getWidth(), frame.getWidth(drawn));
+          assertEquals(0xFF000000 | m.getRed() << 16 | m.getGreen() << 8 | m.getBlue(),
+                  frame.getColor(drawn));
+          drawn++;
+        }
+      }
+      assertEquals(drawn, frame.size());
+    }
+  }
+
+  @Test
+  public void testFixedPointMatchesDoubles() {
+    IAnimatorModel model = model(AnimatorModelImpl.builder());
+    FrameEvaluator fixed = new FrameEvaluator(model, ForkJoinPool.commonPool(), new ScalarKernel(),
+            true);
+    FrameEvaluator doubles = new FrameEvaluator(model, ForkJoinPool.commonPool(),
+            new ScalarKernel(), false);
+    FrameBuffer a = new FrameBuffer();
+    FrameBuffer b = new FrameBuffer();
+    for (int t = 0; t < 520; t++) {
+      fixed.evaluate(t, a);
+      doubles.evaluate(t, b);
+      assertEquals(b.size(), a.size());
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(b.getX(i), a.getX(i));
+        assertEquals(b.getY(i), a.getY(i));
+        assertEquals(b.getWidth(i), a.getWidth(i));
+        assertEquals(b.getHeight(i), a.getHeight(i));
+        assertEquals(b.getColor(i), a.getColor(i));
+      }
+      for (int id = 0; id < model.getShapeCount(); id++) {
+        assertEquals(doubles.evaluate(id, t), fixed.evaluate(id, t));
+      }
+    }
+  }
+
+  @Test
+  public void testWholeTimesMatchTicks() {
+    IAnimatorModel model = model(CompressedAnimatorModel.builder());
+    FrameEvaluator ticks = new FrameEvaluator(model);
+    FrameEvaluator times = new FrameEvaluator(model);
+    FrameBuffer a = new FrameBuffer();
+    FrameBuffer b = new FrameBuffer();
+    for (int t = 0; t < 520; t++) {
+      ticks.evaluate(t, a);
+      times.evaluate((double) t, b);
+      assertEquals(a.size(), b.size());
+      for (int i = 0; i < a.size(); i++) {
+        assertEquals(a.getId(i), b.getId(i));
+        assertEquals(a.getX(i), b.getX(i));
+        assertEquals(a.getY(i), b.getY(i));
+        assertEquals(a.getWidth(i), b.getWidth(i));
+        assertEquals(a.getColor(i), b.getColor(i));
+      }
+    }
+  }
+
+  @Test
+  public void testTimesBetweenTicks() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(10, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(20, 100, 50, 10, 10, 0, 0, 200));
+    model.addShape("b ellipse");
+    model.addMotion("b", new Motion(12, 7, 7, 5, 5, 0, 0, 0));
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    FrameBuffer frame = new FrameBuffer();
+    evaluator.evaluate(9.5, frame);
+    assertEquals(0, frame.size());
+    evaluator.evaluate(10.25, frame);
+    assertEquals(1, frame.size());
+    assertEquals(2, frame.getX(0));
+    assertEquals(1, frame.getY(0));
+    assertEquals(0xFF000005, frame.getColor(0));
+    evaluator.evaluate(12.0, frame);
+    assertEquals(2, frame.size());
+    assertEquals(1, frame.getId(1));
+    evaluator.evaluate(12.5, frame);
+    assertEquals(1, frame.size());
+    assertEquals(25, frame.getX(0));
+    evaluator.evaluate(19.75, frame);
+    assertEquals(97, frame.getX(0));
+    evaluator.evaluate(20.5, frame);
+    assertEquals(0, frame.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTimeNotANumber() {
+    new FrameEvaluator(AnimatorModelImpl.builder().build()).evaluate(Double.NaN, new FrameBuffer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullModel() {
+    new FrameEvaluator(null);
+  }
+
+  @Test
+  public void testEasedSegment() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(0, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(100, 1000, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(200, 0, 0, 10, 10, 0, 0, 0));
+    model.setEasing("a", 0, Easing.EASE_IN);
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    FrameBuffer frame = new FrameBuffer();
+    for (int t = 0; t < 100; t++) {
+      assertEquals(1000 * Easing.EASE_IN.ease(t / 100.0), evaluator.evaluate(0, t).getX(), 1);
+      evaluator.evaluate(t + 0.5, frame);
+      assertEquals(1000 * Easing.EASE_IN.ease((t + 0.5) / 100.0), frame.getX(0), 1);
+    }
+    assertEquals(500, evaluator.evaluate(0, 150).getX());
+    model.setEasing("a", 0, Easing.LINEAR);
+    assertEquals(500, evaluator.evaluate(0, 50).getX());
+  }
+
+  @Test
+  public void testEasingOvershootClamps() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(0, 0, 0, 10, 10, 250, 0, 0));
+    model.addMotion("a", new Motion(10, 100, 0, 2, 10, 0, 0, 0));
+    model.setEasing("a", 0, Easing.cubicBezier(0.5, -1, 0.5, 2));
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    IMotion early = evaluator.evaluate(0, 2);
+    assertEquals(true, early.getX() < 0);
+    assertEquals(255, early.getRed());
+    IMotion late = evaluator.evaluate(0, 8);
+    assertEquals(true, late.getX() > 100);
+    assertEquals(1, late.getWidth());
+    assertEquals(0, late.getRed());
+    assertEquals(10, late.getHeight());
+  }
+
+  @Test
+  public void testCloseStopsListening() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("a rectangle");
+    model.addMotion("a", new Motion(0, 0, 0, 10, 10, 0, 0, 0));
+    model.addMotion("a", new Motion(100, 100, 0, 10, 10, 0, 0, 0));
+    FrameEvaluator evaluator = new FrameEvaluator(model);
+    assertEquals(50, evaluator.evaluate(0, 50).getX());
+    evaluator.close();
+    model.addMotion("a", new Motion(60, 0, 0, 10, 10, 0, 0, 0));
+    assertEquals(50, evaluator.evaluate(0, 50).getX());
+    assertEquals(0, fresh(model, 0, 50).getX());
+  }
+}
@@ -0,0 +1,69 @@
+package view;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the interpolation kernels, ensuring the kernel in use blends shapes
+ * exactly as blending them one channel at a time does. Run with the vector API added, this tests
+ * the vector kernel; without it, the scalar one.
+ */
+public class InterpolationKernelTest {
+
+  // blends the given columns with the kernel, returning the output columns.
+  private static double[][] run(InterpolationKernel kernel, int tick, int count, double[] ta,
+                                double[] tb, double[][] a, double[][] b) {
+    double[][] out = new double[InterpolationKernel.CHANNELS][count];
+    kernel.interpolate(tick, count, ta, tb, a, b, out);
+    return out;
+  }
+
+  @Test
+  public void testScalarMatchesFormula() {
+    double[] ta = {10, 0};
+    double[] tb = {20, 3};
+    double[][] a = {{0, 5}, {0, 5}, {10, 7}, {10, 7}, {0, 100}, {0, 100}, {0, 100}};
+    double[][] b = {{100, 5}, {50, 6}, {10, 7}, {10, 7}, {255, 100}, {0, 100}, {0, 100}};
+    double[][] out = run(new ScalarKernel(), 13, 2, ta, tb, a, b);
+    assertEquals(30, (int) out[0][0]);
+    assertEquals(15, (int) out[1][0]);
+    assertEquals(10, (int) out[2][0]);
+    assertEquals(76, (int) out[4][0]);
+    assertEquals((int) ScalarKernel.interpolate(13, 0, 3, 5, 5), (int) out[0][1]);
+    assertEquals(7, (int) out[3][1]);
+    assertEquals(100, (int) out[6][1]);
+  }
+
+  @Test
+  public void testBestMatchesScalar() {
+    Random random = new Random(22);
+    InterpolationKernel best = InterpolationKernel.best();
+    for (int count : new int[]{0, 1, 3, 8, 17, 1000}) {
+      double[] ta = new double[count];
+      double[] tb = new double[count];
+      double[][] a = new double[InterpolationKernel.CHANNELS][count];
+      double[][] b = new double[InterpolationKernel.CHANNELS][count];
+      int tick = 500;
+      for (int i = 0; i < count; i++) {
+        ta[i] = tick - 1 - random.nextInt(400);
+        tb[i] = tick + 1 + random.nextInt(400);
+        for (int c = 0; c < InterpolationKernel.CHANNELS; c++) {
+          a[c][i] = c >= 4 ? random.nextInt(256) : random.nextInt(2000) - 1000;
+          b[c][i] = random.nextInt(3) == 0 ? a[c][i] : c >= 4 ? random.nextInt(256)
+                  : random.nextInt(2000) - 1000;
+        }
+      }
+      double[][] expected = run(new ScalarKernel(), tick, count, ta, tb, a, b);
+      double[][] actual = run(best, tick, count, ta, tb, a, b);
+      for (int c = 0; c < InterpolationKernel.CHANNELS; c++) {
+        for (int i = 0; i < count; i++) {
+          assertEquals(Double.doubleToLongBits(expected[c][i]),
+                  Double.doubleToLongBits(actual[c][i]));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package view;
+
+import org.junit.Test;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the playback timer, ensuring its time moves with the real time at the
+ * speed it's set to, and stands still while it's stopped.
+ */
+public class PlaybackTimerTest {
+
+  private static final ActionListener NOTHING = new ActionListener() {
+    @Override
+    public void actionPerformed(ActionEvent e) {
+      // draws nothing.
+    }
+  };
+
+  @Test
+  public void testAdvance() {
+    PlaybackTimer timer = new PlaybackTimer(20, NOTHING);
+    timer.mark(1000);
+    assertEquals(0.0, timer.getTime(), 0);
+    assertEquals(1.0, timer.advance(1000 + 50000000L), 1e-9);
+    assertEquals(1.5, timer.advance(1000 + 75000000L), 1e-9);
+    assertEquals(21.5, timer.advance(1000 + 1075000000L), 1e-9);
+  }
+
+  @Test
+  public void testSpeedOnlyChangesRate() {
+    PlaybackTimer timer = new PlaybackTimer(1, NOTHING);
+    timer.mark(0);
+    assertEquals(0.5, timer.advance(500000000L), 1e-9);
+    timer.setTicksPerSecond(100);
+    assertEquals(100, timer.getTicksPerSecond());
+    assertEquals(0.5, timer.getTime(), 0);
+    assertEquals(50.5, timer.advance(1000000000L), 1e-9);
+  }
+
+  @Test
+  public void testMarkSkipsStoppedTime() {
+    PlaybackTimer timer = new PlaybackTimer(10, NOTHING);
+    timer.mark(0);
+    timer.advance(100000000L);
+    timer.mark(5000000000L);
+    assertEquals(1.5, timer.advance(5050000000L), 1e-9);
+  }
+
+  @Test
+  public void testSetTime() {
+    PlaybackTimer timer = new PlaybackTimer(10, NOTHING);
+    timer.mark(0);
+    timer.setTime(7);
+    assertEquals(8.0, timer.advance(100000000L), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTime() {
+    new PlaybackTimer(10, NOTHING).setTime(-0.5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroSpeed() {
+    new PlaybackTimer(0, NOTHING);
+  }
+}
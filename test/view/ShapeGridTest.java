@@ -0,0 +1,166 @@
+package view;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import model.ShapeType;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Represents a test class for the grid used to hit-test shapes, ensuring it finds the shapes drawn
+ * at a point or in a region as the panel draws them, and follows shapes from frame to frame.
+ */
+public class ShapeGridTest {
+
+  // creates a grid holding a single frame with the given shape.
+  private static ShapeGrid single(ShapeType type, int x, int y, int w, int h) {
+    ShapeGrid grid = new ShapeGrid(16);
+    grid.begin();
+    grid.put(0, type, x, y, w, h);
+    grid.end();
+    return grid;
+  }
+
+  @Test
+  public void testRectangle() {
+    ShapeGrid grid = single(ShapeType.RECTANGLE, 10, 20, 30, 40);
+    assertEquals(0, grid.shapeAt(10, 20));
+    assertEquals(0, grid.shapeAt(39, 59));
+    assertEquals(-1, grid.shapeAt(40, 59));
+    assertEquals(-1, grid.shapeAt(39, 60));
+    assertEquals(-1, grid.shapeAt(9, 20));
+  }
+
+  @Test
+  public void testEllipse() {
+    ShapeGrid grid = single(ShapeType.ELLIPSE, 0, 0, 100, 50);
+    assertEquals(0, grid.shapeAt(50, 25));
+    assertEquals(0, grid.shapeAt(1, 25));
+    assertEquals(0, grid.shapeAt(50, 1));
+    assertEquals(-1, grid.shapeAt(2, 2));
+    assertEquals(-1, grid.shapeAt(97, 47));
+  }
+
+  @Test
+  public void testCircleUsesWidth() {
+    ShapeGrid grid = single(ShapeType.CIRCLE, 0, 0, 20, 100);
+    assertEquals(0, grid.shapeAt(10, 19));
+    assertEquals(-1, grid.shapeAt(10, 21));
+    assertEquals(-1, grid.shapeAt(10, 50));
+  }
+
+  @Test
+  public void testTopmost() {
+    ShapeGrid grid = new ShapeGrid(16);
+    grid.begin();
+    grid.put(2, ShapeType.RECTANGLE, 0, 0, 10, 10);
+    grid.put(5, ShapeType.RECTANGLE, 5, 5, 10, 10);
+    grid.end();
+    assertEquals(2, grid.shapeAt(2, 2));
+    assertEquals(5, grid.shapeAt(7, 7));
+    assertEquals(5, grid.shapeAt(12, 12));
+    assertEquals(-1, grid.shapeAt(20, 20));
+  }
+
+  @Test
+  public void testFrames() {
+    ShapeGrid grid = new ShapeGrid(16);
+    grid.begin();
+    grid.put(0, ShapeType.RECTANGLE, 0, 0, 10, 10);
+    grid.put(1, ShapeType.RECTANGLE, 100, 100, 10, 10);
+    grid.end();
+    grid.begin();
+    grid.put(1, ShapeType.RECTANGLE, 200, 200, 10, 10);
+    grid.end();
+    assertEquals(-1, grid.shapeAt(5, 5));
+    assertEquals(-1, grid.shapeAt(105, 105));
+    assertEquals(1, grid.shapeAt(205, 205));
+    grid.begin();
+    grid.put(0, ShapeType.ELLIPSE, 0, 0, 10, 10);
+    grid.put(1, ShapeType.RECTANGLE, 200, 200, 10, 10);
+    grid.end();
+    assertEquals(0, grid.shapeAt(5, 5));
+    assertEquals(-1, grid.shapeAt(0, 0));
+    assertEquals(1, grid.shapeAt(205, 205));
+  }
+
+  @Test
+  public void testShapesIn() {
+    ShapeGrid grid = new ShapeGrid(16);
+    grid.begin();
+    grid.put(3, ShapeType.RECTANGLE, 0, 0, 10, 10);
+    grid.put(1, ShapeType.ELLIPSE, 20, 0, 20, 20);
+    grid.put(7, ShapeType.RECTANGLE, -1000, -1000, 5000, 5000);
+    grid.end();
+    assertEquals("[1, 3, 7]", Arrays.toString(grid.shapesIn(5, 5, 20, 10)));
+    assertEquals("[3, 7]", Arrays.toString(grid.shapesIn(0, 0, 21, 2)));
+    assertEquals("[7]", Arrays.toString(grid.shapesIn(10, 10, 10, 10)));
+    assertEquals("[]", Arrays.toString(grid.shapesIn(5, 5, 0, 10)));
+  }
+
+  @Test
+  public void testRandomAgainstScan() {
+    Random random = new Random(14);
+    ShapeType[] kinds = ShapeType.values();
+    ShapeGrid grid = new ShapeGrid(32);
+    ShapeGrid whole = new ShapeGrid(1 << 20);
+    for (int frame = 0; frame < 20; frame++) {
+      grid.begin();
+      whole.begin();
+      for (int id = 0; id < 200; id++) {
+        if (random.nextInt(4) > 0) {
+          ShapeType type = kinds[random.nextInt(kinds.length)];
+          int x = random.nextInt(1000) - 200;
+          int y = random.nextInt(1000) - 200;
+          int w = random.nextInt(frame % 5 == 0 ? 600 : 60);
+          int h = random.nextInt(60);
+          grid.put(id, type, x, y, w, h);
+          whole.put(id, type, x, y, w, h);
+        }
+      }
+      grid.end();
+      whole.end();
+      for (int q = 0; q < 200; q++) {
+        int x = random.nextInt(1000) - 200;
+        int y = random.nextInt(1000) - 200;
+        assertEquals(whole.shapeAt(x, y), grid.shapeAt(x, y));
+        int w = random.nextInt(100) + 1;
+        int h = random.nextInt(100) + 1;
+        assertEquals(Arrays.toString(whole.shapesIn(x, y, w, h)),
+                Arrays.toString(grid.shapesIn(x, y, w, h)));
+      }
+    }
+  }
+
+  @Test
+  public void testFramesWithoutQueries() {
+    ShapeGrid grid = new ShapeGrid(16);
+    for (int frame = 0; frame < 10; frame++) {
+      grid.begin();
+      grid.put(0, ShapeType.RECTANGLE, 10 * frame, 0, 10, 10);
+      if (frame % 3 == 0) {
+        grid.put(1, ShapeType.RECTANGLE, 0, 100 + frame, 10, 10);
+      }
+      grid.end();
+    }
+    assertEquals(0, grid.shapeAt(95, 5));
+    assertEquals(-1, grid.shapeAt(5, 5));
+    assertEquals(1, grid.shapeAt(5, 109));
+    grid.begin();
+    grid.put(0, ShapeType.RECTANGLE, 0, 0, 10, 10);
+    grid.end();
+    grid.begin();
+    grid.put(0, ShapeType.RECTANGLE, 90, 0, 10, 10);
+    grid.end();
+    assertEquals("[0]", Arrays.toString(grid.shapesIn(0, 0, 200, 200)));
+    assertEquals(-1, grid.shapeAt(5, 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadCellSize() {
+    new ShapeGrid(0);
+  }
+}
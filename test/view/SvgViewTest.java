@@ -3,6 +3,7 @@ package view;
 import org.junit.Test;
 
 import model.AnimatorModelImpl;
+import model.Easing;
 import model.IAnimatorModel;
 import model.IMotion;
 import model.Motion;
@@ -96,4 +97,44 @@ public class SvgViewTest {
             "\n" +
             "</svg>", contents.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testDrawEasing() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("loony rectangle");
+    model.addMotion("loony", new Motion(1, 400, 10, 20, 100, 0, 0, 255));
+    model.addMotion("loony", new Motion(11, 200, 10, 20, 100, 0, 0, 255));
+    model.setEasing("loony", 1, Easing.EASE_IN);
+    StringBuilder contents = new StringBuilder();
+    new SvgView(model, contents, 1).draw();
+    assertEquals("<svg width=\"500\" height=\"500\" version=\"1.1\"" +
+            " xmlns=\"http://www.w3.org/2000/svg\">\n\n" +
+            "<rect id=\"loony\" x=\"400\" y=\"10\" width=\"20\" height=\"100\"" +
+            " fill=\"rgb(0,0,255)\" visibility=\"visible\">\n" +
+            "<animate attributeType=\"xml\" begin=\"1000ms\" dur=\"10000ms\"" +
+            " calcMode=\"spline\" keyTimes=\"0;1\" keySplines=\"0.42 0 1 1\"" +
+            " attributeName=\"x\" from=\"400\" to=\"200\" fill=\"freeze\" />\n" +
+            "</rect>\n\n</svg>", contents.toString());
+  }
+
+  @Test
+  public void testDrawOvershootingEasing() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("loony rectangle");
+    model.addMotion("loony", new Motion(1, 0, 10, 20, 100, 0, 0, 255));
+    model.addMotion("loony", new Motion(17, 160, 10, 20, 100, 0, 0, 255));
+    model.setEasing("loony", 1, Easing.cubicBezier(0.5, -1, 0.5, 2));
+    StringBuilder contents = new StringBuilder();
+    new SvgView(model, contents, 1).draw();
+    assertEquals("<svg width=\"500\" height=\"500\" version=\"1.1\"" +
+            " xmlns=\"http://www.w3.org/2000/svg\">\n\n" +
+            "<rect id=\"loony\" x=\"0\" y=\"10\" width=\"20\" height=\"100\"" +
+            " fill=\"rgb(0,0,255)\" visibility=\"visible\">\n" +
+            "<animate attributeType=\"xml\" begin=\"1000ms\" dur=\"16000ms\"" +
+            " calcMode=\"linear\" keyTimes=\"0;0.0625;0.125;0.1875;0.25;0.3125;0.375;0.4375;" +
+            "0.5;0.5625;0.625;0.6875;0.75;0.8125;0.875;0.9375;1\" attributeName=\"x\"" +
+            " values=\"0;-17;-28;-33;-29;-15;8;41;80;118;151;175;189;193;188;177;160\"" +
+            " fill=\"freeze\" />\n" +
+            "</rect>\n\n</svg>", contents.toString());
+  }
+}
@@ -2,10 +2,14 @@ package view;
 
 import org.junit.Test;
 
+import java.io.StringReader;
+
 import model.AnimatorModelImpl;
+import model.Easing;
 import model.IAnimatorModel;
 import model.IMotion;
 import model.Motion;
+import util.AnimationReader;
 
 import static org.junit.Assert.assertEquals;
 
@@ -78,4 +82,29 @@ public class TextualViewTest {
             "motion leralt\t16\t10\t20\t20\t100\t0\t0\t255\n" +
             "Shape d circle\n", contents.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testEasing() {
+    IAnimatorModel model = AnimatorModelImpl.builder().build();
+    model.addShape("loony rectangle");
+    model.addMotion("loony", new Motion(1, 10, 20, 20, 100, 0, 0, 255));
+    model.addMotion("loony", new Motion(16, 10, 40, 20, 100, 0, 0, 255));
+    model.addMotion("loony", new Motion(17, 10, 20, 20, 100, 0, 0, 255));
+    model.setEasing("loony", 1, Easing.EASE_IN_OUT);
+    model.setEasing("loony", 16, Easing.cubicBezier(0.1, 0.7, 1, 0.1));
+    StringBuilder contents = new StringBuilder();
+    new TextualView(model, contents).draw();
+    assertEquals("Canvas 0 0 500 500\n" +
+            "Shape loony rectangle\n" +
+            "motion loony\t1\t10\t20\t20\t100\t0\t0\t255\t\t16\t10\t40\t20\t100\t0\t0\t255\n" +
+            "motion loony\t16\t10\t40\t20\t100\t0\t0\t255\t\t17\t10\t20\t20\t100\t0\t0\t255\n" +
+            "ease loony\t1\tease-in-out\n" +
+            "ease loony\t16\tcubic-bezier(0.1,0.7,1.0,0.1)\n",
+            contents.toString());
+    String input = contents.toString().replace("Canvas", "canvas").replace("Shape", "shape");
+    IAnimatorModel read = AnimationReader.parseFile(new StringReader(input),
+            AnimatorModelImpl.builder());
+    assertEquals(Easing.EASE_IN_OUT, read.getEasing("loony", 1));
+    assertEquals(Easing.cubicBezier(0.1, 0.7, 1, 0.1), read.getEasing("loony", 16));
+  }
+}